@@ -26,6 +26,9 @@ android {
         sourceCompatibility = JavaVersion.VERSION_1_8
         targetCompatibility = JavaVersion.VERSION_1_8
     }
+    testOptions {
+        unitTests.isIncludeAndroidResources = true
+    }
 }
 
 dependencies {
@@ -36,11 +39,31 @@ dependencies {
     testImplementation(libs.junit)
     androidTestImplementation(libs.ext.junit)
     androidTestImplementation(libs.espresso.core)
+    // Local tests that need Android classes and a real Room database
+    testImplementation("org.robolectric:robolectric:4.11.1")
+    testImplementation("androidx.test:core:1.5.0")
+    // Same OkHttp version Retrofit 2.9 brings in
+    testImplementation("com.squareup.okhttp3:mockwebserver:3.14.9")
     implementation ("androidx.swiperefreshlayout:swiperefreshlayout:1.1.0")
 
     // Room dependencies
-    implementation("androidx.room:room-runtime:2.3.0")
-    annotationProcessor("androidx.room:room-compiler:2.3.0")
+    implementation("androidx.room:room-runtime:2.4.3")
+    annotationProcessor("androidx.room:room-compiler:2.4.3")
+    implementation("androidx.room:room-paging:2.4.3")
+
+    // Paging dependencies
+    implementation("androidx.paging:paging-runtime:3.1.1")
+    implementation("androidx.paging:paging-guava:3.1.1")
+    implementation("androidx.concurrent:concurrent-futures:1.1.0")
+
+    // WorkManager for the background upload queue
+    implementation("androidx.work:work-runtime:2.8.1")
+
+    // ExoPlayer with HLS and DASH support
+    implementation("androidx.media3:media3-exoplayer:1.1.1")
+    implementation("androidx.media3:media3-exoplayer-hls:1.1.1")
+    implementation("androidx.media3:media3-exoplayer-dash:1.1.1")
+    implementation("androidx.media3:media3-ui:1.1.1")
 
     // RetroFit dependencies
     implementation("com.squareup.retrofit2:retrofit:2.9.0")
@@ -50,10 +73,14 @@ dependencies {
 
     implementation ("androidx.lifecycle:lifecycle-viewmodel-ktx:2.6.2")
 
-    implementation("androidx.room:room-ktx:2.3.0")
-    implementation("androidx.room:room-common:2.3.0")
+    implementation("androidx.room:room-ktx:2.4.3")
+    implementation("androidx.room:room-common:2.4.3")
     implementation("com.google.android.material:material:1.3.0")
     implementation("com.github.bumptech.glide:glide:4.12.0")
     annotationProcessor ("com.github.bumptech.glide:compiler:4.12.0")
+    implementation("com.github.bumptech.glide:recyclerview-integration:4.12.0") {
+        // Uses the app's own RecyclerView version
+        isTransitive = false
+    }
 
 }
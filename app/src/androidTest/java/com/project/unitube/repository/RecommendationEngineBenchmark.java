@@ -0,0 +1,175 @@
+package com.project.unitube.repository;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotEquals;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertTrue;
+
+import android.content.Context;
+import android.util.Log;
+
+import androidx.lifecycle.LiveData;
+import androidx.lifecycle.Observer;
+import androidx.room.Room;
+import androidx.test.ext.junit.runners.AndroidJUnit4;
+import androidx.test.filters.LargeTest;
+import androidx.test.platform.app.InstrumentationRegistry;
+
+import com.project.unitube.Room.Database.AppDB;
+import com.project.unitube.Room.Database.DatabaseWriteExecutor;
+import com.project.unitube.entities.Video;
+import com.project.unitube.entities.VideoLike;
+import com.project.unitube.entities.VideoSummary;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.Random;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * Ranks a synthetic catalog of 50k videos on a device and checks the ranking stays interactive.
+ */
+@RunWith(AndroidJUnit4.class)
+@LargeTest
+public class RecommendationEngineBenchmark {
+
+    private static final String TAG = "RecommendationBenchmark";
+    private static final int CATALOG_SIZE = 50_000;
+    private static final int VOCABULARY_SIZE = 5_000;
+    private static final int UPLOADERS = 500;
+    private static final int USERS = 1_000;
+    private static final int LIKES_PER_USER = 20;
+    private static final int INSERT_PAGE_SIZE = 1_000;
+    private static final int RANKINGS = 20;
+    private static final long TIMEOUT_MS = TimeUnit.MINUTES.toMillis(5);
+    // Rankings after the index is built have to fit well inside a screen transition
+    private static final double MAX_AVERAGE_RANKING_MS = 250;
+
+    private AppDB db;
+    private DatabaseWriteExecutor executor;
+
+    @Before
+    public void setUp() {
+        Context context = InstrumentationRegistry.getInstrumentation().getTargetContext();
+        db = Room.inMemoryDatabaseBuilder(context, AppDB.class).build();
+        executor = new DatabaseWriteExecutor(db);
+    }
+
+    @After
+    public void tearDown() {
+        db.close();
+    }
+
+    @Test
+    public void ranksASyntheticCatalogOf50kVideos() throws InterruptedException {
+        Random random = new Random(42);
+        insertCatalog(random);
+        insertLikes(random);
+
+        RecommendationEngine engine = new RecommendationEngine(db, executor, onChanged -> { });
+
+        // The first ranking builds the term index
+        long start = System.nanoTime();
+        List<VideoSummary> first = await(engine.getRecommendations(1, "user0"));
+        long buildAndRankMs = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start);
+        assertEquals(20, first.size());
+
+        long rankTotalNanos = 0;
+        for (int i = 0; i < RANKINGS; i++) {
+            int videoId = 1 + random.nextInt(CATALOG_SIZE);
+            start = System.nanoTime();
+            List<VideoSummary> ranked = await(engine.getRecommendations(videoId, "user" + random.nextInt(USERS)));
+            rankTotalNanos += System.nanoTime() - start;
+            assertFalse(ranked.isEmpty());
+            for (VideoSummary summary : ranked) {
+                assertNotEquals(videoId, summary.getId());
+            }
+        }
+
+        double averageRankingMs = TimeUnit.NANOSECONDS.toMicros(rankTotalNanos) / 1000.0 / RANKINGS;
+        Log.i(TAG, String.format(Locale.US,
+                "Catalog of %d videos: index build and first ranking %d ms, ranking %.1f ms on average",
+                CATALOG_SIZE, buildAndRankMs, averageRankingMs));
+        assertTrue("Ranking took " + averageRankingMs + " ms on average", averageRankingMs < MAX_AVERAGE_RANKING_MS);
+    }
+
+    private void insertCatalog(Random random) {
+        String[] vocabulary = new String[VOCABULARY_SIZE];
+        for (int i = 0; i < VOCABULARY_SIZE; i++) {
+            vocabulary[i] = "word" + i;
+        }
+        db.runInTransaction(() -> {
+            List<Video> page = new ArrayList<>();
+            for (int id = 1; id <= CATALOG_SIZE; id++) {
+                Video video = new Video();
+                video.setId(id);
+                video.setTitle(words(random, vocabulary, 6));
+                video.setUploader("uploader" + random.nextInt(UPLOADERS));
+                video.setDescription(words(random, vocabulary, 30));
+                video.setUploadDate(String.format(Locale.US, "2024-%02d-%02d",
+                        1 + random.nextInt(12), 1 + random.nextInt(28)));
+                page.add(video);
+                if (page.size() == INSERT_PAGE_SIZE) {
+                    db.videoDao().insertAllVideos(page);
+                    page.clear();
+                }
+            }
+            db.videoDao().insertAllVideos(page);
+        });
+    }
+
+    private void insertLikes(Random random) {
+        db.runInTransaction(() -> {
+            for (int user = 0; user < USERS; user++) {
+                List<VideoLike> likes = new ArrayList<>();
+                for (int i = 0; i < LIKES_PER_USER; i++) {
+                    likes.add(new VideoLike(1 + random.nextInt(CATALOG_SIZE), "user" + user));
+                }
+                db.reactionDao().insertLikes(likes);
+            }
+        });
+    }
+
+    // Waits on the test thread for the first value the ranking thread posts
+    private static <T> T await(LiveData<T> liveData) throws InterruptedException {
+        CountDownLatch received = new CountDownLatch(1);
+        AtomicReference<T> value = new AtomicReference<>();
+        Observer<T> observer = new Observer<T>() {
+            @Override
+            public void onChanged(T changed) {
+                if (changed != null) {
+                    value.set(changed);
+                    received.countDown();
+                }
+            }
+        };
+        InstrumentationRegistry.getInstrumentation().runOnMainSync(() -> liveData.observeForever(observer));
+        try {
+            assertTrue("Timed out waiting for recommendations", received.await(TIMEOUT_MS, TimeUnit.MILLISECONDS));
+        } finally {
+            InstrumentationRegistry.getInstrumentation().runOnMainSync(() -> liveData.removeObserver(observer));
+        }
+        assertNotNull(value.get());
+        return value.get();
+    }
+
+    private static String words(Random random, String[] vocabulary, int count) {
+        StringBuilder text = new StringBuilder();
+        for (int i = 0; i < count; i++) {
+            if (i > 0) {
+                text.append(' ');
+            }
+            text.append(vocabulary[random.nextInt(vocabulary.length)]);
+        }
+        return text.toString();
+    }
+}
@@ -0,0 +1,110 @@
+package com.project.unitube.ui.activity;
+
+import static androidx.test.espresso.Espresso.onView;
+import static androidx.test.espresso.action.ViewActions.swipeUp;
+import static androidx.test.espresso.matcher.ViewMatchers.withId;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assume.assumeNotNull;
+
+import android.content.Context;
+import android.os.SystemClock;
+import android.util.Log;
+
+import androidx.test.core.app.ActivityScenario;
+import androidx.test.ext.junit.runners.AndroidJUnit4;
+import androidx.test.filters.LargeTest;
+import androidx.test.platform.app.InstrumentationRegistry;
+
+import com.project.unitube.R;
+import com.project.unitube.Room.Database.AppDB;
+import com.project.unitube.entities.Video;
+import com.project.unitube.utils.FrameTimeMonitor;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+
+/**
+ * Flings the home feed on a device and checks the frame times FrameTimeMonitor records.
+ */
+@RunWith(AndroidJUnit4.class)
+@LargeTest
+public class FeedFlingTest {
+
+    private static final String TAG = "FeedFlingTest";
+    // Ids far above the server's, so the seeded rows are easy to remove again
+    private static final int FIRST_ID = 1_000_000;
+    private static final int VIDEO_COUNT = 300;
+    private static final int FLINGS = 6;
+    private static final long SUMMARY_TIMEOUT_MS = 5000;
+    // A frame this slow counts as frozen
+    private static final double FROZEN_FRAME_MS = 700;
+
+    private AppDB db;
+    private final List<Integer> seededIds = new ArrayList<>();
+
+    @Before
+    public void seedFeed() {
+        Context context = InstrumentationRegistry.getInstrumentation().getTargetContext();
+        db = AppDB.getInstance(context);
+        List<Video> videos = new ArrayList<>();
+        for (int i = 0; i < VIDEO_COUNT; i++) {
+            Video video = new Video();
+            video.setId(FIRST_ID + i);
+            video.setTitle("Fling test video " + i);
+            video.setUploader("fling-test");
+            video.setUploadDate("2024-01-01");
+            video.setDuration("1:00");
+            videos.add(video);
+            seededIds.add(video.getId());
+        }
+        db.videoDao().insertAllVideos(videos);
+    }
+
+    @After
+    public void removeSeededVideos() {
+        db.videoDao().deleteVideosByIds(seededIds);
+    }
+
+    @Test
+    public void flingingTheFeedHasNoFrozenFrames() {
+        try (ActivityScenario<MainActivity> scenario = ActivityScenario.launch(MainActivity.class)) {
+            FrameTimeMonitor[] monitor = new FrameTimeMonitor[1];
+            scenario.onActivity(activity -> monitor[0] = FrameTimeMonitor.attach(activity,
+                    activity.findViewById(R.id.videoRecyclerView), "fling-test"));
+            // Only debuggable builds are monitored
+            assumeNotNull(monitor[0]);
+
+            for (int i = 0; i < FLINGS; i++) {
+                onView(withId(R.id.videoRecyclerView)).perform(swipeUp());
+            }
+
+            FrameTimeMonitor.Summary summary = awaitSummary(monitor[0]);
+            assertNotNull("The fling never settled", summary);
+            Log.i(TAG, String.format(Locale.US, "%d frames, p50 %.1f ms, p90 %.1f ms, p99 %.1f ms, max %.1f ms",
+                    summary.frameCount, summary.p50Ms, summary.p90Ms, summary.p99Ms, summary.maxMs));
+            assertTrue(summary.frameCount > 0);
+            assertTrue("Frozen frame of " + summary.maxMs + " ms", summary.maxMs < FROZEN_FRAME_MS);
+        }
+    }
+
+    // The summary is written when the list stops scrolling after the last fling
+    private static FrameTimeMonitor.Summary awaitSummary(FrameTimeMonitor monitor) {
+        long deadline = SystemClock.uptimeMillis() + SUMMARY_TIMEOUT_MS;
+        while (SystemClock.uptimeMillis() < deadline) {
+            InstrumentationRegistry.getInstrumentation().waitForIdleSync();
+            FrameTimeMonitor.Summary summary = monitor.getLastSummary();
+            if (summary != null) {
+                return summary;
+            }
+            SystemClock.sleep(50);
+        }
+        return null;
+    }
+}
@@ -1,6 +1,6 @@
 package com.project.unitube.Room.Dao;
 
-import androidx.lifecycle.LiveData;
+import androidx.paging.PagingSource;
 import androidx.room.Dao;
 import androidx.room.Delete;
 import androidx.room.Insert;
@@ -15,9 +15,10 @@ import java.util.List;
 @Dao
 public interface CommentDao {
 
-    // get comments list by video ID
-    @Query("SELECT * FROM comment WHERE videoId = :videoId")
-    List<Comment> getCommentsByVideoID(int videoId);
+    // Comments of a video, newest first. Comment ids are MongoDB ObjectIds, which start with
+    // their creation time, so the id orders them by age and is also the server's page cursor.
+    @Query("SELECT * FROM comment WHERE videoId = :videoId ORDER BY id DESC")
+    PagingSource<Integer, Comment> getCommentPagingSource(int videoId);
 
     @Query("SELECT * FROM comment WHERE id = :id")
     Comment getCommentByID(String id);
@@ -33,4 +34,10 @@ public interface CommentDao {
 
     @Delete
     void deleteComment(Comment... comments);
+
+    @Query("DELETE FROM comment WHERE videoId = :videoId")
+    void deleteCommentsByVideoID(int videoId);
+
+    @Query("DELETE FROM comment WHERE id = :id")
+    void deleteCommentByID(String id);
 }
\ No newline at end of file
@@ -0,0 +1,49 @@
+package com.project.unitube.Room.Dao;
+
+import androidx.lifecycle.LiveData;
+import androidx.room.Dao;
+import androidx.room.Insert;
+import androidx.room.OnConflictStrategy;
+import androidx.room.Query;
+import androidx.room.Update;
+
+import com.project.unitube.entities.OfflineVideo;
+
+import java.util.List;
+
+@Dao
+public interface OfflineVideoDao {
+
+    @Query("SELECT * FROM offlinevideo WHERE videoId = :videoId")
+    LiveData<OfflineVideo> observeVideo(int videoId);
+
+    @Query("SELECT * FROM offlinevideo WHERE videoId = :videoId")
+    OfflineVideo getVideo(int videoId);
+
+    // Downloads still to run, oldest first. DOWNLOADING ones were cut off and are resumed.
+    @Query("SELECT * FROM offlinevideo WHERE state IN ('QUEUED', 'DOWNLOADING') ORDER BY createdAt")
+    List<OfflineVideo> getPendingVideos();
+
+    @Query("SELECT COALESCE(SUM(bytes), 0) FROM offlinevideo WHERE state = 'DONE' AND videoId != :videoId")
+    long getStoredBytesExcept(int videoId);
+
+    // Eviction order: least recently watched first
+    @Query("SELECT * FROM offlinevideo WHERE state = 'DONE' ORDER BY lastWatchedAt")
+    List<OfflineVideo> getStoredVideosByLastWatched();
+
+    // A download asked for again replaces the failed or finished row
+    @Insert(onConflict = OnConflictStrategy.REPLACE)
+    void insertVideo(OfflineVideo video);
+
+    @Update
+    void updateVideo(OfflineVideo video);
+
+    @Query("UPDATE offlinevideo SET progress = :progress WHERE videoId = :videoId")
+    void updateProgress(int videoId, int progress);
+
+    @Query("UPDATE offlinevideo SET lastWatchedAt = :time WHERE videoId = :videoId")
+    void updateLastWatched(int videoId, long time);
+
+    @Query("DELETE FROM offlinevideo WHERE videoId = :videoId")
+    void deleteVideo(int videoId);
+}
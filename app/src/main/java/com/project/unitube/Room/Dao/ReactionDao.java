@@ -0,0 +1,40 @@
+package com.project.unitube.Room.Dao;
+
+import androidx.room.Dao;
+import androidx.room.Insert;
+import androidx.room.OnConflictStrategy;
+import androidx.room.Query;
+
+import com.project.unitube.entities.VideoDislike;
+import com.project.unitube.entities.VideoLike;
+
+import java.util.List;
+
+@Dao
+public interface ReactionDao {
+
+    // user names that liked / disliked a video, looked up through the primary key index
+    @Query("SELECT userName FROM videolike WHERE videoId = :videoId")
+    List<String> getLikers(int videoId);
+
+    @Query("SELECT userName FROM videodislike WHERE videoId = :videoId")
+    List<String> getDislikers(int videoId);
+
+    @Insert(onConflict = OnConflictStrategy.IGNORE)
+    void insertLikes(List<VideoLike> likes);
+
+    @Insert(onConflict = OnConflictStrategy.IGNORE)
+    void insertDislikes(List<VideoDislike> dislikes);
+
+    @Query("DELETE FROM videolike WHERE videoId = :videoId")
+    void deleteLikes(int videoId);
+
+    @Query("DELETE FROM videodislike WHERE videoId = :videoId")
+    void deleteDislikes(int videoId);
+
+    @Query("DELETE FROM videolike WHERE videoId = :videoId AND userName = :userName")
+    void deleteLike(int videoId, String userName);
+
+    @Query("DELETE FROM videodislike WHERE videoId = :videoId AND userName = :userName")
+    void deleteDislike(int videoId, String userName);
+}
@@ -0,0 +1,98 @@
+package com.project.unitube.Room.Dao;
+
+import androidx.room.Dao;
+import androidx.room.Insert;
+import androidx.room.OnConflictStrategy;
+import androidx.room.Query;
+
+import com.project.unitube.entities.VideoTerm;
+
+import java.util.List;
+
+/**
+ * Queries behind the recommendation engine: the TF-IDF term index and the signals
+ * read from the like tables.
+ */
+@Dao
+public interface RecommendationDao {
+
+    /**
+     * Text and metadata of a video, read when the term index is built.
+     */
+    class VideoText {
+        public int id;
+        public String title;
+        public String description;
+    }
+
+    /**
+     * Columns a candidate is scored on besides its similarity.
+     */
+    class CandidateInfo {
+        public int id;
+        public String uploader;
+        public String uploadDate;
+    }
+
+    class VideoCount {
+        public int videoId;
+        public int count;
+    }
+
+    class UploaderCount {
+        public String uploader;
+        public int count;
+    }
+
+    class TermWeight {
+        public int videoId;
+        public String term;
+        public float weight;
+    }
+
+    // Catalog signature, the index is rebuilt when it changes
+    @Query("SELECT COUNT(*) FROM video")
+    int getVideoCount();
+
+    @Query("SELECT COALESCE(MAX(id), 0) FROM video")
+    int getMaxVideoId();
+
+    // Catalog text page by page, in id order
+    @Query("SELECT id, title, description FROM video WHERE id > :afterId ORDER BY id LIMIT :limit")
+    List<VideoText> getVideoTextPage(int afterId, int limit);
+
+    @Query("SELECT videoId, term, weight FROM videoterm WHERE videoId = :videoId")
+    List<TermWeight> getTerms(int videoId);
+
+    // Videos weighing the most on a term
+    @Query("SELECT videoId, term, weight FROM videoterm WHERE term = :term ORDER BY weight DESC LIMIT :limit")
+    List<TermWeight> getTopVideosForTerm(String term, int limit);
+
+    // Videos liked by the users who liked videoId, with how many of them liked each
+    @Query("SELECT other.videoId AS videoId, COUNT(*) AS count FROM videolike AS liked "
+            + "JOIN videolike AS other ON other.userName = liked.userName "
+            + "WHERE liked.videoId = :videoId AND other.videoId != :videoId "
+            + "GROUP BY other.videoId ORDER BY count DESC LIMIT :limit")
+    List<VideoCount> getCoLikedVideos(int videoId, int limit);
+
+    // How many videos of each uploader the user liked
+    @Query("SELECT video.uploader AS uploader, COUNT(*) AS count FROM videolike "
+            + "JOIN video ON video.id = videolike.videoId "
+            + "WHERE videolike.userName = :userName GROUP BY video.uploader")
+    List<UploaderCount> getLikedUploaders(String userName);
+
+    @Query("SELECT id FROM video WHERE uploader = :uploader AND id != :videoId ORDER BY id DESC LIMIT :limit")
+    List<Integer> getVideosByUploader(String uploader, int videoId, int limit);
+
+    @Query("SELECT id FROM video ORDER BY id DESC LIMIT :limit")
+    List<Integer> getNewestVideos(int limit);
+
+    @Query("SELECT id, uploader, uploadDate FROM video WHERE id IN (:ids)")
+    List<CandidateInfo> getCandidateInfo(List<Integer> ids);
+
+    @Insert(onConflict = OnConflictStrategy.REPLACE)
+    void insertTerms(List<VideoTerm> terms);
+
+    @Query("DELETE FROM videoterm")
+    void deleteAllTerms();
+}
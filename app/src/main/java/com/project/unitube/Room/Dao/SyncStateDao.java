@@ -0,0 +1,18 @@
+package com.project.unitube.Room.Dao;
+
+import androidx.room.Dao;
+import androidx.room.Insert;
+import androidx.room.OnConflictStrategy;
+import androidx.room.Query;
+
+import com.project.unitube.entities.SyncState;
+
+@Dao
+public interface SyncStateDao {
+
+    @Query("SELECT value FROM syncstate WHERE name = :name")
+    Long getValue(String name);
+
+    @Insert(onConflict = OnConflictStrategy.REPLACE)
+    void putState(SyncState state);
+}
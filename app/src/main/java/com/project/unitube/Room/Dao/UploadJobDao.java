@@ -0,0 +1,45 @@
+package com.project.unitube.Room.Dao;
+
+import androidx.lifecycle.LiveData;
+import androidx.room.Dao;
+import androidx.room.Insert;
+import androidx.room.Query;
+import androidx.room.Update;
+
+import com.project.unitube.entities.UploadJob;
+
+import java.util.List;
+
+@Dao
+public interface UploadJobDao {
+
+    @Query("SELECT * FROM uploadjob WHERE id = :id")
+    LiveData<UploadJob> observeJob(int id);
+
+    @Query("SELECT * FROM uploadjob ORDER BY id DESC")
+    LiveData<List<UploadJob>> observeJobs();
+
+    // Jobs still to send, oldest first. TRANSCODING and UPLOADING ones were cut off and are resumed.
+    @Query("SELECT * FROM uploadjob WHERE state IN ('QUEUED', 'TRANSCODING', 'UPLOADING') ORDER BY id")
+    List<UploadJob> getPendingJobs();
+
+    @Insert
+    long insertJob(UploadJob job);
+
+    @Update
+    void updateJob(UploadJob job);
+
+    // Display progress, written while a chunk is being sent
+    @Query("UPDATE uploadjob SET sentBytes = :sentBytes WHERE id = :id")
+    void updateSentBytes(int id, long sentBytes);
+
+    // The offset an interrupted upload resumes from, written only once the server acknowledged it
+    @Query("UPDATE uploadjob SET uploadedBytes = :uploadedBytes WHERE id = :id")
+    void updateUploadedBytes(int id, long uploadedBytes);
+
+    @Query("UPDATE uploadjob SET transcodeProgress = :percent WHERE id = :id")
+    void updateTranscodeProgress(int id, int percent);
+
+    @Query("DELETE FROM uploadjob WHERE state = 'DONE'")
+    void deleteFinishedJobs();
+}
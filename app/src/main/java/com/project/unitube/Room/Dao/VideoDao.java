@@ -1,15 +1,19 @@
 package com.project.unitube.Room.Dao;
 
 import androidx.lifecycle.LiveData;
+import androidx.paging.PagingSource;
 import androidx.room.Dao;
 import androidx.room.Delete;
 import androidx.room.Insert;
 import androidx.room.OnConflictStrategy;
 import androidx.room.Query;
+import androidx.room.Transaction;
 import androidx.room.Update;
 
 import com.project.unitube.entities.Video;
+import com.project.unitube.entities.VideoSummary;
 
+import java.util.ArrayList;
 import java.util.List;
 
 @Dao
@@ -24,18 +28,75 @@ public interface VideoDao {
     @Query("SELECT * FROM video WHERE uploader = :uploader")
     List<Video> getVideosByUploader(String uploader);
 
-    @Insert(onConflict = OnConflictStrategy.REPLACE)
+    // Home feed, newest first, loaded page by page
+    @Query("SELECT id, title, url, thumbnailUrl, thumbnails, uploader, uploadDate, duration, profilePicture FROM video ORDER BY id DESC")
+    PagingSource<Integer, VideoSummary> getVideoSummaryPagingSource();
+
+    @Query("SELECT id, title, url, thumbnailUrl, thumbnails, uploader, uploadDate, duration, profilePicture FROM video WHERE uploader = :uploader")
+    List<VideoSummary> getVideoSummariesByUploader(String uploader);
+
+    @Query("SELECT id, title, url, thumbnailUrl, thumbnails, uploader, uploadDate, duration, profilePicture FROM video WHERE id IN (:ids)")
+    List<VideoSummary> getVideoSummariesByIds(List<Integer> ids);
+
+    // Full-text search through VideoFts. match is an FTS4 expression such as "cat* vid*",
+    // text is the raw query used to rank title hits above uploader and description hits.
+    @Query("SELECT video.id, video.title, video.url, video.thumbnailUrl, video.thumbnails, video.uploader, video.uploadDate, "
+            + "video.duration, video.profilePicture FROM video "
+            + "JOIN VideoFts ON video.id = VideoFts.rowid "
+            + "WHERE VideoFts MATCH :match "
+            + "ORDER BY CASE "
+            + "WHEN video.title LIKE :text || '%' THEN 0 "
+            + "WHEN video.title LIKE '%' || :text || '%' THEN 1 "
+            + "WHEN video.uploader LIKE :text || '%' THEN 2 "
+            + "ELSE 3 END, video.id DESC "
+            + "LIMIT :limit")
+    List<VideoSummary> searchVideoSummaries(String match, String text, int limit);
+
+    // REPLACE would delete the old row first and cascade to its comments and reactions,
+    // so new rows are inserted with IGNORE and existing rows are updated in place.
+    @Insert(onConflict = OnConflictStrategy.IGNORE)
     void insertVideo(Video... videos);
 
-    @Insert(onConflict = OnConflictStrategy.REPLACE)
+    @Insert(onConflict = OnConflictStrategy.IGNORE)
     void insertAllVideos(List<Video> videos);
 
     @Update
     void updateVideo(Video... videos);
 
+    @Update
+    void updateAllVideos(List<Video> videos);
+
+    // Updates only the summary columns, keeping descriptions already stored
+    @Update(entity = Video.class)
+    void updateVideoSummaries(List<VideoSummary> summaries);
+
+    @Transaction
+    default void upsertAllVideos(List<Video> videos) {
+        insertAllVideos(videos);
+        updateAllVideos(videos);
+    }
+
+    @Transaction
+    default void upsertVideoSummaries(List<VideoSummary> summaries) {
+        List<Video> newRows = new ArrayList<>();
+        for (VideoSummary summary : summaries) {
+            newRows.add(summary.toVideo());
+        }
+        insertAllVideos(newRows);
+        updateVideoSummaries(summaries);
+    }
+
     @Delete
     void deleteVideo(Video... videos);
 
+    // Recounts the like and dislike columns from the reaction tables after a single reaction changed
+    @Query("UPDATE video SET likes = (SELECT COUNT(*) FROM videolike WHERE videoId = :id), "
+            + "dislikes = (SELECT COUNT(*) FROM videodislike WHERE videoId = :id) WHERE id = :id")
+    void recountReactions(int id);
+
+    @Query("DELETE FROM video WHERE id IN (:ids)")
+    void deleteVideosByIds(List<Integer> ids);
+
     @Query("DELETE FROM video")
     void deleteAllVideos();
 }
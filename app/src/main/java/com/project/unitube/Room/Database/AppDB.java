@@ -2,20 +2,38 @@ package com.project.unitube.Room.Database;
 
 import android.content.Context;
 
+import androidx.annotation.NonNull;
 import androidx.room.Database;
 import androidx.room.Room;
 import androidx.room.RoomDatabase;
+import androidx.room.TypeConverters;
+import androidx.room.migration.Migration;
+import androidx.sqlite.db.SupportSQLiteDatabase;
 
 import com.project.unitube.Room.Dao.CommentDao;
+import com.project.unitube.Room.Dao.OfflineVideoDao;
+import com.project.unitube.Room.Dao.ReactionDao;
+import com.project.unitube.Room.Dao.RecommendationDao;
+import com.project.unitube.Room.Dao.SyncStateDao;
+import com.project.unitube.Room.Dao.UploadJobDao;
 import com.project.unitube.Room.Dao.VideoDao;
 import com.project.unitube.entities.Comment;
+import com.project.unitube.entities.OfflineVideo;
+import com.project.unitube.entities.SyncState;
+import com.project.unitube.entities.UploadJob;
 import com.project.unitube.entities.Video;
+import com.project.unitube.entities.VideoDislike;
+import com.project.unitube.entities.VideoFts;
+import com.project.unitube.entities.VideoLike;
+import com.project.unitube.entities.VideoTerm;
 
 /**
  * AppDB is the main database class for the application.
  * It integrates all DAOs and connects them to the ROOM database.
  */
-@Database(entities = {Video.class, Comment.class}, version = 2)
+@Database(entities = {Video.class, Comment.class, VideoLike.class, VideoDislike.class, SyncState.class,
+        VideoFts.class, UploadJob.class, OfflineVideo.class, VideoTerm.class}, version = 12)
+@TypeConverters(Converters.class)
 public abstract class AppDB extends RoomDatabase {
 
     // Singleton instance of the AppDB
@@ -24,6 +42,173 @@ public abstract class AppDB extends RoomDatabase {
     // Abstract methods to get the DAOs
     public abstract VideoDao videoDao();
     public abstract CommentDao commentDao();
+    public abstract ReactionDao reactionDao();
+    public abstract SyncStateDao syncStateDao();
+    public abstract UploadJobDao uploadJobDao();
+    public abstract OfflineVideoDao offlineVideoDao();
+    public abstract RecommendationDao recommendationDao();
+
+    /**
+     * Moves likes, dislikes and comments out of JSON columns on the video row.
+     * The video and comment tables are rebuilt because SQLite cannot drop columns
+     * or add foreign keys in place. The old JSON like lists are not parsed here,
+     * they are filled again by the next fetch from the server.
+     */
+    static final Migration MIGRATION_2_3 = new Migration(2, 3) {
+        @Override
+        public void migrate(@NonNull SupportSQLiteDatabase db) {
+            db.execSQL("CREATE TABLE IF NOT EXISTS `Video_new` (`id` INTEGER PRIMARY KEY AUTOINCREMENT NOT NULL, "
+                    + "`title` TEXT, `description` TEXT, `url` TEXT, `thumbnailUrl` TEXT, `uploader` TEXT, "
+                    + "`likes` INTEGER NOT NULL, `dislikes` INTEGER NOT NULL, `uploadDate` TEXT, "
+                    + "`duration` TEXT, `profilePicture` TEXT)");
+            db.execSQL("INSERT INTO `Video_new` (`id`, `title`, `description`, `url`, `thumbnailUrl`, `uploader`, "
+                    + "`likes`, `dislikes`, `uploadDate`, `duration`, `profilePicture`) "
+                    + "SELECT `id`, `title`, `description`, `url`, `thumbnailUrl`, `uploader`, "
+                    + "`likes`, `dislikes`, `uploadDate`, `duration`, `profilePicture` FROM `Video`");
+            db.execSQL("DROP TABLE `Video`");
+            db.execSQL("ALTER TABLE `Video_new` RENAME TO `Video`");
+
+            db.execSQL("CREATE TABLE IF NOT EXISTS `Comment_new` (`id` TEXT NOT NULL, `videoId` INTEGER NOT NULL, "
+                    + "`userName` TEXT, `profilePicture` TEXT, `commentText` TEXT, PRIMARY KEY(`id`), "
+                    + "FOREIGN KEY(`videoId`) REFERENCES `Video`(`id`) ON UPDATE NO ACTION ON DELETE CASCADE )");
+            db.execSQL("INSERT INTO `Comment_new` (`id`, `videoId`, `userName`, `profilePicture`, `commentText`) "
+                    + "SELECT `id`, `videoId`, `userName`, `profilePicture`, `commentText` FROM `Comment` "
+                    + "WHERE `videoId` IN (SELECT `id` FROM `Video`)");
+            db.execSQL("DROP TABLE `Comment`");
+            db.execSQL("ALTER TABLE `Comment_new` RENAME TO `Comment`");
+            db.execSQL("CREATE INDEX IF NOT EXISTS `index_Comment_videoId` ON `Comment` (`videoId`)");
+
+            db.execSQL("CREATE TABLE IF NOT EXISTS `VideoLike` (`videoId` INTEGER NOT NULL, `userName` TEXT NOT NULL, "
+                    + "PRIMARY KEY(`videoId`, `userName`), FOREIGN KEY(`videoId`) REFERENCES `Video`(`id`) "
+                    + "ON UPDATE NO ACTION ON DELETE CASCADE )");
+            db.execSQL("CREATE INDEX IF NOT EXISTS `index_VideoLike_userName` ON `VideoLike` (`userName`)");
+
+            db.execSQL("CREATE TABLE IF NOT EXISTS `VideoDislike` (`videoId` INTEGER NOT NULL, `userName` TEXT NOT NULL, "
+                    + "PRIMARY KEY(`videoId`, `userName`), FOREIGN KEY(`videoId`) REFERENCES `Video`(`id`) "
+                    + "ON UPDATE NO ACTION ON DELETE CASCADE )");
+            db.execSQL("CREATE INDEX IF NOT EXISTS `index_VideoDislike_userName` ON `VideoDislike` (`userName`)");
+        }
+    };
+
+    /**
+     * Adds the table holding the catalog sync high-water mark.
+     * Existing installs start without a mark, so their first sync downloads the catalog once.
+     */
+    static final Migration MIGRATION_3_4 = new Migration(3, 4) {
+        @Override
+        public void migrate(@NonNull SupportSQLiteDatabase db) {
+            db.execSQL("CREATE TABLE IF NOT EXISTS `SyncState` (`name` TEXT NOT NULL, `value` INTEGER NOT NULL, "
+                    + "PRIMARY KEY(`name`))");
+        }
+    };
+
+    /**
+     * Adds the full-text index for search. The triggers are the ones Room generates for an
+     * external content FTS table, and the rebuild indexes the videos already stored.
+     */
+    static final Migration MIGRATION_4_5 = new Migration(4, 5) {
+        @Override
+        public void migrate(@NonNull SupportSQLiteDatabase db) {
+            db.execSQL("CREATE VIRTUAL TABLE IF NOT EXISTS `VideoFts` USING FTS4("
+                    + "`title` TEXT, `description` TEXT, `uploader` TEXT, content=`Video`)");
+            db.execSQL("CREATE TRIGGER IF NOT EXISTS room_fts_content_sync_VideoFts_BEFORE_UPDATE "
+                    + "BEFORE UPDATE ON `Video` BEGIN DELETE FROM `VideoFts` WHERE `docid`=OLD.`rowid`; END");
+            db.execSQL("CREATE TRIGGER IF NOT EXISTS room_fts_content_sync_VideoFts_BEFORE_DELETE "
+                    + "BEFORE DELETE ON `Video` BEGIN DELETE FROM `VideoFts` WHERE `docid`=OLD.`rowid`; END");
+            db.execSQL("CREATE TRIGGER IF NOT EXISTS room_fts_content_sync_VideoFts_AFTER_UPDATE "
+                    + "AFTER UPDATE ON `Video` BEGIN INSERT INTO `VideoFts`(`docid`, `title`, `description`, `uploader`) "
+                    + "VALUES (NEW.`rowid`, NEW.`title`, NEW.`description`, NEW.`uploader`); END");
+            db.execSQL("CREATE TRIGGER IF NOT EXISTS room_fts_content_sync_VideoFts_AFTER_INSERT "
+                    + "AFTER INSERT ON `Video` BEGIN INSERT INTO `VideoFts`(`docid`, `title`, `description`, `uploader`) "
+                    + "VALUES (NEW.`rowid`, NEW.`title`, NEW.`description`, NEW.`uploader`); END");
+            db.execSQL("INSERT INTO `VideoFts`(`VideoFts`) VALUES ('rebuild')");
+        }
+    };
+
+    /**
+     * Adds the table of the background upload queue.
+     */
+    static final Migration MIGRATION_5_6 = new Migration(5, 6) {
+        @Override
+        public void migrate(@NonNull SupportSQLiteDatabase db) {
+            db.execSQL("CREATE TABLE IF NOT EXISTS `UploadJob` (`id` INTEGER PRIMARY KEY AUTOINCREMENT NOT NULL, "
+                    + "`userName` TEXT, `videoId` INTEGER NOT NULL, `title` TEXT, `description` TEXT, "
+                    + "`uploadDate` TEXT, `duration` TEXT, `profilePicture` TEXT, `videoPath` TEXT, "
+                    + "`thumbnailPath` TEXT, `state` TEXT, `uploadId` TEXT, `uploadedBytes` INTEGER NOT NULL, "
+                    + "`totalBytes` INTEGER NOT NULL, `attempts` INTEGER NOT NULL, `error` TEXT)");
+        }
+    };
+
+    /**
+     * Adds the columns of the pre-upload compression stage.
+     */
+    static final Migration MIGRATION_6_7 = new Migration(6, 7) {
+        @Override
+        public void migrate(@NonNull SupportSQLiteDatabase db) {
+            db.execSQL("ALTER TABLE `UploadJob` ADD COLUMN `compress` INTEGER NOT NULL DEFAULT 0");
+            db.execSQL("ALTER TABLE `UploadJob` ADD COLUMN `transcodeProgress` INTEGER NOT NULL DEFAULT 0");
+        }
+    };
+
+    /**
+     * Adds the thumbnail variants column. Stored videos get their variants on the next sync.
+     */
+    static final Migration MIGRATION_7_8 = new Migration(7, 8) {
+        @Override
+        public void migrate(@NonNull SupportSQLiteDatabase db) {
+            db.execSQL("ALTER TABLE `Video` ADD COLUMN `thumbnails` TEXT");
+        }
+    };
+
+    /**
+     * Adds the table of videos downloaded for offline viewing.
+     */
+    static final Migration MIGRATION_8_9 = new Migration(8, 9) {
+        @Override
+        public void migrate(@NonNull SupportSQLiteDatabase db) {
+            db.execSQL("CREATE TABLE IF NOT EXISTS `OfflineVideo` (`videoId` INTEGER NOT NULL, `title` TEXT, "
+                    + "`url` TEXT, `state` TEXT, `progress` INTEGER NOT NULL, `bytes` INTEGER NOT NULL, "
+                    + "`createdAt` INTEGER NOT NULL, `lastWatchedAt` INTEGER NOT NULL, `error` TEXT, "
+                    + "PRIMARY KEY(`videoId`))");
+        }
+    };
+
+    /**
+     * Adds the TF-IDF term index of the recommendation engine. It starts empty
+     * and is built by the engine the first time it ranks.
+     */
+    static final Migration MIGRATION_9_10 = new Migration(9, 10) {
+        @Override
+        public void migrate(@NonNull SupportSQLiteDatabase db) {
+            db.execSQL("CREATE TABLE IF NOT EXISTS `VideoTerm` (`videoId` INTEGER NOT NULL, `term` TEXT NOT NULL, "
+                    + "`weight` REAL NOT NULL, PRIMARY KEY(`videoId`, `term`), FOREIGN KEY(`videoId`) "
+                    + "REFERENCES `Video`(`id`) ON UPDATE NO ACTION ON DELETE CASCADE )");
+            db.execSQL("CREATE INDEX IF NOT EXISTS `index_VideoTerm_term_weight` ON `VideoTerm` (`term`, `weight`)");
+        }
+    };
+
+    /**
+     * Replaces the comment index on videoId with one on (videoId, id),
+     * so a page of a video's comments is read in id order straight from the index.
+     */
+    static final Migration MIGRATION_10_11 = new Migration(10, 11) {
+        @Override
+        public void migrate(@NonNull SupportSQLiteDatabase db) {
+            db.execSQL("DROP INDEX IF EXISTS `index_Comment_videoId`");
+            db.execSQL("CREATE INDEX IF NOT EXISTS `index_Comment_videoId_id` ON `Comment` (`videoId`, `id`)");
+        }
+    };
+
+    /**
+     * Adds the bytes sent of an upload, shown as its progress. uploadedBytes keeps only
+     * what the server acknowledged, which is where an interrupted upload resumes.
+     */
+    static final Migration MIGRATION_11_12 = new Migration(11, 12) {
+        @Override
+        public void migrate(@NonNull SupportSQLiteDatabase db) {
+            db.execSQL("ALTER TABLE `UploadJob` ADD COLUMN `sentBytes` INTEGER NOT NULL DEFAULT 0");
+        }
+    };
 
     /**
      * Returns the singleton instance of the AppDB.
@@ -38,7 +223,9 @@ public abstract class AppDB extends RoomDatabase {
                 if (INSTANCE == null) {
                     INSTANCE = Room.databaseBuilder(context.getApplicationContext(),
                                     AppDB.class, "appDB")
-                            .fallbackToDestructiveMigration()
+                            .addMigrations(MIGRATION_2_3, MIGRATION_3_4, MIGRATION_4_5, MIGRATION_5_6, MIGRATION_6_7,
+                                    MIGRATION_7_8, MIGRATION_8_9, MIGRATION_9_10, MIGRATION_10_11, MIGRATION_11_12)
+                            .fallbackToDestructiveMigrationFrom(1)
                             .build();
                 }
             }
@@ -46,4 +233,3 @@ public abstract class AppDB extends RoomDatabase {
         return INSTANCE;
     }
 }
-
@@ -0,0 +1,35 @@
+package com.project.unitube.Room.Database;
+
+import androidx.room.TypeConverter;
+
+import com.google.gson.Gson;
+import com.google.gson.reflect.TypeToken;
+import com.project.unitube.entities.ThumbnailVariant;
+
+import java.lang.reflect.Type;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Room type converters. Thumbnail variants are always read together with their video,
+ * so they are kept as a JSON column instead of a table of their own.
+ */
+public class Converters {
+
+    private static final Gson GSON = new Gson();
+    private static final Type THUMBNAIL_VARIANTS = new TypeToken<List<ThumbnailVariant>>() {}.getType();
+
+    @TypeConverter
+    public static String fromThumbnailVariants(List<ThumbnailVariant> variants) {
+        return variants == null || variants.isEmpty() ? null : GSON.toJson(variants, THUMBNAIL_VARIANTS);
+    }
+
+    @TypeConverter
+    public static List<ThumbnailVariant> toThumbnailVariants(String json) {
+        if (json == null) {
+            return new ArrayList<>();
+        }
+        List<ThumbnailVariant> variants = GSON.fromJson(json, THUMBNAIL_VARIANTS);
+        return variants != null ? variants : new ArrayList<>();
+    }
+}
@@ -0,0 +1,257 @@
+package com.project.unitube.Room.Database;
+
+import android.content.Context;
+import android.util.Log;
+
+import androidx.annotation.VisibleForTesting;
+import androidx.core.util.Consumer;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.Executors;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * DatabaseWriteExecutor is the single entry point for Room writes.
+ * Writes are queued on a bounded queue and drained by one background thread,
+ * which commits everything that arrived during a flush window in one transaction.
+ */
+public class DatabaseWriteExecutor {
+
+    private static final String TAG = "DatabaseWriteExecutor";
+
+    // Maximum number of writes waiting to be flushed before callers are blocked
+    private static final int MAX_PENDING_WRITES = 256;
+    // Maximum number of writes committed together in one transaction
+    private static final int MAX_BATCH_SIZE = 64;
+    // How long a flush waits for more writes to coalesce
+    private static final long FLUSH_WINDOW_MS = 50;
+
+    // Singleton instance of the DatabaseWriteExecutor
+    private static volatile DatabaseWriteExecutor INSTANCE;
+
+    private final AppDB db;
+    private final BlockingQueue<PendingWrite> pendingWrites = new LinkedBlockingQueue<>(MAX_PENDING_WRITES);
+    private volatile Thread writer;
+    private final ScheduledExecutorService writerThread =
+            Executors.newSingleThreadScheduledExecutor(runnable -> writer = new Thread(runnable, "unitube-db-writer"));
+    private final AtomicBoolean flushScheduled = new AtomicBoolean(false);
+    // Actions queued by the writes of the running flush, only touched on the writer thread
+    private final List<Runnable> afterFlushActions = new ArrayList<>();
+
+    // Metrics
+    private final AtomicInteger maxQueueDepth = new AtomicInteger();
+    private final AtomicLong writeCount = new AtomicLong();
+    private final AtomicLong flushCount = new AtomicLong();
+    private final AtomicLong totalFlushNanos = new AtomicLong();
+    private final AtomicLong maxFlushNanos = new AtomicLong();
+
+    @VisibleForTesting(otherwise = VisibleForTesting.PRIVATE)
+    public DatabaseWriteExecutor(AppDB db) {
+        this.db = db;
+    }
+
+    /**
+     * Returns the singleton instance of the DatabaseWriteExecutor.
+     *
+     * @param context The application context
+     * @return The singleton instance of the DatabaseWriteExecutor
+     */
+    public static DatabaseWriteExecutor getInstance(Context context) {
+        if (INSTANCE == null) {
+            synchronized (DatabaseWriteExecutor.class) {
+                if (INSTANCE == null) {
+                    INSTANCE = new DatabaseWriteExecutor(AppDB.getInstance(context));
+                }
+            }
+        }
+        return INSTANCE;
+    }
+
+    /**
+     * Queues a write to be committed with the next flush.
+     * Blocks the caller only when the queue is full.
+     *
+     * @param write The DAO calls to run inside the flush transaction
+     */
+    public void execute(Runnable write) {
+        execute(write, null);
+    }
+
+    /**
+     * Queues a write and runs a callback on the writer thread once it has committed.
+     * The callback is skipped when the write fails.
+     *
+     * @param write       The DAO calls to run inside the flush transaction
+     * @param onCommitted Called after the write has committed, may be null
+     */
+    public void execute(Runnable write, Runnable onCommitted) {
+        execute(write, onCommitted, null);
+    }
+
+    /**
+     * Queues a write and runs one of two callbacks on the writer thread once its flush is done.
+     *
+     * @param write       The DAO calls to run inside the flush transaction
+     * @param onCommitted Called after the write has committed, may be null
+     * @param onFailed    Called with the error when the write was rolled back, may be null
+     */
+    public void execute(Runnable write, Runnable onCommitted, Consumer<RuntimeException> onFailed) {
+        try {
+            pendingWrites.put(new PendingWrite(write, onCommitted, onFailed));
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            Log.w(TAG, "Interrupted while queueing a database write", e);
+            return;
+        }
+        writeCount.incrementAndGet();
+        updateMaxQueueDepth(pendingWrites.size());
+        scheduleFlush(FLUSH_WINDOW_MS);
+    }
+
+    /**
+     * Runs an action once the calling write has committed, and drops it if the write is rolled back.
+     * Called from outside a write, the action runs right away.
+     *
+     * @param action The action to run, on the writer thread
+     */
+    public void runAfterFlush(Runnable action) {
+        if (Thread.currentThread() == writer) {
+            afterFlushActions.add(action);
+        } else {
+            action.run();
+        }
+    }
+
+    private void scheduleFlush(long delayMs) {
+        if (flushScheduled.compareAndSet(false, true)) {
+            writerThread.schedule(this::flush, delayMs, TimeUnit.MILLISECONDS);
+        }
+    }
+
+    private void flush() {
+        flushScheduled.set(false);
+
+        List<PendingWrite> batch = new ArrayList<>();
+        pendingWrites.drainTo(batch, MAX_BATCH_SIZE);
+        if (batch.isEmpty()) {
+            return;
+        }
+
+        long start = System.nanoTime();
+        try {
+            db.runInTransaction(() -> {
+                for (PendingWrite pending : batch) {
+                    pending.write.run();
+                }
+            });
+        } catch (RuntimeException e) {
+            // DAO methods open a nested transaction, and a failed nested transaction marks the
+            // outer one as failed even when the exception is caught, so the whole batch rolled back.
+            // Each write is replayed on its own so only the failing one is lost.
+            Log.w(TAG, "Failed to flush " + batch.size() + " database writes, retrying them one by one", e);
+            // The replay registers its actions again, and only the ones of committed writes are kept
+            afterFlushActions.clear();
+            List<Runnable> committedActions = new ArrayList<>();
+            for (PendingWrite pending : batch) {
+                try {
+                    db.runInTransaction(pending.write);
+                    committedActions.addAll(afterFlushActions);
+                } catch (RuntimeException writeError) {
+                    Log.e(TAG, "Database write failed", writeError);
+                    pending.error = writeError;
+                }
+                afterFlushActions.clear();
+            }
+            afterFlushActions.addAll(committedActions);
+        }
+        recordFlush(System.nanoTime() - start, batch.size());
+
+        // Before the callbacks, so they see what the actions cleaned up
+        List<Runnable> actions = new ArrayList<>(afterFlushActions);
+        afterFlushActions.clear();
+        for (Runnable action : actions) {
+            action.run();
+        }
+        for (PendingWrite pending : batch) {
+            if (pending.error == null) {
+                if (pending.onCommitted != null) {
+                    pending.onCommitted.run();
+                }
+            } else if (pending.onFailed != null) {
+                pending.onFailed.accept(pending.error);
+            }
+        }
+
+        // Writes that did not fit into this batch are flushed right away
+        if (!pendingWrites.isEmpty()) {
+            scheduleFlush(0);
+        }
+    }
+
+    private void recordFlush(long elapsedNanos, int batchSize) {
+        flushCount.incrementAndGet();
+        totalFlushNanos.addAndGet(elapsedNanos);
+        long currentMax;
+        do {
+            currentMax = maxFlushNanos.get();
+        } while (elapsedNanos > currentMax && !maxFlushNanos.compareAndSet(currentMax, elapsedNanos));
+
+        Log.d(TAG, "Flushed " + batchSize + " writes in "
+                + TimeUnit.NANOSECONDS.toMillis(elapsedNanos) + " ms, queue depth: " + getQueueDepth());
+    }
+
+    private void updateMaxQueueDepth(int depth) {
+        int currentMax;
+        do {
+            currentMax = maxQueueDepth.get();
+        } while (depth > currentMax && !maxQueueDepth.compareAndSet(currentMax, depth));
+    }
+
+    private static class PendingWrite {
+        final Runnable write;
+        final Runnable onCommitted;
+        final Consumer<RuntimeException> onFailed;
+        // Set by the writer thread when the write was rolled back
+        RuntimeException error;
+
+        PendingWrite(Runnable write, Runnable onCommitted, Consumer<RuntimeException> onFailed) {
+            this.write = write;
+            this.onCommitted = onCommitted;
+            this.onFailed = onFailed;
+        }
+    }
+
+    // Metrics getters
+
+    public int getQueueDepth() {
+        return pendingWrites.size();
+    }
+
+    public int getMaxQueueDepth() {
+        return maxQueueDepth.get();
+    }
+
+    public long getWriteCount() {
+        return writeCount.get();
+    }
+
+    public long getFlushCount() {
+        return flushCount.get();
+    }
+
+    public double getAverageFlushLatencyMs() {
+        long flushes = flushCount.get();
+        return flushes == 0 ? 0 : totalFlushNanos.get() / (flushes * 1_000_000.0);
+    }
+
+    public double getMaxFlushLatencyMs() {
+        return maxFlushNanos.get() / 1_000_000.0;
+    }
+}
@@ -0,0 +1,165 @@
+package com.project.unitube.Room.Database;
+
+import android.content.Context;
+
+import androidx.annotation.VisibleForTesting;
+
+import com.project.unitube.Room.Dao.ReactionDao;
+import com.project.unitube.Room.Dao.VideoDao;
+import com.project.unitube.entities.Video;
+import com.project.unitube.entities.VideoDislike;
+import com.project.unitube.entities.VideoLike;
+import com.project.unitube.entities.VideoSummary;
+import com.project.unitube.repository.EntityCache;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * LocalVideoStore maps network {@link Video} objects onto the normalized Room tables.
+ * The video row holds only scalar columns; likes and dislikes live in their own tables.
+ * Comments embedded in a video are not stored, the comment table is filled page by page
+ * by {@link com.project.unitube.network.objectAPI.CommentPageMediator}.
+ * All methods touch the database and must be called off the main thread.
+ */
+public class LocalVideoStore {
+
+    // Singleton instance of the LocalVideoStore
+    private static volatile LocalVideoStore INSTANCE;
+
+    private final VideoDao videoDao;
+    private final ReactionDao reactionDao;
+    private final EntityCache entityCache;
+    private final DatabaseWriteExecutor dbWriteExecutor;
+
+    @VisibleForTesting(otherwise = VisibleForTesting.PRIVATE)
+    public LocalVideoStore(AppDB db, DatabaseWriteExecutor dbWriteExecutor) {
+        this.videoDao = db.videoDao();
+        this.reactionDao = db.reactionDao();
+        this.entityCache = EntityCache.getInstance();
+        this.dbWriteExecutor = dbWriteExecutor;
+    }
+
+    /**
+     * Returns the singleton instance of the LocalVideoStore.
+     *
+     * @param context The application context
+     * @return The singleton instance of the LocalVideoStore
+     */
+    public static LocalVideoStore getInstance(Context context) {
+        if (INSTANCE == null) {
+            synchronized (LocalVideoStore.class) {
+                if (INSTANCE == null) {
+                    INSTANCE = new LocalVideoStore(AppDB.getInstance(context), DatabaseWriteExecutor.getInstance(context));
+                }
+            }
+        }
+        return INSTANCE;
+    }
+
+    public void saveVideo(Video video) {
+        saveVideos(Collections.singletonList(video));
+    }
+
+    public void saveVideos(List<Video> videos) {
+        videoDao.upsertAllVideos(videos);
+        for (Video video : videos) {
+            invalidate(video.getId());
+            saveReactions(video);
+        }
+    }
+
+    public void saveSummaries(List<VideoSummary> summaries) {
+        videoDao.upsertVideoSummaries(summaries);
+        for (VideoSummary summary : summaries) {
+            invalidate(summary.getId());
+        }
+    }
+
+    /**
+     * Loads a single video together with its like and dislike lists.
+     *
+     * @param id The video ID
+     * @return The video, or null if it is not stored locally
+     */
+    public Video loadVideo(int id) {
+        Video video = videoDao.getVideoByID(id);
+        if (video != null) {
+            video.setLikesList(reactionDao.getLikers(id));
+            video.setDislikesList(reactionDao.getDislikers(id));
+        }
+        return video;
+    }
+
+    /**
+     * Stores one user's new reaction to a video, replacing the one they had,
+     * and recounts the video's likes and dislikes.
+     *
+     * @param videoId  The video ID
+     * @param userName The user whose reaction changed
+     * @param liked    Whether the user now likes the video
+     * @param disliked Whether the user now dislikes the video
+     */
+    public void saveReaction(int videoId, String userName, boolean liked, boolean disliked) {
+        invalidate(videoId);
+        reactionDao.deleteLike(videoId, userName);
+        reactionDao.deleteDislike(videoId, userName);
+        if (liked) {
+            reactionDao.insertLikes(Collections.singletonList(new VideoLike(videoId, userName)));
+        } else if (disliked) {
+            reactionDao.insertDislikes(Collections.singletonList(new VideoDislike(videoId, userName)));
+        }
+        videoDao.recountReactions(videoId);
+    }
+
+    public void deleteVideo(int id) {
+        invalidate(id);
+        Video video = videoDao.getVideoByID(id);
+        if (video != null) {
+            // Comments and reactions are removed by ON DELETE CASCADE
+            videoDao.deleteVideo(video);
+        }
+    }
+
+    public void deleteVideos(List<Integer> ids) {
+        for (int id : ids) {
+            invalidate(id);
+        }
+        // Comments and reactions are removed by ON DELETE CASCADE
+        videoDao.deleteVideosByIds(ids);
+    }
+
+    // A reader can load the old row between this write and its commit; invalidating again
+    // once the flush has ended keeps that row out of the cache
+    private void invalidate(int videoId) {
+        entityCache.invalidateVideo(videoId);
+        dbWriteExecutor.runAfterFlush(() -> entityCache.invalidateVideo(videoId));
+    }
+
+    private void saveReactions(Video video) {
+        int videoId = video.getId();
+
+        if (video.getLikesList() != null) {
+            List<VideoLike> likes = new ArrayList<>();
+            for (String userName : video.getLikesList()) {
+                if (userName != null) {
+                    likes.add(new VideoLike(videoId, userName));
+                }
+            }
+            reactionDao.deleteLikes(videoId);
+            reactionDao.insertLikes(likes);
+        }
+
+        if (video.getDislikesList() != null) {
+            List<VideoDislike> dislikes = new ArrayList<>();
+            for (String userName : video.getDislikesList()) {
+                if (userName != null) {
+                    dislikes.add(new VideoDislike(videoId, userName));
+                }
+            }
+            reactionDao.deleteDislikes(videoId);
+            reactionDao.insertDislikes(dislikes);
+        }
+    }
+}
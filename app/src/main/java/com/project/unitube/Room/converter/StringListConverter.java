@@ -1,30 +0,0 @@
-package com.project.unitube.Room.converter;
-
-import androidx.room.TypeConverter;
-
-import com.google.gson.Gson;
-import com.google.gson.reflect.TypeToken;
-
-import java.lang.reflect.Type;
-import java.util.List;
-
-public class StringListConverter {
-    @TypeConverter
-    public static String fromStringList(List<String> list) {
-        if (list == null) {
-            return null;
-        }
-        Gson gson = new Gson();
-        return gson.toJson(list);
-    }
-
-    @TypeConverter
-    public static List<String> toStringList(String string) {
-        if (string == null) {
-            return null;
-        }
-        Gson gson = new Gson();
-        Type type = new TypeToken<List<String>>() {}.getType();
-        return gson.fromJson(string, type);
-    }
-}
\ No newline at end of file
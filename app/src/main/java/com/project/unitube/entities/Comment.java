@@ -2,11 +2,19 @@ package com.project.unitube.entities;
 
 import androidx.annotation.NonNull;
 import androidx.room.Entity;
+import androidx.room.ForeignKey;
+import androidx.room.Index;
 import androidx.room.PrimaryKey;
 
 import com.google.gson.annotations.SerializedName;
 
-@Entity
+import java.util.Objects;
+
+@Entity(foreignKeys = @ForeignKey(entity = Video.class,
+        parentColumns = "id",
+        childColumns = "videoId",
+        onDelete = ForeignKey.CASCADE),
+        indices = {@Index(value = {"videoId", "id"})})
 public class Comment {
     @PrimaryKey
     @NonNull
@@ -66,4 +74,21 @@ public class Comment {
     public void setCommentText(String commentText) {
         this.commentText = commentText;
     }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) return true;
+        if (o == null || getClass() != o.getClass()) return false;
+        Comment that = (Comment) o;
+        return videoId == that.videoId
+                && Objects.equals(id, that.id)
+                && Objects.equals(userName, that.userName)
+                && Objects.equals(profilePicture, that.profilePicture)
+                && Objects.equals(commentText, that.commentText);
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(id, videoId, userName, profilePicture, commentText);
+    }
 }
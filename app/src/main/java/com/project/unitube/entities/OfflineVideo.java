@@ -0,0 +1,94 @@
+package com.project.unitube.entities;
+
+import androidx.room.Entity;
+import androidx.room.PrimaryKey;
+
+/**
+ * A video the user downloaded for offline viewing. The media itself lives in the offline
+ * media cache under its URL; this row pins it there and tracks its size and last use,
+ * which decide what is evicted when offline videos go over their storage budget.
+ */
+@Entity
+public class OfflineVideo {
+    public static final String STATE_QUEUED = "QUEUED";
+    public static final String STATE_DOWNLOADING = "DOWNLOADING";
+    public static final String STATE_DONE = "DONE";
+    public static final String STATE_FAILED = "FAILED";
+
+    @PrimaryKey
+    private int videoId;
+    private String title;
+    private String url;          // absolute media URL, the key of the media in the cache
+    private String state = STATE_QUEUED;
+    private int progress;        // percent downloaded
+    private long bytes;          // bytes stored, counted against the budget once DONE
+    private long createdAt;
+    private long lastWatchedAt;
+    private String error;
+
+    public OfflineVideo(int videoId, String title, String url, long createdAt) {
+        this.videoId = videoId;
+        this.title = title;
+        this.url = url;
+        this.createdAt = createdAt;
+        this.lastWatchedAt = createdAt;
+    }
+
+    // Getters and setters
+
+    public int getVideoId() {
+        return videoId;
+    }
+
+    public String getTitle() {
+        return title;
+    }
+
+    public String getUrl() {
+        return url;
+    }
+
+    public String getState() {
+        return state;
+    }
+
+    public void setState(String state) {
+        this.state = state;
+    }
+
+    public int getProgress() {
+        return progress;
+    }
+
+    public void setProgress(int progress) {
+        this.progress = progress;
+    }
+
+    public long getBytes() {
+        return bytes;
+    }
+
+    public void setBytes(long bytes) {
+        this.bytes = bytes;
+    }
+
+    public long getCreatedAt() {
+        return createdAt;
+    }
+
+    public long getLastWatchedAt() {
+        return lastWatchedAt;
+    }
+
+    public void setLastWatchedAt(long lastWatchedAt) {
+        this.lastWatchedAt = lastWatchedAt;
+    }
+
+    public String getError() {
+        return error;
+    }
+
+    public void setError(String error) {
+        this.error = error;
+    }
+}
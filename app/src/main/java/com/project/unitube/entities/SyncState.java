@@ -0,0 +1,33 @@
+package com.project.unitube.entities;
+
+import androidx.annotation.NonNull;
+import androidx.room.Entity;
+import androidx.room.PrimaryKey;
+
+/**
+ * Named sync checkpoint, such as the server time of the last applied catalog delta.
+ * Kept in Room so it is committed in the same transaction as the data it describes.
+ */
+@Entity
+public class SyncState {
+    @PrimaryKey
+    @NonNull
+    private String name;
+    private long value;
+
+    public SyncState(@NonNull String name, long value) {
+        this.name = name;
+        this.value = value;
+    }
+
+    // Getters
+
+    @NonNull
+    public String getName() {
+        return name;
+    }
+
+    public long getValue() {
+        return value;
+    }
+}
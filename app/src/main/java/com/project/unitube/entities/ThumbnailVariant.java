@@ -0,0 +1,81 @@
+package com.project.unitube.entities;
+
+import java.io.Serializable;
+import java.util.Objects;
+
+/**
+ * One rendition of a video thumbnail as listed by the server, such as a 320x180 WebP
+ * or the 1280x720 JPEG original. Stored as JSON in the thumbnails column of the video row.
+ */
+public class ThumbnailVariant implements Serializable {
+
+    public static final String FORMAT_JPEG = "jpeg";
+    public static final String FORMAT_WEBP = "webp";
+    public static final String FORMAT_AVIF = "avif";
+
+    private String url;
+    private int width;
+    private int height;
+    private String format;
+
+    public ThumbnailVariant() {}
+
+    public ThumbnailVariant(String url, int width, int height, String format) {
+        this.url = url;
+        this.width = width;
+        this.height = height;
+        this.format = format;
+    }
+
+    // Getters
+
+    public String getUrl() {
+        return url;
+    }
+
+    public int getWidth() {
+        return width;
+    }
+
+    public int getHeight() {
+        return height;
+    }
+
+    public String getFormat() {
+        return format;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) return true;
+        if (o == null || getClass() != o.getClass()) return false;
+        ThumbnailVariant that = (ThumbnailVariant) o;
+        return width == that.width
+                && height == that.height
+                && Objects.equals(url, that.url)
+                && Objects.equals(format, that.format);
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(url, width, height, format);
+    }
+
+    // Setters
+
+    public void setUrl(String url) {
+        this.url = url;
+    }
+
+    public void setWidth(int width) {
+        this.width = width;
+    }
+
+    public void setHeight(int height) {
+        this.height = height;
+    }
+
+    public void setFormat(String format) {
+        this.format = format;
+    }
+}
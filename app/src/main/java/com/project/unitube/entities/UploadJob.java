@@ -0,0 +1,194 @@
+package com.project.unitube.entities;
+
+import androidx.room.Entity;
+import androidx.room.PrimaryKey;
+
+/**
+ * A video waiting in, or sent by, the background upload queue.
+ * The metadata and file paths are kept so the upload survives the screen and the process,
+ * and uploadId/uploadedBytes let an interrupted upload resume where the server stopped storing it.
+ * The job id stands in for the video until the server assigns its id at the end of the upload.
+ */
+@Entity
+public class UploadJob {
+    public static final String STATE_QUEUED = "QUEUED";
+    public static final String STATE_TRANSCODING = "TRANSCODING";
+    public static final String STATE_UPLOADING = "UPLOADING";
+    public static final String STATE_DONE = "DONE";
+    public static final String STATE_FAILED = "FAILED";
+
+    @PrimaryKey(autoGenerate = true)
+    private int id;
+    private String userName;
+    private int videoId;         // assigned by the server, 0 until the upload completes
+    private String title;
+    private String description;
+    private String uploadDate;
+    private String duration;
+    private String profilePicture;
+    private String videoPath;      // content:// or file:// URI, plain paths from older jobs also work
+    private String thumbnailPath;  // same as videoPath
+    private boolean compress;    // re-encode the video before sending it, cleared once done
+
+    private String state = STATE_QUEUED;
+    private String uploadId;     // server upload session, null until it is opened
+    private long uploadedBytes;  // bytes of the video file acknowledged so far
+    private long sentBytes;      // bytes of the video file sent so far, can be ahead of uploadedBytes
+    private long totalBytes;
+    private int transcodeProgress;
+    private int attempts;
+    private String error;
+
+    public UploadJob(String userName, String title, String description, String uploadDate,
+                     String duration, String profilePicture, String videoPath, String thumbnailPath) {
+        this.userName = userName;
+        this.title = title;
+        this.description = description;
+        this.uploadDate = uploadDate;
+        this.duration = duration;
+        this.profilePicture = profilePicture;
+        this.videoPath = videoPath;
+        this.thumbnailPath = thumbnailPath;
+    }
+
+    /**
+     * Percentage of the video file sent, for display only.
+     */
+    public int getProgress() {
+        return totalBytes == 0 ? 0 : (int) (Math.max(sentBytes, uploadedBytes) * 100 / totalBytes);
+    }
+
+    // Getters and setters
+
+    public int getId() {
+        return id;
+    }
+
+    public void setId(int id) {
+        this.id = id;
+    }
+
+    public String getUserName() {
+        return userName;
+    }
+
+    public int getVideoId() {
+        return videoId;
+    }
+
+    public void setVideoId(int videoId) {
+        this.videoId = videoId;
+    }
+
+    public String getTitle() {
+        return title;
+    }
+
+    public String getDescription() {
+        return description;
+    }
+
+    public String getUploadDate() {
+        return uploadDate;
+    }
+
+    public String getDuration() {
+        return duration;
+    }
+
+    public void setDuration(String duration) {
+        this.duration = duration;
+    }
+
+    public String getProfilePicture() {
+        return profilePicture;
+    }
+
+    public String getVideoPath() {
+        return videoPath;
+    }
+
+    public void setVideoPath(String videoPath) {
+        this.videoPath = videoPath;
+    }
+
+    public String getThumbnailPath() {
+        return thumbnailPath;
+    }
+
+    public void setThumbnailPath(String thumbnailPath) {
+        this.thumbnailPath = thumbnailPath;
+    }
+
+    public boolean isCompress() {
+        return compress;
+    }
+
+    public void setCompress(boolean compress) {
+        this.compress = compress;
+    }
+
+    public String getState() {
+        return state;
+    }
+
+    public void setState(String state) {
+        this.state = state;
+    }
+
+    public String getUploadId() {
+        return uploadId;
+    }
+
+    public void setUploadId(String uploadId) {
+        this.uploadId = uploadId;
+    }
+
+    public long getUploadedBytes() {
+        return uploadedBytes;
+    }
+
+    public void setUploadedBytes(long uploadedBytes) {
+        this.uploadedBytes = uploadedBytes;
+    }
+
+    public long getSentBytes() {
+        return sentBytes;
+    }
+
+    public void setSentBytes(long sentBytes) {
+        this.sentBytes = sentBytes;
+    }
+
+    public long getTotalBytes() {
+        return totalBytes;
+    }
+
+    public void setTotalBytes(long totalBytes) {
+        this.totalBytes = totalBytes;
+    }
+
+    public int getTranscodeProgress() {
+        return transcodeProgress;
+    }
+
+    public void setTranscodeProgress(int transcodeProgress) {
+        this.transcodeProgress = transcodeProgress;
+    }
+
+    public int getAttempts() {
+        return attempts;
+    }
+
+    public void setAttempts(int attempts) {
+        this.attempts = attempts;
+    }
+
+    public String getError() {
+        return error;
+    }
+
+    public void setError(String error) {
+        this.error = error;
+    }
+}
@@ -1,12 +1,10 @@
 package com.project.unitube.entities;
 
 import androidx.room.Entity;
+import androidx.room.Ignore;
 import androidx.room.PrimaryKey;
-import androidx.room.TypeConverters;
 
 import com.project.unitube.network.RetroFit.RetrofitClient;
-import com.project.unitube.Room.converter.CommentListConverter;
-import com.project.unitube.Room.converter.StringListConverter;
 
 import java.io.Serializable;
 import java.text.SimpleDateFormat;
@@ -25,21 +23,25 @@ public class Video implements Serializable {
     private String description;
     private String url;
     private String thumbnailUrl;
+    // Sized renditions of the thumbnail, empty for videos the server has not resized yet
+    private List<ThumbnailVariant> thumbnails = new ArrayList<>();
     private String uploader;
     private int likes;
     private int dislikes;
     private String uploadDate;
     private String duration;
     private String profilePicture;
-    @TypeConverters(StringListConverter.class)
-    private List<String> likesList;
-    @TypeConverters(StringListConverter.class)
-    private List<String> dislikesList;
-    @TypeConverters(CommentListConverter.class)
-    private List<Comment> comments;
+    // Stored in the VideoLike, VideoDislike and Comment tables, not in the video row
+    @Ignore
+    private List<String> likesList = new ArrayList<>();
+    @Ignore
+    private List<String> dislikesList = new ArrayList<>();
+    @Ignore
+    private List<Comment> comments = new ArrayList<>();
 
     public Video() {}
 
+    @Ignore
     public Video(String title, String description, String url, String thumbnailUrl,
                  String uploader, String duration, String profilePicture) {
         this.id = nextId++;
@@ -59,6 +61,32 @@ public class Video implements Serializable {
         this.comments = new ArrayList<>();
     }
 
+    /**
+     * Copies a video, with its own like, dislike, comment and thumbnail lists.
+     */
+    @Ignore
+    public Video(Video other) {
+        this.id = other.id;
+        this.title = other.title;
+        this.description = other.description;
+        this.url = other.url;
+        this.thumbnailUrl = other.thumbnailUrl;
+        this.thumbnails = copyOf(other.thumbnails);
+        this.uploader = other.uploader;
+        this.likes = other.likes;
+        this.dislikes = other.dislikes;
+        this.uploadDate = other.uploadDate;
+        this.duration = other.duration;
+        this.profilePicture = other.profilePicture;
+        this.likesList = copyOf(other.likesList);
+        this.dislikesList = copyOf(other.dislikesList);
+        this.comments = copyOf(other.comments);
+    }
+
+    private static <T> List<T> copyOf(List<T> list) {
+        return list != null ? new ArrayList<>(list) : null;
+    }
+
     // Getters
 
     public int getId() {
@@ -81,6 +109,10 @@ public class Video implements Serializable {
         return thumbnailUrl;
     }
 
+    public List<ThumbnailVariant> getThumbnails() {
+        return thumbnails;
+    }
+
     public String getUploader() {
         return uploader;
     }
@@ -110,6 +142,10 @@ public class Video implements Serializable {
         return baseUrl + profilePicture;
     }
 
+    public String getRawProfilePicture() {
+        return profilePicture;
+    }
+
     public List<String> getLikesList() {
         return likesList;
     }
@@ -145,6 +181,10 @@ public class Video implements Serializable {
         this.thumbnailUrl = thumbnailUrl;
     }
 
+    public void setThumbnails(List<ThumbnailVariant> thumbnails) {
+        this.thumbnails = thumbnails;
+    }
+
     public void setUploader(String uploader) {
         this.uploader = uploader;
     }
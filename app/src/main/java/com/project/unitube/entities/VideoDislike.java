@@ -0,0 +1,37 @@
+package com.project.unitube.entities;
+
+import androidx.annotation.NonNull;
+import androidx.room.Entity;
+import androidx.room.ForeignKey;
+import androidx.room.Index;
+
+/**
+ * Junction row recording that a user disliked a video.
+ */
+@Entity(primaryKeys = {"videoId", "userName"},
+        foreignKeys = @ForeignKey(entity = Video.class,
+                parentColumns = "id",
+                childColumns = "videoId",
+                onDelete = ForeignKey.CASCADE),
+        indices = {@Index("userName")})
+public class VideoDislike {
+    private int videoId;
+    @NonNull
+    private String userName;
+
+    public VideoDislike(int videoId, @NonNull String userName) {
+        this.videoId = videoId;
+        this.userName = userName;
+    }
+
+    // Getters
+
+    public int getVideoId() {
+        return videoId;
+    }
+
+    @NonNull
+    public String getUserName() {
+        return userName;
+    }
+}
@@ -0,0 +1,47 @@
+package com.project.unitube.entities;
+
+import androidx.room.ColumnInfo;
+import androidx.room.Entity;
+import androidx.room.Fts4;
+import androidx.room.PrimaryKey;
+
+/**
+ * Full-text index over the searchable video columns.
+ * It is an external content table on Video, so Room keeps it in sync with triggers
+ * and the rowid of an index row is the id of its video.
+ */
+@Fts4(contentEntity = Video.class)
+@Entity
+public class VideoFts {
+    @PrimaryKey
+    @ColumnInfo(name = "rowid")
+    private int rowId;
+    private String title;
+    private String description;
+    private String uploader;
+
+    public VideoFts(int rowId, String title, String description, String uploader) {
+        this.rowId = rowId;
+        this.title = title;
+        this.description = description;
+        this.uploader = uploader;
+    }
+
+    // Getters
+
+    public int getRowId() {
+        return rowId;
+    }
+
+    public String getTitle() {
+        return title;
+    }
+
+    public String getDescription() {
+        return description;
+    }
+
+    public String getUploader() {
+        return uploader;
+    }
+}
@@ -0,0 +1,37 @@
+package com.project.unitube.entities;
+
+import androidx.annotation.NonNull;
+import androidx.room.Entity;
+import androidx.room.ForeignKey;
+import androidx.room.Index;
+
+/**
+ * Junction row recording that a user liked a video.
+ */
+@Entity(primaryKeys = {"videoId", "userName"},
+        foreignKeys = @ForeignKey(entity = Video.class,
+                parentColumns = "id",
+                childColumns = "videoId",
+                onDelete = ForeignKey.CASCADE),
+        indices = {@Index("userName")})
+public class VideoLike {
+    private int videoId;
+    @NonNull
+    private String userName;
+
+    public VideoLike(int videoId, @NonNull String userName) {
+        this.videoId = videoId;
+        this.userName = userName;
+    }
+
+    // Getters
+
+    public int getVideoId() {
+        return videoId;
+    }
+
+    @NonNull
+    public String getUserName() {
+        return userName;
+    }
+}
@@ -0,0 +1,163 @@
+package com.project.unitube.entities;
+
+import com.project.unitube.network.RetroFit.RetrofitClient;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Objects;
+
+/**
+ * Lightweight projection of {@link Video} holding only what a feed row displays.
+ * Loaded from Room with a column projection and from the server with {@code fields=summary},
+ * so list screens never hydrate descriptions, likes or comments.
+ */
+public class VideoSummary {
+    private int id;
+    private String title;
+    private String url;
+    private String thumbnailUrl;
+    private List<ThumbnailVariant> thumbnails = new ArrayList<>();
+    private String uploader;
+    private String uploadDate;
+    private String duration;
+    private String profilePicture;
+
+    public VideoSummary() {}
+
+    public static VideoSummary fromVideo(Video video) {
+        VideoSummary summary = new VideoSummary();
+        summary.id = video.getId();
+        summary.title = video.getTitle();
+        summary.url = video.getUrl();
+        summary.thumbnailUrl = video.getThumbnailUrl();
+        summary.thumbnails = video.getThumbnails();
+        summary.uploader = video.getUploader();
+        summary.uploadDate = video.getUploadDate();
+        summary.duration = video.getDuration();
+        // Video.getProfilePicture() already prepends the base URL
+        summary.profilePicture = video.getRawProfilePicture();
+        return summary;
+    }
+
+    /**
+     * Builds a video row from the summary columns, for summaries not stored locally yet.
+     */
+    public Video toVideo() {
+        Video video = new Video();
+        video.setId(id);
+        video.setTitle(title);
+        video.setUrl(url);
+        video.setThumbnailUrl(thumbnailUrl);
+        video.setThumbnails(thumbnails);
+        video.setUploader(uploader);
+        video.setUploadDate(uploadDate);
+        video.setDuration(duration);
+        video.setProfilePicture(profilePicture);
+        return video;
+    }
+
+    // Getters
+
+    public int getId() {
+        return id;
+    }
+
+    public String getTitle() {
+        return title;
+    }
+
+    /**
+     * @return The media path, so the feed can start preparing the video before it is opened
+     */
+    public String getUrl() {
+        return url;
+    }
+
+    public String getThumbnailUrl() {
+        return thumbnailUrl;
+    }
+
+    public List<ThumbnailVariant> getThumbnails() {
+        return thumbnails;
+    }
+
+    public String getUploader() {
+        return uploader;
+    }
+
+    public String getUploadDate() {
+        return uploadDate;
+    }
+
+    public String getDuration() {
+        return duration;
+    }
+
+    public String getProfilePicture() {
+        String baseUrl = RetrofitClient.getBaseUrl();
+        return baseUrl + profilePicture;
+    }
+
+    public String getRawProfilePicture() {
+        return profilePicture;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) return true;
+        if (o == null || getClass() != o.getClass()) return false;
+        VideoSummary that = (VideoSummary) o;
+        return id == that.id
+                && Objects.equals(title, that.title)
+                && Objects.equals(url, that.url)
+                && Objects.equals(thumbnailUrl, that.thumbnailUrl)
+                && Objects.equals(thumbnails, that.thumbnails)
+                && Objects.equals(uploader, that.uploader)
+                && Objects.equals(uploadDate, that.uploadDate)
+                && Objects.equals(duration, that.duration)
+                && Objects.equals(profilePicture, that.profilePicture);
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(id, title, url, thumbnailUrl, thumbnails, uploader, uploadDate, duration, profilePicture);
+    }
+
+    // Setters
+
+    public void setId(int id) {
+        this.id = id;
+    }
+
+    public void setTitle(String title) {
+        this.title = title;
+    }
+
+    public void setUrl(String url) {
+        this.url = url;
+    }
+
+    public void setThumbnailUrl(String thumbnailUrl) {
+        this.thumbnailUrl = thumbnailUrl;
+    }
+
+    public void setThumbnails(List<ThumbnailVariant> thumbnails) {
+        this.thumbnails = thumbnails;
+    }
+
+    public void setUploader(String uploader) {
+        this.uploader = uploader;
+    }
+
+    public void setUploadDate(String uploadDate) {
+        this.uploadDate = uploadDate;
+    }
+
+    public void setDuration(String duration) {
+        this.duration = duration;
+    }
+
+    public void setProfilePicture(String profilePicture) {
+        this.profilePicture = profilePicture;
+    }
+}
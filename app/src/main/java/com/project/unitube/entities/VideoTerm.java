@@ -0,0 +1,45 @@
+package com.project.unitube.entities;
+
+import androidx.annotation.NonNull;
+import androidx.room.Entity;
+import androidx.room.ForeignKey;
+import androidx.room.Index;
+
+/**
+ * One entry of a video's TF-IDF vector over its title and description.
+ * Vectors are L2-normalized, so summing weight products over shared terms gives the cosine
+ * similarity of two videos. The (term, weight) index serves the strongest videos for a term.
+ */
+@Entity(primaryKeys = {"videoId", "term"},
+        foreignKeys = @ForeignKey(entity = Video.class,
+                parentColumns = "id",
+                childColumns = "videoId",
+                onDelete = ForeignKey.CASCADE),
+        indices = {@Index({"term", "weight"})})
+public class VideoTerm {
+    private int videoId;
+    @NonNull
+    private String term;
+    private float weight;
+
+    public VideoTerm(int videoId, @NonNull String term, float weight) {
+        this.videoId = videoId;
+        this.term = term;
+        this.weight = weight;
+    }
+
+    // Getters
+
+    public int getVideoId() {
+        return videoId;
+    }
+
+    @NonNull
+    public String getTerm() {
+        return term;
+    }
+
+    public float getWeight() {
+        return weight;
+    }
+}
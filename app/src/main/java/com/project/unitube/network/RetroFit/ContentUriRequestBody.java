@@ -0,0 +1,108 @@
+package com.project.unitube.network.RetroFit;
+
+import android.content.ContentResolver;
+import android.net.Uri;
+import android.os.ParcelFileDescriptor;
+
+import java.io.EOFException;
+import java.io.FileNotFoundException;
+import java.io.IOException;
+import java.nio.channels.FileChannel;
+
+import okhttp3.MediaType;
+import okhttp3.RequestBody;
+import okio.BufferedSink;
+import okio.Okio;
+
+/**
+ * Streams a content:// or file:// URI, or one byte range of it, straight from its file descriptor
+ * as a request body, so picked media does not have to be copied into app storage first.
+ * Seekable descriptors are sent with FileChannel.transferTo, pipes are read through Okio.
+ */
+public class ContentUriRequestBody extends RequestBody {
+
+    // Bytes handed to transferTo at a time
+    private static final long TRANSFER_SIZE = 256 * 1024;
+
+    private final ContentResolver contentResolver;
+    private final Uri uri;
+    private final MediaType contentType;
+    private final long offset;
+    private final long length;
+
+    /**
+     * Streams the whole URI.
+     */
+    public ContentUriRequestBody(ContentResolver contentResolver, Uri uri, MediaType contentType) {
+        this(contentResolver, uri, contentType, 0, -1);
+    }
+
+    /**
+     * Streams length bytes starting at offset.
+     */
+    public ContentUriRequestBody(ContentResolver contentResolver, Uri uri, MediaType contentType,
+                                 long offset, long length) {
+        this.contentResolver = contentResolver;
+        this.uri = uri;
+        this.contentType = contentType;
+        this.offset = offset;
+        this.length = length;
+    }
+
+    @Override
+    public MediaType contentType() {
+        return contentType;
+    }
+
+    @Override
+    public long contentLength() throws IOException {
+        if (length >= 0) {
+            return length;
+        }
+        try (ParcelFileDescriptor descriptor = open()) {
+            long size = descriptor.getStatSize();
+            // -1 makes OkHttp send the body chunked
+            return size < 0 ? -1 : size - offset;
+        }
+    }
+
+    @Override
+    public void writeTo(BufferedSink sink) throws IOException {
+        ParcelFileDescriptor descriptor = open();
+        try (ParcelFileDescriptor.AutoCloseInputStream in = new ParcelFileDescriptor.AutoCloseInputStream(descriptor)) {
+            long size = descriptor.getStatSize();
+            if (size >= 0) {
+                long end = length >= 0 ? offset + length : size;
+                transfer(in.getChannel(), offset, end, sink);
+            } else {
+                // Pipes cannot seek, skip to the range and stream it
+                if (in.skip(offset) != offset) {
+                    throw new EOFException("Could not skip to " + offset + " in " + uri);
+                }
+                if (length >= 0) {
+                    sink.write(Okio.source(in), length);
+                } else {
+                    sink.writeAll(Okio.source(in));
+                }
+            }
+        }
+    }
+
+    private static void transfer(FileChannel channel, long position, long end, BufferedSink sink) throws IOException {
+        while (position < end) {
+            long sent = channel.transferTo(position, Math.min(TRANSFER_SIZE, end - position), sink);
+            if (sent <= 0) {
+                throw new EOFException("File ended at " + position + ", expected " + end + " bytes");
+            }
+            position += sent;
+        }
+    }
+
+    private ParcelFileDescriptor open() throws IOException {
+        ParcelFileDescriptor descriptor = contentResolver.openFileDescriptor(uri, "r");
+        if (descriptor == null) {
+            throw new FileNotFoundException("Cannot open " + uri);
+        }
+        return descriptor;
+    }
+}
@@ -0,0 +1,66 @@
+package com.project.unitube.network.RetroFit;
+
+import java.io.IOException;
+
+import okhttp3.MediaType;
+import okhttp3.RequestBody;
+import okio.Buffer;
+import okio.BufferedSink;
+import okio.ForwardingSink;
+import okio.Okio;
+import okio.Sink;
+
+/**
+ * Wraps a request body and reports how many of its bytes have been written to the socket.
+ */
+public class CountingRequestBody extends RequestBody {
+
+    public interface Listener {
+        /**
+         * Called from the OkHttp thread every time a block of the body has been written.
+         *
+         * @param bytesWritten Bytes of this body written so far
+         */
+        void onBytesWritten(long bytesWritten);
+    }
+
+    private final RequestBody delegate;
+    private final Listener listener;
+
+    public CountingRequestBody(RequestBody delegate, Listener listener) {
+        this.delegate = delegate;
+        this.listener = listener;
+    }
+
+    @Override
+    public MediaType contentType() {
+        return delegate.contentType();
+    }
+
+    @Override
+    public long contentLength() throws IOException {
+        return delegate.contentLength();
+    }
+
+    @Override
+    public void writeTo(BufferedSink sink) throws IOException {
+        BufferedSink countingSink = Okio.buffer(new CountingSink(sink));
+        delegate.writeTo(countingSink);
+        countingSink.flush();
+    }
+
+    private final class CountingSink extends ForwardingSink {
+        private long bytesWritten = 0;
+
+        CountingSink(Sink delegate) {
+            super(delegate);
+        }
+
+        @Override
+        public void write(Buffer source, long byteCount) throws IOException {
+            super.write(source, byteCount);
+            bytesWritten += byteCount;
+            listener.onBytesWritten(bytesWritten);
+        }
+    }
+}
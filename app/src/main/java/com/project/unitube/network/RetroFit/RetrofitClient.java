@@ -1,10 +1,21 @@
 package com.project.unitube.network.RetroFit;
 
+import static com.project.unitube.Unitube.context;
+
+import android.util.Log;
+
+import java.io.File;
+import java.io.IOException;
 import java.util.concurrent.Executors;
 import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
 
+import okhttp3.Cache;
+import okhttp3.CacheControl;
+import okhttp3.Interceptor;
 import okhttp3.OkHttpClient;
 import okhttp3.Request;
+import okhttp3.Response;
 import retrofit2.Retrofit;
 import retrofit2.converter.gson.GsonConverterFactory;
 import retrofit2.converter.scalars.ScalarsConverterFactory;
@@ -15,7 +26,21 @@ import com.project.unitube.utils.manager.UserManager; // Import UserManager to a
  */
 public class RetrofitClient {
     private static final String BASE_URL = "http://172.20.10.9:8200/";
+    private static final String TAG = "RetrofitClient";
+
+    // Size of the HTTP response cache on disk
+    private static final long HTTP_CACHE_SIZE = 20L * 1024 * 1024;
+    // How old a cached response may be when it is used because the server cannot be reached
+    private static final int OFFLINE_MAX_STALE_DAYS = 7;
+
     private static Retrofit retrofit = null;
+    private static OkHttpClient okHttpClient = null;
+    private static Cache httpCache = null;
+
+    // Conditional requests the server answered with 304 Not Modified
+    private static final AtomicLong notModifiedCount = new AtomicLong();
+    // Requests served from the cache because the network failed
+    private static final AtomicLong offlineHitCount = new AtomicLong();
 
     /**
      * Returns the Retrofit instance.
@@ -26,7 +51,10 @@ public class RetrofitClient {
         if (retrofit == null) {
             synchronized (RetrofitClient.class) {
                 if (retrofit == null) {
-                    OkHttpClient okHttpClient = new OkHttpClient.Builder()
+                    httpCache = new Cache(new File(context.getCacheDir(), "http"), HTTP_CACHE_SIZE);
+
+                    okHttpClient = new OkHttpClient.Builder()
+                            .cache(httpCache)
                             .addInterceptor(chain -> {
                                 Request original = chain.request();
                                 Request.Builder builder = original.newBuilder();
@@ -42,6 +70,8 @@ public class RetrofitClient {
                                 Request request = builder.build();
                                 return chain.proceed(request);
                             })
+                            .addInterceptor(RetrofitClient::fallBackToCacheWhenOffline)
+                            .addNetworkInterceptor(RetrofitClient::revalidateReads)
                             .connectTimeout(30, TimeUnit.SECONDS)
                             .readTimeout(30, TimeUnit.SECONDS)
                             .writeTimeout(30, TimeUnit.SECONDS)
@@ -60,6 +90,88 @@ public class RetrofitClient {
         return retrofit;
     }
 
+    /**
+     * Returns the OkHttp client behind Retrofit, for connections Retrofit does not make itself,
+     * such as WebSockets. It carries the same Authorization header.
+     *
+     * @return OkHttpClient instance
+     */
+    public static OkHttpClient getHttpClient() {
+        getClient();
+        return okHttpClient;
+    }
+
+    /**
+     * Lets reads be stored in the cache and revalidated on every use.
+     * Responses without their own Cache-Control get "no-cache", so the next request for the
+     * same URL is sent with If-None-Match / If-Modified-Since and a 304 reuses the cached body.
+     */
+    private static Response revalidateReads(Interceptor.Chain chain) throws IOException {
+        Request request = chain.request();
+        Response response = chain.proceed(request);
+
+        if (response.code() == 304) {
+            notModifiedCount.incrementAndGet();
+        }
+        if (!request.method().equals("GET") || response.header("Cache-Control") != null) {
+            return response;
+        }
+        return response.newBuilder()
+                .removeHeader("Pragma")
+                .header("Cache-Control", "no-cache")
+                .build();
+    }
+
+    /**
+     * Serves a cached copy of a read when the server cannot be reached.
+     * Requests marked "Cache-Control: no-store" need the server's current answer and are left out.
+     */
+    private static Response fallBackToCacheWhenOffline(Interceptor.Chain chain) throws IOException {
+        Request request = chain.request();
+        try {
+            return chain.proceed(request);
+        } catch (IOException e) {
+            if (!request.method().equals("GET") || request.cacheControl().noStore()) {
+                throw e;
+            }
+            Request cachedRequest = request.newBuilder()
+                    .cacheControl(new CacheControl.Builder()
+                            .onlyIfCached()
+                            .maxStale(OFFLINE_MAX_STALE_DAYS, TimeUnit.DAYS)
+                            .build())
+                    .build();
+            Response cached = chain.proceed(cachedRequest);
+            if (!cached.isSuccessful()) {
+                // 504 means there is nothing usable in the cache
+                cached.close();
+                throw e;
+            }
+            offlineHitCount.incrementAndGet();
+            Log.d(TAG, "Offline, serving cached " + request.url());
+            return cached;
+        }
+    }
+
+    // Cache metrics
+
+    // Requests answered entirely from the cache
+    public static int getCacheHitCount() {
+        return httpCache != null ? httpCache.hitCount() : 0;
+    }
+
+    // Requests that went to the server, including conditional ones
+    public static int getCacheMissCount() {
+        return httpCache != null ? httpCache.networkCount() : 0;
+    }
+
+    public static long getNotModifiedCount() {
+        return notModifiedCount.get();
+    }
+
+    public static long getOfflineHitCount() {
+        return offlineHitCount.get();
+    }
+
     // get the base url
     public static String getBaseUrl() {
         return BASE_URL;
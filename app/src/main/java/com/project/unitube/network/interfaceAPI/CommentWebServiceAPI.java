@@ -11,11 +11,18 @@ import retrofit2.http.GET;
 import retrofit2.http.POST;
 import retrofit2.http.PUT;
 import retrofit2.http.Path;
+import retrofit2.http.Query;
 
 public interface CommentWebServiceAPI {
 
+    // One page of a video's comments, newest first, older than the comment id given as the cursor.
+    // The X-Total-Count header carries the number of comments on the video.
     @GET("api/comments/{id}")
-    Call<List<Comment>> getComments(@Path("id") int videoId);
+    Call<List<Comment>> getCommentPage(
+            @Path("id") int videoId,
+            @Query("before") String beforeId,
+            @Query("limit") int limit
+    );
 
     @POST("api/comments/{id}")
     Call<Comment> createComment(@Path("id") int videoID, @Body Comment comment);
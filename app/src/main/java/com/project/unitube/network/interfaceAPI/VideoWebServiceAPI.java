@@ -1,7 +1,10 @@
 package com.project.unitube.network.interfaceAPI;
 import com.google.gson.JsonObject;
 import com.project.unitube.entities.Video;
+import com.project.unitube.entities.VideoSummary;
 import com.project.unitube.utils.helper.EditVideoRequest;
+import com.project.unitube.utils.helper.UploadSession;
+import com.project.unitube.utils.helper.VideoChangesResponse;
 
 import java.util.List;
 
@@ -11,6 +14,8 @@ import retrofit2.Call;
 import retrofit2.http.Body;
 import retrofit2.http.DELETE;
 import retrofit2.http.GET;
+import retrofit2.http.Header;
+import retrofit2.http.Headers;
 import retrofit2.http.Multipart;
 import retrofit2.http.POST;
 import retrofit2.http.PUT;
@@ -19,9 +24,27 @@ import retrofit2.http.Path;
 import retrofit2.http.Query;
 
 public interface VideoWebServiceAPI {
+    // Videos and summaries carry thumbnailUrl, the uploaded original, and thumbnails,
+    // the sized variants of it ({url, width, height, format}) the server has rendered
     @GET("api/videos")
     Call<List<Video>> getVideos();
 
+    // Videos created, edited or deleted after updatedSince (server time in ms, 0 for everything).
+    // Never answered from the cache: a stale delta would move the sync cursor past changes it lacks.
+    @Headers("Cache-Control: no-store")
+    @GET("api/videos/changes")
+    Call<VideoChangesResponse> getVideoChanges(@Query("updatedSince") long updatedSince);
+
+    // One page of summaries, newest first. before is the id of the last video already loaded
+    // and is left out for the first page. A page shorter than limit is the last one.
+    // Summaries include the media url, so a touched row can start preparing playback.
+    @GET("api/videos")
+    Call<List<VideoSummary>> getVideoSummaryPage(
+            @Query("fields") String fields,
+            @Query("before") Integer beforeId,
+            @Query("limit") int limit
+    );
+
     @GET("api/users/{userId}/videos/{videoId}")
     Call<Video> getVideoById(@Path("userId") int userId, @Path("videoId") int videoId);
 
@@ -47,20 +70,33 @@ public interface VideoWebServiceAPI {
     @GET("api/users/{username}/videos")
     Call<List<Video>> getUserVideos(@Path("username") String username);
 
+    // Resumable upload: the session carries the metadata and thumbnail, the video file
+    // follows in chunks. size is the video file length in bytes. The server assigns the
+    // video id and returns the created video once the last chunk is stored.
     @Multipart
-    @POST("api/users/{userName}/videos")
-    Call<Video> uploadVideo(
+    @POST("api/users/{userName}/videos/uploads")
+    Call<UploadSession> createUploadSession(
             @Path("userName") String userName,
-            @Part("id") RequestBody videoId,
             @Part("title") RequestBody title,
             @Part("description") RequestBody description,
             @Part("uploadDate") RequestBody uploadDate,
             @Part("duration") RequestBody duration,
             @Part("profilePicture") RequestBody profilePicture,
-            @Part MultipartBody.Part url,
+            @Part("size") RequestBody size,
             @Part MultipartBody.Part thumbnailUrl
     );
 
-    @GET("api/videos/highest-id")
-    Call<JsonObject> getHighestVideoId();
+    // Stores one chunk, contentRange is "bytes <first>-<last>/<size>". Answers 409 with the
+    // stored offset when the chunk does not start there.
+    @PUT("api/uploads/{uploadId}")
+    Call<UploadSession> uploadChunk(
+            @Path("uploadId") String uploadId,
+            @Header("Content-Range") String contentRange,
+            @Body RequestBody chunk
+    );
+
+    // The offset the server has stored, never answered from the cache
+    @Headers("Cache-Control: no-store")
+    @GET("api/uploads/{uploadId}")
+    Call<UploadSession> getUploadStatus(@Path("uploadId") String uploadId);
 }
@@ -4,18 +4,21 @@ import static com.project.unitube.Unitube.context;
 
 import android.util.Log;
 
+import androidx.annotation.OptIn;
+import androidx.lifecycle.LiveData;
 import androidx.lifecycle.MutableLiveData;
+import androidx.paging.ExperimentalPagingApi;
+import androidx.paging.Pager;
+import androidx.paging.PagingConfig;
+import androidx.paging.PagingData;
+import androidx.paging.PagingLiveData;
 
 import com.project.unitube.Room.Dao.CommentDao;
-import com.project.unitube.Room.Dao.VideoDao;
 import com.project.unitube.Room.Database.AppDB;
+import com.project.unitube.Room.Database.DatabaseWriteExecutor;
 import com.project.unitube.entities.Comment;
-import com.project.unitube.entities.Video;
 import com.project.unitube.network.RetroFit.RetrofitClient;
 import com.project.unitube.network.interfaceAPI.CommentWebServiceAPI;
-import com.project.unitube.network.interfaceAPI.VideoWebServiceAPI;
-
-import java.util.List;
 
 import retrofit2.Call;
 import retrofit2.Callback;
@@ -23,10 +26,14 @@ import retrofit2.Response;
 import retrofit2.Retrofit;
 
 public class CommentAPI {
+    private static final String TAG = "CommentAPI";
+    private static final int COMMENT_PAGE_SIZE = 20;
+    private static final int MAX_COMMENT_PAGES = 5;
 
     private final Retrofit retrofit;
     private final CommentWebServiceAPI commentWebServiceAPI;
     private final CommentDao commentDao;  // Room DAO
+    private final DatabaseWriteExecutor dbWriteExecutor;
 
 
     public CommentAPI() {
@@ -36,46 +43,28 @@ public class CommentAPI {
         // Initialize Room DAO
         AppDB db = AppDB.getInstance(context);
         this.commentDao = db.commentDao();  // Initialize CommentDao for Room operations
+        this.dbWriteExecutor = DatabaseWriteExecutor.getInstance(context);
     }
 
 
-    // Method to fetch comments for a specific video ID
-    public MutableLiveData<List<Comment>> getComments(int videoId) {
-        MutableLiveData<List<Comment>> commentsLiveData = new MutableLiveData<>();
-
-        // First, check local cache (Room) in new thread
-        new Thread(() -> {
-            List<Comment> localComments = commentDao.getCommentsByVideoID(videoId);
-            if (localComments != null && !localComments.isEmpty()) {
-                commentsLiveData.postValue(localComments);
-            }
-        }).start();
-
-        Call<List<Comment>> call = commentWebServiceAPI.getComments(videoId);
-        call.enqueue(new Callback<List<Comment>>() {
-            @Override
-            public void onResponse(Call<List<Comment>> call, Response<List<Comment>> response) {
-                if (response.isSuccessful()) {
-                    List<Comment> comments = response.body();
-                    commentsLiveData.postValue(comments);
-
-                    // Update Room with fetched comments
-                    new Thread(() -> commentDao.insertAllComments(comments)).start();  // Insert comments in background
-
-                } else {
-                    Log.e("CommentAPI", "Failed to fetch comments: " + response.code());
-                    commentsLiveData.postValue(null);
-                }
-            }
-
-            @Override
-            public void onFailure(Call<List<Comment>> call, Throwable t) {
-                Log.e("CommentAPI", "Error: " + t.getMessage());
-                commentsLiveData.postValue(null);
-            }
-        });
-
-        return commentsLiveData;
+    /**
+     * Returns the comments of a video paged out of Room, newest first, with CommentPageMediator
+     * fetching the next page from the server whenever Room runs out of rows.
+     * At most MAX_COMMENT_PAGES pages are held in memory; pages scrolled far away are dropped
+     * and read again from Room when the user scrolls back.
+     *
+     * @param videoId      The video ID
+     * @param commentCount The LiveData the video's total comment count is posted to
+     */
+    @OptIn(markerClass = ExperimentalPagingApi.class)
+    public LiveData<PagingData<Comment>> getCommentPages(int videoId, MutableLiveData<Integer> commentCount) {
+        PagingConfig config = new PagingConfig(COMMENT_PAGE_SIZE, COMMENT_PAGE_SIZE / 2, false,
+                COMMENT_PAGE_SIZE, COMMENT_PAGE_SIZE * MAX_COMMENT_PAGES);
+        CommentPageMediator mediator = new CommentPageMediator(videoId, commentWebServiceAPI, commentDao,
+                dbWriteExecutor, commentCount);
+        Pager<Integer, Comment> pager = new Pager<>(config, null, mediator,
+                () -> commentDao.getCommentPagingSource(videoId));
+        return PagingLiveData.getLiveData(pager);
     }
 
     public MutableLiveData<String> createComment(int videoId, Comment comment) {
@@ -89,8 +78,14 @@ public class CommentAPI {
                     resultLiveData.postValue("Success");
 
                     Comment createdComment = response.body();  // Get the returned comment from the server
+                    if (createdComment == null) {
+                        Log.w(TAG, "Comment created without a body, it shows up with the next page load");
+                        return;
+                    }
+                    // The body may leave out the video, and the foreign key needs it
+                    createdComment.setVideoId(videoId);
                     // Insert the created comment into Room
-                    new Thread(() -> commentDao.insertComment(createdComment)).start();
+                    dbWriteExecutor.execute(() -> commentDao.insertComment(createdComment));
                 } else {
                     resultLiveData.postValue("Failed: " + response.code());
                 }
@@ -115,7 +110,7 @@ public class CommentAPI {
                     resultLiveData.postValue("Success");
 
                     // Update the comment in Room
-                    new Thread(() -> commentDao.updateComment(comment)).start();
+                    dbWriteExecutor.execute(() -> commentDao.updateComment(comment));
                 } else {
                     resultLiveData.postValue("Failed: " + response.code());
                 }
@@ -140,12 +135,12 @@ public class CommentAPI {
                     resultLiveData.postValue("Success");
 
                     // Remove the comment from Room
-                    new Thread(() -> {
+                    dbWriteExecutor.execute(() -> {
                         Comment comment = commentDao.getCommentByID(commentId); // Fetch the comment by ID
                         if (comment != null) {
                             commentDao.deleteComment(comment);
                         }
-                    }).start();
+                    });
                 } else {
                     resultLiveData.postValue("Failed: " + response.code());
                 }
@@ -0,0 +1,136 @@
+package com.project.unitube.network.objectAPI;
+
+import android.util.Log;
+
+import androidx.annotation.NonNull;
+import androidx.concurrent.futures.CallbackToFutureAdapter;
+import androidx.lifecycle.MutableLiveData;
+import androidx.paging.ExperimentalPagingApi;
+import androidx.paging.ListenableFutureRemoteMediator;
+import androidx.paging.LoadType;
+import androidx.paging.PagingState;
+
+import com.google.common.util.concurrent.ListenableFuture;
+import com.project.unitube.Room.Dao.CommentDao;
+import com.project.unitube.Room.Database.DatabaseWriteExecutor;
+import com.project.unitube.entities.Comment;
+import com.project.unitube.network.interfaceAPI.CommentWebServiceAPI;
+
+import java.io.IOException;
+import java.util.List;
+
+import retrofit2.Call;
+import retrofit2.Callback;
+import retrofit2.HttpException;
+import retrofit2.Response;
+
+/**
+ * CommentPageMediator fills Room with the comments of one video, one page at a time.
+ * The comments are always read from Room; this class only fetches the next page from the server
+ * when the paging library runs out of local rows.
+ * Pages are keyed by the id of the last loaded comment, matching the Room ordering (id descending).
+ * A refresh replaces the stored comments of the video with the first page, so comments deleted
+ * on the server disappear and Room holds only what was scrolled through since.
+ */
+@ExperimentalPagingApi
+public class CommentPageMediator extends ListenableFutureRemoteMediator<Integer, Comment> {
+
+    private static final String TAG = "CommentPageMediator";
+    private static final String TOTAL_COUNT_HEADER = "X-Total-Count";
+
+    private final int videoId;
+    private final CommentWebServiceAPI commentWebServiceAPI;
+    private final CommentDao commentDao;
+    private final DatabaseWriteExecutor dbWriteExecutor;
+    private final MutableLiveData<Integer> commentCount;
+
+    public CommentPageMediator(int videoId, CommentWebServiceAPI commentWebServiceAPI, CommentDao commentDao,
+                               DatabaseWriteExecutor dbWriteExecutor, MutableLiveData<Integer> commentCount) {
+        this.videoId = videoId;
+        this.commentWebServiceAPI = commentWebServiceAPI;
+        this.commentDao = commentDao;
+        this.dbWriteExecutor = dbWriteExecutor;
+        this.commentCount = commentCount;
+    }
+
+    @NonNull
+    @Override
+    public ListenableFuture<MediatorResult> loadFuture(@NonNull LoadType loadType,
+                                                       @NonNull PagingState<Integer, Comment> state) {
+        String beforeId;
+        switch (loadType) {
+            case REFRESH:
+                beforeId = null;
+                break;
+            case PREPEND:
+                // Newer comments arrive through a refresh
+                return CallbackToFutureAdapter.getFuture(completer ->
+                        completer.set(new MediatorResult.Success(true)));
+            case APPEND:
+            default:
+                Comment lastItem = state.lastItemOrNull();
+                if (lastItem == null) {
+                    return CallbackToFutureAdapter.getFuture(completer ->
+                            completer.set(new MediatorResult.Success(true)));
+                }
+                beforeId = lastItem.getId();
+                break;
+        }
+
+        int pageSize = state.getConfig().pageSize;
+        return CallbackToFutureAdapter.getFuture(completer -> {
+            Call<List<Comment>> call = commentWebServiceAPI.getCommentPage(videoId, beforeId, pageSize);
+            call.enqueue(new Callback<List<Comment>>() {
+                @Override
+                public void onResponse(Call<List<Comment>> call, Response<List<Comment>> response) {
+                    if (!response.isSuccessful() || response.body() == null) {
+                        Log.w(TAG, "Failed to load comment page. Response Code: " + response.code());
+                        completer.set(new MediatorResult.Error(new HttpException(response)));
+                        return;
+                    }
+                    List<Comment> page = response.body();
+                    for (Comment comment : page) {
+                        comment.setVideoId(videoId);
+                    }
+                    // A server that ignores the cursor sends the same comments again; stop there
+                    boolean endReached = page.size() < pageSize
+                            || (beforeId != null && page.get(page.size() - 1).getId().compareTo(beforeId) >= 0);
+                    postCommentCount(response, loadType, page.size(), endReached);
+
+                    // Report success only once the page is committed, so the PagingSource sees it
+                    dbWriteExecutor.execute(() -> {
+                        if (loadType == LoadType.REFRESH) {
+                            commentDao.deleteCommentsByVideoID(videoId);
+                        }
+                        commentDao.insertAllComments(page);
+                    }, () -> completer.set(new MediatorResult.Success(endReached)),
+                            error -> completer.set(new MediatorResult.Error(error)));
+                }
+
+                @Override
+                public void onFailure(Call<List<Comment>> call, Throwable t) {
+                    Log.e(TAG, "Error loading comment page: " + t.getMessage());
+                    completer.set(new MediatorResult.Error(t instanceof IOException ? t : new IOException(t)));
+                }
+            });
+            completer.addCancellationListener(call::cancel, Runnable::run);
+            return "CommentPageMediator.loadFuture";
+        });
+    }
+
+    // Without the header the count is only known when the first page is also the last one
+    private void postCommentCount(Response<List<Comment>> response, LoadType loadType, int loaded, boolean endReached) {
+        String total = response.headers().get(TOTAL_COUNT_HEADER);
+        if (total != null) {
+            try {
+                commentCount.postValue(Integer.parseInt(total));
+                return;
+            } catch (NumberFormatException e) {
+                Log.w(TAG, "Bad " + TOTAL_COUNT_HEADER + " header: " + total);
+            }
+        }
+        if (loadType == LoadType.REFRESH && endReached) {
+            commentCount.postValue(loaded);
+        }
+    }
+}
@@ -1,5 +1,6 @@
 package com.project.unitube.network.objectAPI;
 
+import static com.project.unitube.Unitube.context;
 import static com.project.unitube.utils.manager.UserManager.token;
 
 import android.net.Uri;
@@ -8,11 +9,15 @@ import android.util.Log;
 import androidx.lifecycle.MutableLiveData;
 
 import com.project.unitube.entities.User;
+import com.project.unitube.network.RetroFit.ContentUriRequestBody;
 import com.project.unitube.network.RetroFit.RetrofitClient;
 import com.project.unitube.network.interfaceAPI.UserWebServiceAPI;
+import com.project.unitube.utils.helper.MediaUris;
 import com.project.unitube.utils.manager.UserManager;
+import com.project.unitube.utils.transcode.ImagePreparer;
 
 import java.io.File;
+import java.io.IOException;
 import java.util.List;
 
 import okhttp3.MediaType;
@@ -24,6 +29,9 @@ import retrofit2.Response;
 import retrofit2.Retrofit;
 
 public class UserAPI {
+    // Overwritten by every profile picture upload
+    private static final String PROFILE_PICTURE_FILE = "profile_picture_upload.jpg";
+
     private MutableLiveData<User> currentUser = new MutableLiveData<>();
 
     Retrofit retrofit;
@@ -39,9 +47,7 @@ public class UserAPI {
         call.enqueue(new Callback<User>() {
             @Override
             public void onResponse(Call<User> call, Response<User> response) {
-                new Thread(() -> {
-                    currentUser.postValue(response.body());
-                }).start();
+                currentUser.postValue(response.body());
             }
 
             @Override
@@ -87,32 +93,33 @@ public class UserAPI {
         RequestBody usernamePart = RequestBody.create(okhttp3.MultipartBody.FORM, user.getUserName());
         RequestBody passwordPart = RequestBody.create(okhttp3.MultipartBody.FORM, user.getPassword());
 
-        // Create the file part for the profile picture if a photo was selected
-        MultipartBody.Part profilePicturePart = null;
-        if (selectedPhotoUri != null) {
-            File file = new File(selectedPhotoUri.getPath());
-            RequestBody requestFile = RequestBody.create(MediaType.parse("image/*"), file);
-            profilePicturePart = MultipartBody.Part.createFormData("profilePicture", file.getName(), requestFile);
-        }
+        // Shrinking the photo decodes it, so the request is built off the main thread
+        new Thread(() -> {
+            // Create the file part for the profile picture if a photo was selected
+            MultipartBody.Part profilePicturePart = null;
+            if (selectedPhotoUri != null) {
+                profilePicturePart = profilePicturePart(selectedPhotoUri);
+            }
 
-        Call<Void> call = userWebServiceAPI.createUser(usernamePart, firstNamePart, lastNamePart, passwordPart, profilePicturePart);
-        call.enqueue(new Callback<Void>() {
-            @Override
-            public void onResponse(Call<Void> call, Response<Void> response) {
-                if (response.isSuccessful()) {
-                    resultLiveData.postValue("success");
-                } else if (response.code() == 400) {
-                    resultLiveData.postValue("User already exists");
-                } else {
-                    resultLiveData.postValue("failure");
+            Call<Void> call = userWebServiceAPI.createUser(usernamePart, firstNamePart, lastNamePart, passwordPart, profilePicturePart);
+            call.enqueue(new Callback<Void>() {
+                @Override
+                public void onResponse(Call<Void> call, Response<Void> response) {
+                    if (response.isSuccessful()) {
+                        resultLiveData.postValue("success");
+                    } else if (response.code() == 400) {
+                        resultLiveData.postValue("User already exists");
+                    } else {
+                        resultLiveData.postValue("failure");
+                    }
                 }
-            }
 
-            @Override
-            public void onFailure(Call<Void> call, Throwable t) {
-                resultLiveData.postValue("failure");
-            }
-        });
+                @Override
+                public void onFailure(Call<Void> call, Throwable t) {
+                    resultLiveData.postValue("failure");
+                }
+            });
+        }).start();
         return resultLiveData;
     }
 
@@ -151,38 +158,59 @@ public class UserAPI {
         RequestBody lastName = RequestBody.create(MediaType.parse("text/plain"), user.getLastName());
         RequestBody password = RequestBody.create(MediaType.parse("text/plain"), user.getPassword());
 
-        // Create the file part for the profile picture if a photo was selected
-        MultipartBody.Part profilePicturePart = null;
-        if (selectedPhotoUri != null) {
-            File file = new File(selectedPhotoUri.getPath());
-            RequestBody requestFile = RequestBody.create(MediaType.parse("image/*"), file);
-            profilePicturePart = MultipartBody.Part.createFormData("profilePicture", file.getName(), requestFile);
-        }
+        // Shrinking the photo decodes it, so the request is built off the main thread
+        new Thread(() -> {
+            // Create the file part for the profile picture if a photo was selected
+            MultipartBody.Part profilePicturePart = null;
+            if (selectedPhotoUri != null) {
+                profilePicturePart = profilePicturePart(selectedPhotoUri);
+            }
 
-        Call<User> call = userWebServiceAPI.updateUser(user.getUserName(), firstName, lastName, password, profilePicturePart);
-        call.enqueue(new Callback<User>() {
-            @Override
-            public void onResponse(Call<User> call, Response<User> response) {
-                if (response.isSuccessful()) {
-                    User updatedUser = response.body();
-                    if (updatedUser != null) {
-                        // Set the updated user in UserManager
-                        UserManager.getInstance().setCurrentUser(updatedUser);
-                        resultLiveData.postValue("success");
-                    } else if (response.code() == 403 || response.code() == 401){
-                        resultLiveData.postValue("invalid token");
-                    } else {
-                        resultLiveData.postValue("failure");
+            Call<User> call = userWebServiceAPI.updateUser(user.getUserName(), firstName, lastName, password, profilePicturePart);
+            call.enqueue(new Callback<User>() {
+                @Override
+                public void onResponse(Call<User> call, Response<User> response) {
+                    if (response.isSuccessful()) {
+                        User updatedUser = response.body();
+                        if (updatedUser != null) {
+                            // Set the updated user in UserManager
+                            UserManager.getInstance().setCurrentUser(updatedUser);
+                            resultLiveData.postValue("success");
+                        } else if (response.code() == 403 || response.code() == 401){
+                            resultLiveData.postValue("invalid token");
+                        } else {
+                            resultLiveData.postValue("failure");
+                        }
                     }
                 }
-            }
 
-            @Override
-            public void onFailure(Call<User> call, Throwable t) {
-                Log.e("UserAPI", "Error updating user: " + t.getMessage());
-                resultLiveData.postValue("failure");
-            }
-        });
+                @Override
+                public void onFailure(Call<User> call, Throwable t) {
+                    Log.e("UserAPI", "Error updating user: " + t.getMessage());
+                    resultLiveData.postValue("failure");
+                }
+            });
+        }).start();
         return  resultLiveData;
     }
+
+    /**
+     * Builds the profile picture part from a copy shrunk to PROFILE_PICTURE_SIZE.
+     * If the photo cannot be decoded it is streamed as picked and the server decides.
+     */
+    private static MultipartBody.Part profilePicturePart(Uri photoUri) {
+        File prepared = new File(context.getCacheDir(), PROFILE_PICTURE_FILE);
+        try {
+            new ImagePreparer(context.getContentResolver()).prepare(photoUri,
+                    ImagePreparer.PROFILE_PICTURE_SIZE, ImagePreparer.PROFILE_PICTURE_SIZE, prepared);
+            return MultipartBody.Part.createFormData("profilePicture", prepared.getName(),
+                    RequestBody.create(MediaType.parse("image/jpeg"), prepared));
+        } catch (IOException e) {
+            Log.w("UserAPI", "Could not shrink the profile picture: " + e.getMessage());
+        }
+        RequestBody requestFile = new ContentUriRequestBody(context.getContentResolver(), photoUri,
+                MediaType.parse("image/*"));
+        return MultipartBody.Part.createFormData("profilePicture",
+                MediaUris.displayName(context.getContentResolver(), photoUri), requestFile);
+    }
 }
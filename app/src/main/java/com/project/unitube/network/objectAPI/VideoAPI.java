@@ -4,24 +4,33 @@ import static com.project.unitube.Unitube.context;
 
 import android.util.Log;
 
+import androidx.annotation.OptIn;
 import androidx.lifecycle.LiveData;
 import androidx.lifecycle.MutableLiveData;
+import androidx.paging.ExperimentalPagingApi;
+import androidx.paging.Pager;
+import androidx.paging.PagingConfig;
+import androidx.paging.PagingData;
+import androidx.paging.PagingLiveData;
 
 import com.google.gson.JsonObject;
 import com.project.unitube.Room.Database.AppDB;
+import com.project.unitube.Room.Database.DatabaseWriteExecutor;
+import com.project.unitube.Room.Database.LocalVideoStore;
 import com.project.unitube.entities.Video;
+import com.project.unitube.entities.VideoSummary;
 import com.project.unitube.Room.Dao.VideoDao;
 import com.project.unitube.network.RetroFit.RetrofitClient;
 import com.project.unitube.network.interfaceAPI.VideoWebServiceAPI;
+import com.project.unitube.repository.EntityCache;
 import com.project.unitube.utils.helper.EditVideoRequest;
-import com.project.unitube.utils.helper.VideoUploadRequest;
 
-import okhttp3.MediaType;
-import okhttp3.MultipartBody;
-import okhttp3.RequestBody;
-
-import java.io.File;
+import java.util.ArrayList;
 import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
 
 import retrofit2.Call;
 import retrofit2.Callback;
@@ -29,62 +38,126 @@ import retrofit2.Response;
 import retrofit2.Retrofit;
 
 public class VideoAPI {
-    private MutableLiveData<List<Video>> videoListData;
+    private static final int FEED_PAGE_SIZE = 20;
+    private static final int SEARCH_RESULT_LIMIT = 50;
+
+    // Searches run one at a time, and a newer query makes the queued ones obsolete
+    private static final ExecutorService searchExecutor = Executors.newSingleThreadExecutor();
+    private static final AtomicInteger latestSearch = new AtomicInteger();
+
     VideoWebServiceAPI videoWebServiceAPI;
     private VideoDao videoDao;
+    private LocalVideoStore localVideoStore;
+    private DatabaseWriteExecutor dbWriteExecutor;
+    private EntityCache entityCache;
 
-    public VideoAPI(MutableLiveData<List<Video>> VideoListData) {
-        this.videoListData = VideoListData;
+    public VideoAPI() {
         Retrofit retrofit = RetrofitClient.getClient();
         videoWebServiceAPI = retrofit.create(VideoWebServiceAPI.class);
 
         // Initialize Room DAO
         AppDB db = AppDB.getInstance(context);
         this.videoDao = db.videoDao();  // Initialize VideoDao for Room operations
+        this.localVideoStore = LocalVideoStore.getInstance(context);
+        this.dbWriteExecutor = DatabaseWriteExecutor.getInstance(context);
+        this.entityCache = EntityCache.getInstance();
     }
 
-    public MutableLiveData<List<Video>> getAllVideos() {
-        // First, check local cache (Room) in new thread
-        new Thread(() -> {
-            List<Video> localVideos = videoDao.getAllVideos();
-            if (!localVideos.isEmpty()) {
-                videoListData.postValue(localVideos);  // Return cached videos
-            }
-        }).start();
+    /**
+     * Returns the home feed paged out of Room, with VideoFeedMediator fetching
+     * the next page from the server whenever Room runs out of rows.
+     */
+    @OptIn(markerClass = ExperimentalPagingApi.class)
+    public LiveData<PagingData<VideoSummary>> getVideoFeed() {
+        PagingConfig config = new PagingConfig(FEED_PAGE_SIZE, FEED_PAGE_SIZE / 2, false, FEED_PAGE_SIZE);
+        VideoFeedMediator mediator = new VideoFeedMediator(videoWebServiceAPI, localVideoStore, dbWriteExecutor,
+                VideoSyncEngine.getInstance());
+        Pager<Integer, VideoSummary> pager = new Pager<>(config, null, mediator,
+                () -> videoDao.getVideoSummaryPagingSource());
+        return PagingLiveData.getLiveData(pager);
+    }
 
-        Call<List<Video>> call = videoWebServiceAPI.getVideos();
-        call.enqueue(new Callback<List<Video>>() {
-            @Override
-            public void onResponse(Call<List<Video>> call, Response<List<Video>> response) {
-                if (response.isSuccessful() && response.body() != null) {
-                    // Update Room with the new list of videos in new thread
-                    new Thread(() -> {
-                        List<Video> videos = response.body();
-                        videoDao.insertAllVideos(videos);
-                    }).start();
-
-                    // Update LiveData with the new list of videos
-                    videoListData.postValue(response.body());
-                }
+    /**
+     * Searches the local catalog through the full-text index on the search thread.
+     * Every word is matched as a prefix. A search that was superseded by a newer one
+     * before it ran is skipped, and its results are never posted.
+     *
+     * @param query   The text typed by the user
+     * @param results The LiveData the ranked results are posted to
+     */
+    public void searchVideos(String query, MutableLiveData<List<VideoSummary>> results) {
+        int searchId = latestSearch.incrementAndGet();
+        searchExecutor.execute(() -> {
+            if (searchId != latestSearch.get()) {
+                return;
             }
-
-            @Override
-            public void onFailure(Call<List<Video>> call, Throwable t) {
+            String match = toPrefixMatch(query);
+            List<VideoSummary> found = match.isEmpty()
+                    ? new ArrayList<>()
+                    : videoDao.searchVideoSummaries(match, query.trim(), SEARCH_RESULT_LIMIT);
+            if (searchId == latestSearch.get()) {
+                results.postValue(found);
             }
         });
-        return videoListData;
     }
 
-    public MutableLiveData<Video> getVideoByID(int userId, int id) {
-        MutableLiveData<Video> videoData = new MutableLiveData<>();
+    /**
+     * Drops any search that has not delivered its results yet.
+     */
+    public void cancelSearch() {
+        latestSearch.incrementAndGet();
+    }
 
-        // First, check Room cache in new thread
-        new Thread(() -> {
-            Video localVideo = videoDao.getVideoByID(id);
-            if (localVideo != null) {
-                videoData.postValue(localVideo);  // Return cached video
+    // Turns "Cat vid" into "cat* vid*". Punctuation and FTS operators are stripped
+    // so user input can never break the MATCH expression.
+    private static String toPrefixMatch(String query) {
+        StringBuilder match = new StringBuilder();
+        for (String word : query.toLowerCase().replaceAll("[^\\p{L}\\p{N}]+", " ").trim().split(" ")) {
+            if (!word.isEmpty()) {
+                if (match.length() > 0) {
+                    match.append(' ');
+                }
+                match.append(word).append('*');
             }
-        }).start();
+        }
+        return match.toString();
+    }
+
+    /**
+     * Posts the locally stored video, then the one fetched from the server.
+     * A local video read after the server has answered is not posted.
+     *
+     * @param videoData The LiveData to post the video to
+     * @param onDone    Called once both the local read and the server request are done
+     */
+    public void getVideoByID(int userId, int id, MutableLiveData<Video> videoData, Runnable onDone) {
+        AtomicBoolean fetched = new AtomicBoolean();
+        Video cachedVideo = entityCache.getVideo(id);
+        AtomicInteger remaining = new AtomicInteger(cachedVideo != null ? 1 : 2);
+        Runnable finish = () -> {
+            if (remaining.decrementAndGet() == 0) {
+                onDone.run();
+            }
+        };
+
+        // First, check the memory cache, then Room in new thread
+        if (cachedVideo != null) {
+            videoData.postValue(cachedVideo);
+        } else {
+            new Thread(() -> {
+                long generation = entityCache.getGeneration();
+                Video localVideo = localVideoStore.loadVideo(id);
+                if (localVideo != null) {
+                    entityCache.putVideo(localVideo, generation);
+                    synchronized (fetched) {
+                        if (!fetched.get()) {
+                            videoData.postValue(localVideo);  // Return cached video
+                        }
+                    }
+                }
+                finish.run();
+            }).start();
+        }
 
         // Then, fetch from the server
         Call<Video> call = videoWebServiceAPI.getVideoById(userId, id);
@@ -94,35 +167,39 @@ public class VideoAPI {
                 if (response.isSuccessful() && response.body() != null) {
                     Video video = response.body();
 
-                    // Update Room with the fetched video in new thread
-                    new Thread(() -> {
-                        videoDao.insertVideo(video);
-                    }).start();
+                    // Update Room with the fetched video, and the memory cache once it is stored.
+                    // The screen changes the posted video, so the write gets its own copy.
+                    Video stored = new Video(video);
+                    dbWriteExecutor.execute(() -> localVideoStore.saveVideo(stored),
+                            () -> entityCache.putVideo(stored));
 
                     // Update LiveData with the new video data
-                    videoData.postValue(video);
+                    synchronized (fetched) {
+                        fetched.set(true);
+                        videoData.postValue(video);
+                    }
                 } else {
                     // Log the failure case if response is not successful or body is null
                     Log.w("VideoAPI", "Failed to fetch video. Response Code: " + response.code());
                 }
+                finish.run();
             }
             @Override
             public void onFailure(Call<Video> call, Throwable t) {
                 // Log the error in case the call fails
                 Log.e("VideoAPI", "Error fetching video: " + t.getMessage(), t);
+                finish.run();
             }
         });
-
-        return videoData;
     }
 
 
-    public LiveData<List<Video>> getUserVideos(String username) {
-        MutableLiveData<List<Video>> videosLiveData = new MutableLiveData<>();
+    public LiveData<List<VideoSummary>> getUserVideos(String username) {
+        MutableLiveData<List<VideoSummary>> videosLiveData = new MutableLiveData<>();
 
         // First, check Room cache in new thread
         new Thread(() -> {
-            List<Video> localVideos = videoDao.getVideosByUploader(username);
+            List<VideoSummary> localVideos = videoDao.getVideoSummariesByUploader(username);
             if (!localVideos.isEmpty()) {
                 videosLiveData.postValue(localVideos);  // Return cached videos
             }
@@ -132,12 +209,15 @@ public class VideoAPI {
             @Override
             public void onResponse(Call<List<Video>> call, Response<List<Video>> response) {
                 if (response.isSuccessful() && response.body() != null) {
-                    videosLiveData.postValue(response.body());
-
-                    // Update Room with the fetched videos in new thread
-                    new Thread(() -> {
-                        videoDao.insertAllVideos(response.body());
-                    }).start();
+                    List<Video> videos = response.body();
+                    List<VideoSummary> summaries = new ArrayList<>();
+                    for (Video video : videos) {
+                        summaries.add(VideoSummary.fromVideo(video));
+                    }
+                    videosLiveData.postValue(summaries);
+
+                    // Update Room with the fetched videos
+                    dbWriteExecutor.execute(() -> localVideoStore.saveVideos(videos));
                 } else {
                     videosLiveData.postValue(null);
                     // Log error here
@@ -154,83 +234,6 @@ public class VideoAPI {
         return videosLiveData;
     }
 
-    public LiveData<Video> uploadVideo(String userName, VideoUploadRequest request, File videoFile, File thumbnailFile) {
-        MutableLiveData<Video> videoLiveData = new MutableLiveData<>();
-
-        Log.d("uploadVideo", "VideoAPI- Starting upload video for user: " + userName);
-
-        RequestBody idBody = RequestBody.create(MediaType.parse("text/plain"), String.valueOf(request.getId()));
-        Log.d("uploadVideo", "VideoAPI- Created idBody: " + request.getId());
-
-        RequestBody titleBody = RequestBody.create(MediaType.parse("text/plain"), request.getTitle());
-        Log.d("uploadVideo", "VideoAPI- Created titleBody: " + request.getTitle());
-
-        RequestBody descriptionBody = RequestBody.create(MediaType.parse("text/plain"), request.getDescription());
-        Log.d("uploadVideo", "VideoAPI- Created descriptionBody: " + request.getDescription());
-
-        RequestBody uploadDateBody = RequestBody.create(MediaType.parse("text/plain"), request.getUploadDate());
-        Log.d("uploadVideo", "VideoAPI- Created uploadDateBody: " + request.getUploadDate());
-
-        RequestBody durationBody = RequestBody.create(MediaType.parse("text/plain"), request.getDuration());
-        Log.d("uploadVideo", "VideoAPI- Created durationBody: " + request.getDuration());
-
-        RequestBody profilePictureBody = RequestBody.create(MediaType.parse("text/plain"), request.getProfilePicture());
-        Log.d("uploadVideo", "VideoAPI- Created profilePictureBody: " + request.getProfilePicture());
-
-        RequestBody videoRequestBody = RequestBody.create(MediaType.parse("video/*"), videoFile);
-        Log.d("uploadVideo", "VideoAPI- Created videoRequestBody for file: " + videoFile.getName());
-
-        MultipartBody.Part videoPart = MultipartBody.Part.createFormData("url", videoFile.getName(), videoRequestBody);
-        Log.d("uploadVideo", "VideoAPI- Created videoPart: " + videoFile.getName());
-
-        RequestBody thumbnailRequestBody = RequestBody.create(MediaType.parse("image/*"), thumbnailFile);
-        Log.d("uploadVideo", "VideoAPI- Created thumbnailRequestBody for file: " + thumbnailFile.getName());
-
-        MultipartBody.Part thumbnailPart = MultipartBody.Part.createFormData("thumbnailUrl", thumbnailFile.getName(), thumbnailRequestBody);
-        Log.d("uploadVideo", "VideoAPI- Created thumbnailPart: " + thumbnailFile.getName());
-
-        Log.d("uploadVideo", "VideoAPI- Sending upload request to server...");
-
-        videoWebServiceAPI.uploadVideo(
-                userName,
-                idBody,
-                titleBody,
-                descriptionBody,
-                uploadDateBody,
-                durationBody,
-                profilePictureBody,
-                videoPart,
-                thumbnailPart
-        ).enqueue(new Callback<Video>() {
-            @Override
-            public void onResponse(Call<Video> call, Response<Video> response) {
-                if (response.isSuccessful() && response.body() != null) {
-                    Log.d("uploadVideo", "VideoAPI- Video upload successful for user: " + userName);
-                    Log.d("uploadVideo", "VideoAPI- Received video ID: " + response.body().getId());
-                    Video video = response.body();
-                    // Insert the newly added video into Room in a new thread
-                    new Thread(() -> {
-                        videoDao.insertVideo(video);
-                    }).start();
-
-                    videoLiveData.postValue(video);
-                } else {
-                    Log.d("uploadVideo", "VideoAPI- Video upload failed for user: " + userName + " - Response not successful. Response code: " + response.code());
-                    videoLiveData.postValue(null);
-                }
-            }
-
-            @Override
-            public void onFailure(Call<Video> call, Throwable t) {
-                Log.d("uploadVideo", "VideoAPI- Video upload failed for user: " + userName + " - Error: " + t.getMessage());
-                videoLiveData.postValue(null);
-            }
-        });
-
-        return videoLiveData;
-    }
-
-
     public LiveData<Boolean> deleteVideo(String userName, int videoId) {
         MutableLiveData<Boolean> result = new MutableLiveData<>();
         videoWebServiceAPI.deleteVideo(userName, videoId).enqueue(new Callback<Void>() {
@@ -239,11 +242,8 @@ public class VideoAPI {
                 result.postValue(response.isSuccessful());
 
                 if (response.isSuccessful()) {
-                    // Delete the video from Room in a new thread
-                    new Thread(() -> {
-                        Video video = videoDao.getVideoByID(videoId);
-                        videoDao.deleteVideo(video);
-                    }).start();
+                    // Delete the video from Room
+                    dbWriteExecutor.execute(() -> localVideoStore.deleteVideo(videoId));
                 }
             }
 
@@ -266,7 +266,10 @@ public class VideoAPI {
             @Override
             public void onResponse(Call<Video> call, Response<Video> response) {
                 if (response.isSuccessful() && response.body() != null) {
-                    videoData.postValue(response.body());
+                    Video video = response.body();
+                    // Keep the local like state in sync
+                    dbWriteExecutor.execute(() -> localVideoStore.saveVideo(video));
+                    videoData.postValue(video);
                 } else {
                     videoData.postValue(null);
                 }
@@ -290,7 +293,10 @@ public class VideoAPI {
             @Override
             public void onResponse(Call<Video> call, Response<Video> response) {
                 if (response.isSuccessful() && response.body() != null) {
-                    videoData.postValue(response.body());
+                    Video video = response.body();
+                    // Keep the local like state in sync
+                    dbWriteExecutor.execute(() -> localVideoStore.saveVideo(video));
+                    videoData.postValue(video);
                 } else {
                     videoData.postValue(null);
                 }
@@ -334,10 +340,8 @@ public class VideoAPI {
                 if (response.isSuccessful() && response.body() != null) {
                     Video video = response.body();
 
-                    // Update Room with the edited video in a new thread
-                    new Thread(() -> {
-                        videoDao.updateVideo(video);
-                    }).start();
+                    // Update Room with the edited video
+                    dbWriteExecutor.execute(() -> localVideoStore.saveVideo(video));
 
                     videoData.postValue(video);
                 } else {
@@ -352,27 +356,4 @@ public class VideoAPI {
         });
         return videoData;
     }
-
-    public LiveData<Integer> getHighestVideoId() {
-        MutableLiveData<Integer> highestIdLiveData = new MutableLiveData<>();
-
-        videoWebServiceAPI.getHighestVideoId().enqueue(new Callback<JsonObject>() {
-            @Override
-            public void onResponse(Call<JsonObject> call, Response<JsonObject> response) {
-                if (response.isSuccessful() && response.body() != null) {
-                    int highestId = response.body().get("highestId").getAsInt();
-                    highestIdLiveData.postValue(highestId); // Use postValue() instead of setValue()
-                } else {
-                    highestIdLiveData.postValue(null); // Use postValue() instead of setValue()
-                }
-            }
-
-            @Override
-            public void onFailure(Call<JsonObject> call, Throwable t) {
-                highestIdLiveData.postValue(null); // Use postValue() instead of setValue()
-            }
-        });
-
-        return highestIdLiveData;
-    }
 }
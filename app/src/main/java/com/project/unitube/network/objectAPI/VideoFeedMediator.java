@@ -0,0 +1,109 @@
+package com.project.unitube.network.objectAPI;
+
+import android.util.Log;
+
+import androidx.annotation.NonNull;
+import androidx.concurrent.futures.CallbackToFutureAdapter;
+import androidx.paging.ExperimentalPagingApi;
+import androidx.paging.ListenableFutureRemoteMediator;
+import androidx.paging.LoadType;
+import androidx.paging.PagingState;
+
+import com.google.common.util.concurrent.ListenableFuture;
+import com.project.unitube.Room.Database.DatabaseWriteExecutor;
+import com.project.unitube.Room.Database.LocalVideoStore;
+import com.project.unitube.entities.VideoSummary;
+import com.project.unitube.network.interfaceAPI.VideoWebServiceAPI;
+
+import java.io.IOException;
+import java.util.List;
+
+import retrofit2.Call;
+import retrofit2.Callback;
+import retrofit2.HttpException;
+import retrofit2.Response;
+
+/**
+ * VideoFeedMediator fills Room with the home feed one page at a time.
+ * The feed itself is always read from Room; this class only fetches the next page
+ * from the server when the paging library runs out of local rows.
+ * Pages are keyed by the id of the last loaded video, matching the Room ordering (id descending).
+ * A refresh also syncs the catalog, so edits and deletions of stored videos reach Room.
+ */
+@ExperimentalPagingApi
+public class VideoFeedMediator extends ListenableFutureRemoteMediator<Integer, VideoSummary> {
+
+    private static final String TAG = "VideoFeedMediator";
+    private static final String SUMMARY_FIELDS = "summary";
+
+    private final VideoWebServiceAPI videoWebServiceAPI;
+    private final LocalVideoStore localVideoStore;
+    private final DatabaseWriteExecutor dbWriteExecutor;
+    private final VideoSyncEngine syncEngine;
+
+    public VideoFeedMediator(VideoWebServiceAPI videoWebServiceAPI, LocalVideoStore localVideoStore,
+                             DatabaseWriteExecutor dbWriteExecutor, VideoSyncEngine syncEngine) {
+        this.videoWebServiceAPI = videoWebServiceAPI;
+        this.localVideoStore = localVideoStore;
+        this.dbWriteExecutor = dbWriteExecutor;
+        this.syncEngine = syncEngine;
+    }
+
+    @NonNull
+    @Override
+    public ListenableFuture<MediatorResult> loadFuture(@NonNull LoadType loadType,
+                                                       @NonNull PagingState<Integer, VideoSummary> state) {
+        Integer beforeId;
+        switch (loadType) {
+            case REFRESH:
+                // Runs on app start and whenever the feed is refreshed. The paging source
+                // is invalidated by Room once a delta is committed, so no callback is needed.
+                syncEngine.sync(null);
+                beforeId = null;
+                break;
+            case PREPEND:
+                // The feed only grows at the end; new uploads arrive through a refresh
+                return CallbackToFutureAdapter.getFuture(completer ->
+                        completer.set(new MediatorResult.Success(true)));
+            case APPEND:
+            default:
+                VideoSummary lastItem = state.lastItemOrNull();
+                if (lastItem == null) {
+                    return CallbackToFutureAdapter.getFuture(completer ->
+                            completer.set(new MediatorResult.Success(true)));
+                }
+                beforeId = lastItem.getId();
+                break;
+        }
+
+        int pageSize = state.getConfig().pageSize;
+        return CallbackToFutureAdapter.getFuture(completer -> {
+            Call<List<VideoSummary>> call = videoWebServiceAPI.getVideoSummaryPage(SUMMARY_FIELDS, beforeId, pageSize);
+            call.enqueue(new Callback<List<VideoSummary>>() {
+                @Override
+                public void onResponse(Call<List<VideoSummary>> call, Response<List<VideoSummary>> response) {
+                    if (!response.isSuccessful() || response.body() == null) {
+                        Log.w(TAG, "Failed to load feed page. Response Code: " + response.code());
+                        completer.set(new MediatorResult.Error(new HttpException(response)));
+                        return;
+                    }
+                    List<VideoSummary> page = response.body();
+                    boolean endReached = page.size() < pageSize;
+
+                    // Report success only once the page is committed, so the PagingSource sees it
+                    dbWriteExecutor.execute(() -> localVideoStore.saveSummaries(page),
+                            () -> completer.set(new MediatorResult.Success(endReached)),
+                            error -> completer.set(new MediatorResult.Error(error)));
+                }
+
+                @Override
+                public void onFailure(Call<List<VideoSummary>> call, Throwable t) {
+                    Log.e(TAG, "Error loading feed page: " + t.getMessage());
+                    completer.set(new MediatorResult.Error(t instanceof IOException ? t : new IOException(t)));
+                }
+            });
+            completer.addCancellationListener(call::cancel, Runnable::run);
+            return "VideoFeedMediator.loadFuture";
+        });
+    }
+}
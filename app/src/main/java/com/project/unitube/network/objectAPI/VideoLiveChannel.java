@@ -0,0 +1,279 @@
+package com.project.unitube.network.objectAPI;
+
+import android.content.Context;
+import android.os.Handler;
+import android.os.Looper;
+import android.util.Log;
+
+import androidx.annotation.NonNull;
+import androidx.annotation.VisibleForTesting;
+import androidx.lifecycle.LiveData;
+import androidx.lifecycle.MutableLiveData;
+
+import com.google.gson.Gson;
+import com.google.gson.JsonParseException;
+import com.project.unitube.Room.Dao.CommentDao;
+import com.project.unitube.Room.Database.AppDB;
+import com.project.unitube.Room.Database.DatabaseWriteExecutor;
+import com.project.unitube.Room.Database.LocalVideoStore;
+import com.project.unitube.entities.Comment;
+import com.project.unitube.entities.Video;
+import com.project.unitube.network.RetroFit.RetrofitClient;
+import com.project.unitube.utils.helper.VideoLiveEvent;
+
+import java.util.concurrent.TimeUnit;
+
+import okhttp3.OkHttpClient;
+import okhttp3.Request;
+import okhttp3.Response;
+import okhttp3.WebSocket;
+import okhttp3.WebSocketListener;
+
+/**
+ * VideoLiveChannel keeps a WebSocket open to api/videos/{id}/live while the video's screen is visible
+ * and applies the comment and reaction changes the server pushes to Room, so other users' activity
+ * shows up without refetching. Comment changes reach the paged comment list through Room invalidation;
+ * the comment count and the video with its new reactions are posted to LiveData.
+ * A dropped connection is reopened with exponential backoff until close() is called.
+ * Changes pushed while no connection was open are missed, so every connection after the first
+ * runs the resync callback to reload them.
+ * open() and close() must be called on the main thread.
+ */
+public class VideoLiveChannel {
+
+    private static final String TAG = "VideoLiveChannel";
+
+    static final long MIN_RECONNECT_DELAY_MS = 1000;
+    static final long MAX_RECONNECT_DELAY_MS = 30_000;
+    // Keeps idle connections alive through NATs and detects dead ones
+    private static final long PING_INTERVAL_SECONDS = 20;
+    private static final int NORMAL_CLOSURE = 1000;
+
+    private final int videoId;
+    private final String url;
+    private final OkHttpClient client;
+    private final Gson gson = new Gson();
+    private final CommentDao commentDao;
+    private final LocalVideoStore localVideoStore;
+    private final DatabaseWriteExecutor dbWriteExecutor;
+    private final Handler mainHandler = new Handler(Looper.getMainLooper());
+
+    private final MutableLiveData<Integer> commentCount = new MutableLiveData<>();
+    private final MutableLiveData<Video> reactions = new MutableLiveData<>();
+    private final MutableLiveData<Boolean> connected = new MutableLiveData<>(false);
+
+    private volatile WebSocket webSocket;
+    private boolean open;
+    private boolean connectedBefore;
+    private long reconnectDelayMs = MIN_RECONNECT_DELAY_MS;
+    private Runnable onResync;
+    private final Runnable reconnect = this::connect;
+
+    public VideoLiveChannel(Context context, int videoId) {
+        this(videoId, RetrofitClient.getHttpClient(), RetrofitClient.getBaseUrl(),
+                AppDB.getInstance(context).commentDao(), LocalVideoStore.getInstance(context),
+                DatabaseWriteExecutor.getInstance(context));
+    }
+
+    @VisibleForTesting
+    VideoLiveChannel(int videoId, OkHttpClient httpClient, String baseUrl, CommentDao commentDao,
+                     LocalVideoStore localVideoStore, DatabaseWriteExecutor dbWriteExecutor) {
+        this.videoId = videoId;
+        this.url = baseUrl + "api/videos/" + videoId + "/live";
+        // WebSockets stay idle between pushes, so reads must not time out
+        this.client = httpClient.newBuilder()
+                .readTimeout(0, TimeUnit.MILLISECONDS)
+                .pingInterval(PING_INTERVAL_SECONDS, TimeUnit.SECONDS)
+                .build();
+        this.commentDao = commentDao;
+        this.localVideoStore = localVideoStore;
+        this.dbWriteExecutor = dbWriteExecutor;
+    }
+
+    /**
+     * Comment count of the video, posted with every pushed comment change.
+     */
+    public LiveData<Integer> getCommentCount() {
+        return commentCount;
+    }
+
+    /**
+     * The video as stored after a pushed reaction change, with its like and dislike lists.
+     */
+    public LiveData<Video> getReactions() {
+        return reactions;
+    }
+
+    /**
+     * Whether the channel is connected, so pushed changes are arriving.
+     */
+    public LiveData<Boolean> isConnected() {
+        return connected;
+    }
+
+    /**
+     * Sets the callback run on the main thread when the channel reconnects,
+     * to reload what was pushed while it was closed.
+     */
+    public void setOnResync(Runnable onResync) {
+        this.onResync = onResync;
+    }
+
+    /**
+     * Connects, unless the channel is already open.
+     */
+    public void open() {
+        if (open) {
+            return;
+        }
+        open = true;
+        reconnectDelayMs = MIN_RECONNECT_DELAY_MS;
+        connect();
+    }
+
+    /**
+     * Disconnects and stops reconnecting.
+     */
+    public void close() {
+        open = false;
+        mainHandler.removeCallbacks(reconnect);
+        WebSocket current = webSocket;
+        webSocket = null;
+        if (current != null) {
+            current.close(NORMAL_CLOSURE, null);
+        }
+        connected.setValue(false);
+    }
+
+    private void connect() {
+        if (!open) {
+            return;
+        }
+        Request request = new Request.Builder()
+                .url(url)
+                .build();
+        webSocket = client.newWebSocket(request, new Listener());
+    }
+
+    // Runs on the main thread; a socket that was already replaced or closed is ignored
+    private void onConnected(WebSocket socket) {
+        if (socket != webSocket) {
+            return;
+        }
+        reconnectDelayMs = MIN_RECONNECT_DELAY_MS;
+        connected.setValue(true);
+        if (connectedBefore && onResync != null) {
+            onResync.run();
+        }
+        connectedBefore = true;
+    }
+
+    // Runs on the main thread
+    private void onDisconnected(WebSocket socket) {
+        if (socket != webSocket || !open) {
+            return;
+        }
+        webSocket = null;
+        connected.setValue(false);
+        mainHandler.postDelayed(reconnect, reconnectDelayMs);
+        reconnectDelayMs = Math.min(reconnectDelayMs * 2, MAX_RECONNECT_DELAY_MS);
+    }
+
+    // Runs on the OkHttp thread that read the message
+    private void apply(VideoLiveEvent event) {
+        if (event.getType() == null) {
+            return;
+        }
+        switch (event.getType()) {
+            case VideoLiveEvent.TYPE_COMMENT_ADDED: {
+                Comment comment = event.getComment();
+                if (comment != null && comment.getId() != null) {
+                    comment.setVideoId(videoId);
+                    // The author's own copy was already stored when the post returned; this replaces it
+                    dbWriteExecutor.execute(() -> commentDao.insertComment(comment));
+                }
+                postCommentCount(event);
+                break;
+            }
+            case VideoLiveEvent.TYPE_COMMENT_UPDATED: {
+                Comment comment = event.getComment();
+                if (comment != null && comment.getId() != null) {
+                    comment.setVideoId(videoId);
+                    // Only rows already paged in are updated; storing an older comment out of order would leave a gap
+                    dbWriteExecutor.execute(() -> commentDao.updateComment(comment));
+                }
+                postCommentCount(event);
+                break;
+            }
+            case VideoLiveEvent.TYPE_COMMENT_DELETED:
+                if (event.getCommentId() != null) {
+                    String commentId = event.getCommentId();
+                    dbWriteExecutor.execute(() -> commentDao.deleteCommentByID(commentId));
+                }
+                postCommentCount(event);
+                break;
+            case VideoLiveEvent.TYPE_REACTION:
+                if (event.getUserName() != null) {
+                    String userName = event.getUserName();
+                    boolean liked = VideoLiveEvent.REACTION_LIKE.equals(event.getReaction());
+                    boolean disliked = VideoLiveEvent.REACTION_DISLIKE.equals(event.getReaction());
+                    dbWriteExecutor.execute(() -> localVideoStore.saveReaction(videoId, userName, liked, disliked),
+                            () -> {
+                                Video video = localVideoStore.loadVideo(videoId);
+                                if (video != null) {
+                                    reactions.postValue(video);
+                                }
+                            });
+                }
+                break;
+            default:
+                Log.d(TAG, "Ignoring event " + event.getType());
+                break;
+        }
+    }
+
+    private void postCommentCount(VideoLiveEvent event) {
+        if (event.getCommentCount() != null) {
+            commentCount.postValue(event.getCommentCount());
+        }
+    }
+
+    private class Listener extends WebSocketListener {
+        @Override
+        public void onOpen(@NonNull WebSocket socket, @NonNull Response response) {
+            Log.d(TAG, "Connected to video " + videoId);
+            mainHandler.post(() -> onConnected(socket));
+        }
+
+        @Override
+        public void onMessage(@NonNull WebSocket socket, @NonNull String text) {
+            if (socket != webSocket) {
+                return;
+            }
+            try {
+                VideoLiveEvent event = gson.fromJson(text, VideoLiveEvent.class);
+                if (event != null) {
+                    apply(event);
+                }
+            } catch (JsonParseException e) {
+                Log.w(TAG, "Bad event: " + e.getMessage());
+            }
+        }
+
+        @Override
+        public void onClosing(@NonNull WebSocket socket, int code, @NonNull String reason) {
+            socket.close(NORMAL_CLOSURE, null);
+        }
+
+        @Override
+        public void onClosed(@NonNull WebSocket socket, int code, @NonNull String reason) {
+            mainHandler.post(() -> onDisconnected(socket));
+        }
+
+        @Override
+        public void onFailure(@NonNull WebSocket socket, @NonNull Throwable t, Response response) {
+            Log.w(TAG, "Connection to video " + videoId + " failed: " + t.getMessage());
+            mainHandler.post(() -> onDisconnected(socket));
+        }
+    }
+}
@@ -0,0 +1,149 @@
+package com.project.unitube.network.objectAPI;
+
+import static com.project.unitube.Unitube.context;
+
+import android.util.Log;
+
+import com.project.unitube.Room.Dao.SyncStateDao;
+import com.project.unitube.Room.Database.AppDB;
+import com.project.unitube.Room.Database.DatabaseWriteExecutor;
+import com.project.unitube.Room.Database.LocalVideoStore;
+import com.project.unitube.entities.SyncState;
+import com.project.unitube.entities.Video;
+import com.project.unitube.network.RetroFit.RetrofitClient;
+import com.project.unitube.network.interfaceAPI.VideoWebServiceAPI;
+import com.project.unitube.utils.helper.VideoChangesResponse;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+import retrofit2.Call;
+import retrofit2.Callback;
+import retrofit2.Response;
+
+/**
+ * VideoSyncEngine keeps the local video catalog up to date with deltas.
+ * It remembers the server time of the last applied delta and only asks for videos
+ * created, edited or deleted after it. Changes, tombstones and the new high-water mark
+ * are committed to Room in one transaction, so a crash never leaves a half-applied delta.
+ */
+public class VideoSyncEngine {
+
+    private static final String TAG = "VideoSyncEngine";
+    // Moves only when a delta changed the catalog, so it also versions the videos' text
+    public static final String VIDEOS_HIGH_WATER_MARK = "videos_updated_since";
+
+    // Singleton instance of the VideoSyncEngine
+    private static volatile VideoSyncEngine INSTANCE;
+
+    private final VideoWebServiceAPI videoWebServiceAPI;
+    private final SyncStateDao syncStateDao;
+    private final LocalVideoStore localVideoStore;
+    private final DatabaseWriteExecutor dbWriteExecutor;
+    private final ExecutorService readExecutor = Executors.newSingleThreadExecutor();
+
+    // Callbacks of everyone waiting for the sync currently in flight
+    private final List<Runnable> pendingCallbacks = new ArrayList<>();
+    private boolean syncing = false;
+
+    private VideoSyncEngine() {
+        videoWebServiceAPI = RetrofitClient.getClient().create(VideoWebServiceAPI.class);
+        AppDB db = AppDB.getInstance(context);
+        syncStateDao = db.syncStateDao();
+        localVideoStore = LocalVideoStore.getInstance(context);
+        dbWriteExecutor = DatabaseWriteExecutor.getInstance(context);
+    }
+
+    public static VideoSyncEngine getInstance() {
+        if (INSTANCE == null) {
+            synchronized (VideoSyncEngine.class) {
+                if (INSTANCE == null) {
+                    INSTANCE = new VideoSyncEngine();
+                }
+            }
+        }
+        return INSTANCE;
+    }
+
+    /**
+     * Fetches and applies the catalog changes since the last sync.
+     * Calls made while a sync is running join it instead of starting another one.
+     *
+     * @param onChanged Runs on a background thread after a delta that changed something is committed
+     */
+    public void sync(Runnable onChanged) {
+        synchronized (this) {
+            if (onChanged != null) {
+                pendingCallbacks.add(onChanged);
+            }
+            if (syncing) {
+                return;
+            }
+            syncing = true;
+        }
+
+        readExecutor.execute(() -> {
+            Long updatedSince = syncStateDao.getValue(VIDEOS_HIGH_WATER_MARK);
+            fetchChanges(updatedSince != null ? updatedSince : 0L);
+        });
+    }
+
+    private void fetchChanges(long updatedSince) {
+        videoWebServiceAPI.getVideoChanges(updatedSince).enqueue(new Callback<VideoChangesResponse>() {
+            @Override
+            public void onResponse(Call<VideoChangesResponse> call, Response<VideoChangesResponse> response) {
+                if (response.isSuccessful() && response.body() != null) {
+                    applyChanges(response.body());
+                } else {
+                    Log.w(TAG, "Failed to fetch video changes. Response Code: " + response.code());
+                    finish(false);
+                }
+            }
+
+            @Override
+            public void onFailure(Call<VideoChangesResponse> call, Throwable t) {
+                Log.e(TAG, "Error fetching video changes: " + t.getMessage());
+                finish(false);
+            }
+        });
+    }
+
+    private void applyChanges(VideoChangesResponse changes) {
+        List<Video> videos = changes.getVideos() != null ? changes.getVideos() : new ArrayList<>();
+        List<Integer> deleted = changes.getDeleted() != null ? changes.getDeleted() : new ArrayList<>();
+        boolean changed = !videos.isEmpty() || !deleted.isEmpty();
+
+        if (!changed) {
+            // Asking again from the old high-water mark returns the same nothing
+            finish(false);
+            return;
+        }
+        Log.d(TAG, "Applying " + videos.size() + " changed and " + deleted.size() + " deleted videos");
+
+        dbWriteExecutor.execute(() -> {
+            if (!videos.isEmpty()) {
+                localVideoStore.saveVideos(videos);
+            }
+            if (!deleted.isEmpty()) {
+                localVideoStore.deleteVideos(deleted);
+            }
+            syncStateDao.putState(new SyncState(VIDEOS_HIGH_WATER_MARK, changes.getServerTime()));
+        }, () -> finish(changed), error -> finish(false));
+    }
+
+    private void finish(boolean changed) {
+        List<Runnable> callbacks;
+        synchronized (this) {
+            callbacks = new ArrayList<>(pendingCallbacks);
+            pendingCallbacks.clear();
+            syncing = false;
+        }
+        if (changed) {
+            for (Runnable callback : callbacks) {
+                callback.run();
+            }
+        }
+    }
+}
@@ -0,0 +1,219 @@
+package com.project.unitube.network.objectAPI;
+
+import android.content.ContentResolver;
+import android.net.Uri;
+import android.util.Log;
+
+import com.project.unitube.entities.Video;
+import com.project.unitube.network.RetroFit.ContentUriRequestBody;
+import com.project.unitube.network.RetroFit.CountingRequestBody;
+import com.project.unitube.network.interfaceAPI.VideoWebServiceAPI;
+import com.project.unitube.utils.helper.MediaUris;
+import com.project.unitube.utils.helper.UploadSession;
+import com.project.unitube.utils.helper.VideoUploadRequest;
+
+import java.io.IOException;
+import java.io.InterruptedIOException;
+
+import okhttp3.MediaType;
+import okhttp3.MultipartBody;
+import okhttp3.RequestBody;
+import retrofit2.Call;
+import retrofit2.Response;
+
+/**
+ * VideoUploader sends a video with the resumable upload protocol.
+ * It opens an upload session with the metadata and thumbnail, then PUTs the video file in chunks.
+ * When a chunk fails it asks the server for the last acknowledged offset and continues from there,
+ * so a dropped connection costs at most one chunk instead of the whole file.
+ * The video and thumbnail are streamed from their URIs, picked media is never copied first.
+ * The methods block and must be called off the main thread.
+ */
+public class VideoUploader {
+
+    private static final String TAG = "VideoUploader";
+
+    // Bytes sent per PUT
+    static final long CHUNK_SIZE = 1024 * 1024;
+    // Consecutive failures tolerated before the upload gives up
+    private static final int MAX_RETRIES = 5;
+    private static final long INITIAL_BACKOFF_MS = 1000;
+
+    private static final MediaType TEXT = MediaType.parse("text/plain");
+    private static final MediaType VIDEO = MediaType.parse("video/*");
+    private static final MediaType IMAGE = MediaType.parse("image/*");
+
+    public interface ProgressListener {
+        /**
+         * Called while the video file is being sent. The bytes may not have reached the server yet.
+         *
+         * @param bytesSent  Bytes of the video file sent so far
+         * @param totalBytes Size of the video file
+         */
+        void onProgress(long bytesSent, long totalBytes);
+
+        /**
+         * Called when the server has acknowledged the video file up to an offset,
+         * the offset an interrupted upload can resume from.
+         *
+         * @param offset     Bytes of the video file stored by the server
+         * @param totalBytes Size of the video file
+         */
+        default void onAcknowledged(long offset, long totalBytes) {
+        }
+    }
+
+    private final VideoWebServiceAPI videoWebServiceAPI;
+    private final ContentResolver contentResolver;
+
+    public VideoUploader(VideoWebServiceAPI videoWebServiceAPI, ContentResolver contentResolver) {
+        this.videoWebServiceAPI = videoWebServiceAPI;
+        this.contentResolver = contentResolver;
+    }
+
+    /**
+     * Opens an upload session and sends the whole video file.
+     *
+     * @return The video created by the server
+     * @throws IOException If the upload failed and could not be resumed
+     */
+    public Video upload(String userName, VideoUploadRequest request, Uri video, Uri thumbnail,
+                        ProgressListener listener) throws IOException {
+        UploadSession session = openSession(userName, request, video, thumbnail);
+        return resume(session.getUploadId(), session.getOffset(), video, listener);
+    }
+
+    /**
+     * Opens an upload session with the metadata and thumbnail. The returned upload id
+     * can be stored to resume the upload later with {@link #resume}.
+     *
+     * @throws IOException If the session could not be opened
+     */
+    public UploadSession openSession(String userName, VideoUploadRequest request, Uri video,
+                                     Uri thumbnail) throws IOException {
+        UploadSession session = createSession(userName, request, video, thumbnail);
+        Log.d(TAG, "Opened upload session " + session.getUploadId() + " for " + video);
+        return session;
+    }
+
+    /**
+     * Continues an upload session from the given offset until the server has the whole file.
+     *
+     * @param uploadId The upload session
+     * @param offset   The last offset acknowledged by the server
+     * @return The video created by the server
+     * @throws IOException If the upload failed and could not be resumed
+     */
+    public Video resume(String uploadId, long offset, Uri video, ProgressListener listener) throws IOException {
+        long totalBytes = MediaUris.length(contentResolver, video);
+        if (totalBytes <= 0) {
+            throw new IOException("Video is empty or has no known size: " + video);
+        }
+
+        int failures = 0;
+        while (true) {
+            try {
+                UploadSession session = offset < totalBytes
+                        ? sendChunk(uploadId, offset, video, totalBytes, listener)
+                        : execute(videoWebServiceAPI.getUploadStatus(uploadId));
+                if (session.getVideo() != null) {
+                    listener.onProgress(totalBytes, totalBytes);
+                    return session.getVideo();
+                }
+                if (session.getOffset() <= offset) {
+                    throw new IOException(offset < totalBytes
+                            ? "Server did not advance past offset " + offset
+                            : "Server has not created the video yet");
+                }
+                offset = session.getOffset();
+                listener.onAcknowledged(offset, totalBytes);
+                failures = 0;
+            } catch (UploadRejectedException e) {
+                throw e;
+            } catch (IOException e) {
+                failures++;
+                if (failures > MAX_RETRIES) {
+                    throw e;
+                }
+                Log.w(TAG, "Chunk at " + offset + " failed (" + e.getMessage() + "), retry " + failures);
+                backOff(failures);
+                offset = acknowledgedOffset(uploadId, offset);
+                listener.onAcknowledged(offset, totalBytes);
+            }
+        }
+    }
+
+    private UploadSession createSession(String userName, VideoUploadRequest request, Uri video,
+                                        Uri thumbnail) throws IOException {
+        RequestBody thumbnailBody = new ContentUriRequestBody(contentResolver, thumbnail, IMAGE);
+        MultipartBody.Part thumbnailPart = MultipartBody.Part.createFormData("thumbnailUrl",
+                MediaUris.displayName(contentResolver, thumbnail), thumbnailBody);
+
+        return execute(videoWebServiceAPI.createUploadSession(
+                userName,
+                RequestBody.create(TEXT, request.getTitle()),
+                RequestBody.create(TEXT, request.getDescription()),
+                RequestBody.create(TEXT, request.getUploadDate()),
+                RequestBody.create(TEXT, request.getDuration()),
+                RequestBody.create(TEXT, request.getProfilePicture()),
+                RequestBody.create(TEXT, String.valueOf(MediaUris.length(contentResolver, video))),
+                thumbnailPart
+        ));
+    }
+
+    private UploadSession sendChunk(String uploadId, long offset, Uri video, long totalBytes,
+                                    ProgressListener listener) throws IOException {
+        long length = Math.min(CHUNK_SIZE, totalBytes - offset);
+        String contentRange = "bytes " + offset + "-" + (offset + length - 1) + "/" + totalBytes;
+
+        RequestBody chunk = new CountingRequestBody(
+                new ContentUriRequestBody(contentResolver, video, VIDEO, offset, length),
+                bytesWritten -> listener.onProgress(offset + bytesWritten, totalBytes));
+
+        return execute(videoWebServiceAPI.uploadChunk(uploadId, contentRange, chunk));
+    }
+
+    // Asks the server how much it has stored, falling back to the last known offset if it cannot be reached
+    private long acknowledgedOffset(String uploadId, long lastKnownOffset) {
+        try {
+            return execute(videoWebServiceAPI.getUploadStatus(uploadId)).getOffset();
+        } catch (IOException e) {
+            Log.w(TAG, "Could not fetch upload status: " + e.getMessage());
+            return lastKnownOffset;
+        }
+    }
+
+    private static void backOff(int failures) throws InterruptedIOException {
+        try {
+            Thread.sleep(INITIAL_BACKOFF_MS << (failures - 1));
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new InterruptedIOException("Upload interrupted");
+        }
+    }
+
+    /**
+     * Runs a call and returns its body. Server errors and 409 offset mismatches are retryable
+     * IOExceptions, every other error response rejects the upload.
+     */
+    private static UploadSession execute(Call<UploadSession> call) throws IOException {
+        Response<UploadSession> response = call.execute();
+        if (response.isSuccessful() && response.body() != null) {
+            return response.body();
+        }
+        int code = response.code();
+        if (code == 409 || code >= 500) {
+            throw new IOException("Upload request failed with " + code);
+        }
+        throw new UploadRejectedException(code);
+    }
+
+    /**
+     * The server refused the upload, retrying would not help.
+     */
+    public static class UploadRejectedException extends IOException {
+        public UploadRejectedException(int code) {
+            super("Upload rejected with " + code);
+        }
+    }
+}
@@ -4,6 +4,7 @@ import android.content.Context;
 
 import androidx.lifecycle.LiveData;
 import androidx.lifecycle.MutableLiveData;
+import androidx.paging.PagingData;
 
 import com.project.unitube.Room.Database.AppDB;
 import com.project.unitube.entities.Comment;
@@ -26,8 +27,8 @@ public class CommentRepository {
         return commentAPI.createComment(comment.getVideoId(), comment);
     }
 
-    public MutableLiveData<List<Comment>> getCommentsForVideo(int videoId) {
-        return commentAPI.getComments(videoId);
+    public LiveData<PagingData<Comment>> getCommentPages(int videoId, MutableLiveData<Integer> commentCount) {
+        return commentAPI.getCommentPages(videoId, commentCount);
     }
 
     public MutableLiveData<String> updateComment(Comment comment) {
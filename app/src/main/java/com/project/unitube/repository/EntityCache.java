@@ -0,0 +1,136 @@
+package com.project.unitube.repository;
+
+import android.util.LruCache;
+
+import com.project.unitube.entities.ThumbnailVariant;
+import com.project.unitube.entities.Video;
+
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * EntityCache keeps recently opened videos in memory, in front of Room.
+ * The cache is bounded by an estimate of its size in bytes and evicts least recently used entries.
+ * Every Room write of a video invalidates the matching entry, once inside the write and again
+ * after it has committed. Entries are copies, so changes made to a returned video stay out of the cache.
+ * Comments are not cached here; they are paged out of Room in a bounded window.
+ */
+public class EntityCache {
+
+    private static final int VIDEO_CACHE_BYTES = 512 * 1024;
+
+    // Rough per-object overhead used by the size estimates
+    private static final int OBJECT_OVERHEAD_BYTES = 64;
+
+    // Singleton instance of the EntityCache
+    private static volatile EntityCache INSTANCE;
+
+    private final LruCache<Integer, Video> videos = new LruCache<Integer, Video>(VIDEO_CACHE_BYTES) {
+        @Override
+        protected int sizeOf(Integer id, Video video) {
+            int size = OBJECT_OVERHEAD_BYTES
+                    + stringBytes(video.getTitle())
+                    + stringBytes(video.getDescription())
+                    + stringBytes(video.getUrl())
+                    + stringBytes(video.getThumbnailUrl())
+                    + stringBytes(video.getUploader())
+                    + stringBytes(video.getUploadDate())
+                    + stringBytes(video.getDuration())
+                    + stringBytes(video.getRawProfilePicture());
+            if (video.getThumbnails() != null) {
+                for (ThumbnailVariant variant : video.getThumbnails()) {
+                    size += OBJECT_OVERHEAD_BYTES + stringBytes(variant.getUrl()) + stringBytes(variant.getFormat());
+                }
+            }
+            size += namesBytes(video.getLikesList());
+            size += namesBytes(video.getDislikesList());
+            return size;
+        }
+    };
+
+    // Bumped on every invalidation, so a Room read that raced with a write is not cached
+    private final AtomicLong generation = new AtomicLong();
+
+    private EntityCache() {
+    }
+
+    /**
+     * Returns the singleton instance of the EntityCache.
+     *
+     * @return The singleton instance of the EntityCache
+     */
+    public static EntityCache getInstance() {
+        if (INSTANCE == null) {
+            synchronized (EntityCache.class) {
+                if (INSTANCE == null) {
+                    INSTANCE = new EntityCache();
+                }
+            }
+        }
+        return INSTANCE;
+    }
+
+    /**
+     * Returns the current invalidation generation. Read it before loading from Room
+     * and pass it to the put method, which then skips the entry if a write happened in between.
+     */
+    public long getGeneration() {
+        return generation.get();
+    }
+
+    // Videos
+
+    public Video getVideo(int id) {
+        Video video = videos.get(id);
+        return video != null ? new Video(video) : null;
+    }
+
+    public void putVideo(Video video) {
+        videos.put(video.getId(), new Video(video));
+    }
+
+    public void putVideo(Video video, long readGeneration) {
+        Video copy = new Video(video);
+        synchronized (this) {
+            if (generation.get() == readGeneration) {
+                videos.put(copy.getId(), copy);
+            }
+        }
+    }
+
+    public void invalidateVideo(int id) {
+        synchronized (this) {
+            generation.incrementAndGet();
+            videos.remove(id);
+        }
+    }
+
+    private static int stringBytes(String value) {
+        return value == null ? 0 : value.length() * 2;
+    }
+
+    private static int namesBytes(List<String> names) {
+        int size = 0;
+        if (names != null) {
+            for (String name : names) {
+                size += OBJECT_OVERHEAD_BYTES + stringBytes(name);
+            }
+        }
+        return size;
+    }
+
+    // Metrics getters
+
+    public double getVideoHitRatio() {
+        return hitRatio(videos.hitCount(), videos.missCount());
+    }
+
+    public int getVideoEvictionCount() {
+        return videos.evictionCount();
+    }
+
+    private static double hitRatio(int hits, int misses) {
+        int total = hits + misses;
+        return total == 0 ? 0 : (double) hits / total;
+    }
+}
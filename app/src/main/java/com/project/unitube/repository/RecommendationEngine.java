@@ -0,0 +1,430 @@
+package com.project.unitube.repository;
+
+import android.content.Context;
+import android.util.Log;
+import android.util.LruCache;
+
+import androidx.annotation.Nullable;
+import androidx.annotation.VisibleForTesting;
+import androidx.core.util.Consumer;
+import androidx.lifecycle.LiveData;
+import androidx.lifecycle.MutableLiveData;
+
+import com.project.unitube.Room.Dao.RecommendationDao;
+import com.project.unitube.Room.Dao.SyncStateDao;
+import com.project.unitube.Room.Dao.VideoDao;
+import com.project.unitube.Room.Database.AppDB;
+import com.project.unitube.Room.Database.DatabaseWriteExecutor;
+import com.project.unitube.entities.SyncState;
+import com.project.unitube.entities.VideoSummary;
+import com.project.unitube.entities.VideoTerm;
+import com.project.unitube.network.objectAPI.VideoSyncEngine;
+
+import java.text.ParseException;
+import java.text.SimpleDateFormat;
+import java.util.AbstractMap;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * RecommendationEngine ranks the local catalog for the "recommended" list of a video.
+ * Candidates come from videos similar in text, videos liked by the same users, videos of
+ * the same uploader and the newest videos. Each is scored on
+ * <ul>
+ *     <li>text similarity: cosine of the TF-IDF vectors of title and description, kept in Room,</li>
+ *     <li>co-engagement: how many users who liked this video also liked the candidate,</li>
+ *     <li>uploader affinity: same uploader, and how much the current user likes the uploader,</li>
+ *     <li>recency: decays with the candidate's age.</li>
+ * </ul>
+ * Ranking runs on one background thread and results are cached per video and user.
+ */
+public class RecommendationEngine {
+
+    private static final String TAG = "RecommendationEngine";
+    private static final String INDEX_SIGNATURE = "recommendation_index";
+
+    private static final int RESULT_COUNT = 20;
+    private static final int CACHED_RESULTS = 32;
+
+    // Candidate generation limits
+    private static final int QUERY_TERMS = 12;
+    private static final int VIDEOS_PER_TERM = 200;
+    private static final int CO_LIKED_VIDEOS = 200;
+    private static final int SAME_UPLOADER_VIDEOS = 50;
+    private static final int NEWEST_VIDEOS = 100;
+    // SQLite allows 999 bound variables
+    private static final int MAX_QUERY_IDS = 900;
+
+    // Score weights, summing to 1
+    private static final float TEXT_WEIGHT = 0.35f;
+    private static final float CO_LIKE_WEIGHT = 0.30f;
+    private static final float UPLOADER_WEIGHT = 0.20f;
+    private static final float RECENCY_WEIGHT = 0.15f;
+    private static final double RECENCY_HALF_LIFE_DAYS = 30;
+
+    // Term index
+    private static final int INDEX_PAGE_SIZE = 1000;
+    private static final int MAX_TERMS_PER_VIDEO = 32;
+    private static final int TITLE_TERM_COUNT = 2;   // a title word counts as two description words
+    private static final long MIN_REBUILD_INTERVAL_MS = TimeUnit.MINUTES.toMillis(10);
+    private static final Set<String> STOP_WORDS = new HashSet<>(Arrays.asList(
+            "the", "and", "for", "with", "this", "that", "from", "you", "your", "are", "was", "were",
+            "but", "not", "all", "can", "has", "have", "how", "its", "our", "out", "what", "when",
+            "who", "why", "will", "one", "about", "into", "more", "just", "than", "then", "them"));
+
+    // Singleton instance of the RecommendationEngine
+    private static volatile RecommendationEngine INSTANCE;
+
+    private final RecommendationDao recommendationDao;
+    private final VideoDao videoDao;
+    private final SyncStateDao syncStateDao;
+    private final DatabaseWriteExecutor dbWriteExecutor;
+    // Starts a catalog sync, taking the callback to run if it changed something
+    private final Consumer<Runnable> requestSync;
+    private final ExecutorService rankingThread =
+            Executors.newSingleThreadExecutor(runnable -> new Thread(runnable, "unitube-recommendations"));
+    private final LruCache<String, List<VideoSummary>> results = new LruCache<>(CACHED_RESULTS);
+    // Only used on the ranking thread
+    private final SimpleDateFormat dateFormat = new SimpleDateFormat("yyyy-MM-dd", Locale.US);
+    private long indexedSignature = -1;
+    private long lastRebuildMs;
+    private long lastSyncRequestMs;
+
+    @VisibleForTesting
+    RecommendationEngine(AppDB db, DatabaseWriteExecutor dbWriteExecutor, Consumer<Runnable> requestSync) {
+        this.recommendationDao = db.recommendationDao();
+        this.videoDao = db.videoDao();
+        this.syncStateDao = db.syncStateDao();
+        this.dbWriteExecutor = dbWriteExecutor;
+        this.requestSync = requestSync;
+    }
+
+    /**
+     * Returns the singleton instance of the RecommendationEngine.
+     *
+     * @param context The application context
+     * @return The singleton instance of the RecommendationEngine
+     */
+    public static RecommendationEngine getInstance(Context context) {
+        if (INSTANCE == null) {
+            synchronized (RecommendationEngine.class) {
+                if (INSTANCE == null) {
+                    INSTANCE = new RecommendationEngine(AppDB.getInstance(context),
+                            DatabaseWriteExecutor.getInstance(context),
+                            onChanged -> VideoSyncEngine.getInstance().sync(onChanged));
+                }
+            }
+        }
+        return INSTANCE;
+    }
+
+    /**
+     * Ranks the catalog for a video in the background.
+     *
+     * @param videoId  The video being watched
+     * @param userName The signed in user, or null
+     * @return LiveData receiving the recommended videos, best first
+     */
+    public LiveData<List<VideoSummary>> getRecommendations(int videoId, @Nullable String userName) {
+        MutableLiveData<List<VideoSummary>> recommendations = new MutableLiveData<>();
+        String key = videoId + "/" + userName;
+        List<VideoSummary> cached = results.get(key);
+        if (cached != null) {
+            recommendations.setValue(cached);
+            return recommendations;
+        }
+        rankingThread.execute(() -> {
+            long start = System.nanoTime();
+            List<VideoSummary> ranked = rank(videoId, userName);
+            Log.d(TAG, "Ranked " + ranked.size() + " videos for video " + videoId + " in "
+                    + TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start) + " ms");
+            results.put(key, ranked);
+            recommendations.postValue(ranked);
+        });
+        return recommendations;
+    }
+
+    private List<VideoSummary> rank(int videoId, @Nullable String userName) {
+        requestSyncIfStale();
+        ensureIndex();
+
+        Map<Integer, Candidate> candidates = new HashMap<>();
+        addSimilarVideos(videoId, candidates);
+        addCoLikedVideos(videoId, candidates);
+
+        List<RecommendationDao.CandidateInfo> current = recommendationDao.getCandidateInfo(
+                Collections.singletonList(videoId));
+        String uploader = current.isEmpty() ? null : current.get(0).uploader;
+        if (uploader != null) {
+            for (int id : recommendationDao.getVideosByUploader(uploader, videoId, SAME_UPLOADER_VIDEOS)) {
+                candidate(candidates, id);
+            }
+        }
+        for (int id : recommendationDao.getNewestVideos(NEWEST_VIDEOS)) {
+            if (id != videoId) {
+                candidate(candidates, id);
+            }
+        }
+
+        Map<String, Integer> likedUploaders = new HashMap<>();
+        int mostLiked = 0;
+        if (userName != null) {
+            for (RecommendationDao.UploaderCount liked : recommendationDao.getLikedUploaders(userName)) {
+                likedUploaders.put(liked.uploader, liked.count);
+                mostLiked = Math.max(mostLiked, liked.count);
+            }
+        }
+
+        // Keep the strongest candidates by their query signals, so the detail lookup stays bounded
+        List<Candidate> ranked = new ArrayList<>(candidates.values());
+        if (ranked.size() > MAX_QUERY_IDS) {
+            Collections.sort(ranked, (a, b) -> Float.compare(b.text + b.coLike, a.text + a.coLike));
+            ranked = new ArrayList<>(ranked.subList(0, MAX_QUERY_IDS));
+        }
+        List<Integer> ids = new ArrayList<>();
+        for (Candidate candidate : ranked) {
+            ids.add(candidate.videoId);
+        }
+
+        long now = System.currentTimeMillis();
+        for (RecommendationDao.CandidateInfo info : recommendationDao.getCandidateInfo(ids)) {
+            Candidate candidate = candidates.get(info.id);
+            float affinity = uploader != null && uploader.equals(info.uploader) ? 0.5f : 0f;
+            Integer likes = likedUploaders.get(info.uploader);
+            if (likes != null) {
+                affinity += 0.5f * likes / mostLiked;
+            }
+            candidate.score = TEXT_WEIGHT * Math.min(1f, candidate.text)
+                    + CO_LIKE_WEIGHT * candidate.coLike
+                    + UPLOADER_WEIGHT * affinity
+                    + RECENCY_WEIGHT * recency(info.uploadDate, now);
+        }
+        Collections.sort(ranked, (a, b) -> Float.compare(b.score, a.score));
+
+        List<Integer> topIds = new ArrayList<>();
+        for (int i = 0; i < Math.min(RESULT_COUNT, ranked.size()); i++) {
+            topIds.add(ranked.get(i).videoId);
+        }
+        return inOrder(videoDao.getVideoSummariesByIds(topIds), topIds);
+    }
+
+    // Cosine similarity through the term index, using the video's strongest terms
+    private void addSimilarVideos(int videoId, Map<Integer, Candidate> candidates) {
+        List<RecommendationDao.TermWeight> terms = recommendationDao.getTerms(videoId);
+        Collections.sort(terms, (a, b) -> Float.compare(b.weight, a.weight));
+        for (RecommendationDao.TermWeight term : terms.subList(0, Math.min(QUERY_TERMS, terms.size()))) {
+            for (RecommendationDao.TermWeight hit : recommendationDao.getTopVideosForTerm(term.term, VIDEOS_PER_TERM)) {
+                if (hit.videoId != videoId) {
+                    candidate(candidates, hit.videoId).text += term.weight * hit.weight;
+                }
+            }
+        }
+    }
+
+    // Share of the strongest co-like count, so the most co-liked video scores 1
+    private void addCoLikedVideos(int videoId, Map<Integer, Candidate> candidates) {
+        List<RecommendationDao.VideoCount> coLiked = recommendationDao.getCoLikedVideos(videoId, CO_LIKED_VIDEOS);
+        if (coLiked.isEmpty()) {
+            return;
+        }
+        float most = coLiked.get(0).count;
+        for (RecommendationDao.VideoCount video : coLiked) {
+            candidate(candidates, video.videoId).coLike = video.count / most;
+        }
+    }
+
+    private float recency(String uploadDate, long now) {
+        if (uploadDate == null || uploadDate.length() < 10) {
+            return 0f;
+        }
+        try {
+            long ageMs = Math.max(0, now - dateFormat.parse(uploadDate.substring(0, 10)).getTime());
+            double ageDays = ageMs / (double) TimeUnit.DAYS.toMillis(1);
+            return (float) Math.pow(0.5, ageDays / RECENCY_HALF_LIFE_DAYS);
+        } catch (ParseException e) {
+            return 0f;
+        }
+    }
+
+    private static Candidate candidate(Map<Integer, Candidate> candidates, int videoId) {
+        Candidate candidate = candidates.get(videoId);
+        if (candidate == null) {
+            candidate = new Candidate(videoId);
+            candidates.put(videoId, candidate);
+        }
+        return candidate;
+    }
+
+    private static List<VideoSummary> inOrder(List<VideoSummary> summaries, List<Integer> ids) {
+        Map<Integer, VideoSummary> byId = new HashMap<>();
+        for (VideoSummary summary : summaries) {
+            byId.put(summary.getId(), summary);
+        }
+        List<VideoSummary> ordered = new ArrayList<>();
+        for (int id : ids) {
+            VideoSummary summary = byId.get(id);
+            if (summary != null) {
+                ordered.add(summary);
+            }
+        }
+        return ordered;
+    }
+
+    /**
+     * Keeps descriptions, likes and deletions coming in while the user only watches videos,
+     * without a feed refresh. Rankings cached before a sync that changed the catalog are dropped.
+     */
+    private void requestSyncIfStale() {
+        long now = System.currentTimeMillis();
+        if (lastSyncRequestMs != 0 && now - lastSyncRequestMs < MIN_REBUILD_INTERVAL_MS) {
+            return;
+        }
+        lastSyncRequestMs = now;
+        requestSync.accept(results::evictAll);
+    }
+
+    /**
+     * Rebuilds the term index when the catalog changed since it was built. Rebuilds are at
+     * least MIN_REBUILD_INTERVAL_MS apart; until then new videos are still found as newest videos.
+     */
+    private void ensureIndex() {
+        // Count and newest id catch added and deleted videos; the sync high-water mark moves
+        // with every delta that changed something, so it catches edited titles and descriptions
+        Long syncedUntil = syncStateDao.getValue(VideoSyncEngine.VIDEOS_HIGH_WATER_MARK);
+        long signature = recommendationDao.getVideoCount();
+        signature = 31 * signature + recommendationDao.getMaxVideoId();
+        signature = 31 * signature + (syncedUntil != null ? syncedUntil : 0);
+        if (signature == indexedSignature) {
+            return;
+        }
+        Long stored = syncStateDao.getValue(INDEX_SIGNATURE);
+        if (stored != null && stored == signature) {
+            indexedSignature = signature;
+            return;
+        }
+        long now = System.currentTimeMillis();
+        if (stored != null && now - lastRebuildMs < MIN_REBUILD_INTERVAL_MS) {
+            return;
+        }
+        lastRebuildMs = now;
+        rebuildIndex(signature);
+    }
+
+    private void rebuildIndex(long signature) {
+        long start = System.nanoTime();
+
+        // First pass: document frequency of every term
+        Map<String, Integer> documentFrequency = new HashMap<>();
+        int documents = 0;
+        int afterId = 0;
+        List<RecommendationDao.VideoText> page;
+        while (!(page = recommendationDao.getVideoTextPage(afterId, INDEX_PAGE_SIZE)).isEmpty()) {
+            for (RecommendationDao.VideoText video : page) {
+                for (String term : termCounts(video).keySet()) {
+                    documentFrequency.merge(term, 1, Integer::sum);
+                }
+                documents++;
+            }
+            afterId = page.get(page.size() - 1).id;
+        }
+
+        // Second pass: the vectors, written page by page
+        dbWriteExecutor.execute(recommendationDao::deleteAllTerms);
+        afterId = 0;
+        while (!(page = recommendationDao.getVideoTextPage(afterId, INDEX_PAGE_SIZE)).isEmpty()) {
+            List<VideoTerm> terms = new ArrayList<>();
+            for (RecommendationDao.VideoText video : page) {
+                terms.addAll(vector(video, documentFrequency, documents));
+            }
+            dbWriteExecutor.execute(() -> recommendationDao.insertTerms(terms));
+            afterId = page.get(page.size() - 1).id;
+        }
+
+        // Ranking waits for the index to be committed
+        CountDownLatch flushed = new CountDownLatch(1);
+        AtomicBoolean committed = new AtomicBoolean();
+        dbWriteExecutor.execute(() -> syncStateDao.putState(new SyncState(INDEX_SIGNATURE, signature)), () -> {
+            committed.set(true);
+            flushed.countDown();
+        }, error -> flushed.countDown());
+        try {
+            flushed.await();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        if (!committed.get()) {
+            // The next ranking rebuilds the index again once the rebuild interval has passed
+            Log.w(TAG, "Failed to store the term index signature");
+            return;
+        }
+        indexedSignature = signature;
+        results.evictAll();
+        Log.d(TAG, "Indexed " + documents + " videos, " + documentFrequency.size() + " terms in "
+                + TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start) + " ms");
+    }
+
+    // TF-IDF weights of the video's strongest terms, L2-normalized
+    private static List<VideoTerm> vector(RecommendationDao.VideoText video,
+                                          Map<String, Integer> documentFrequency, int documents) {
+        List<Map.Entry<String, Float>> weights = new ArrayList<>();
+        for (Map.Entry<String, Integer> term : termCounts(video).entrySet()) {
+            double tf = 1 + Math.log(term.getValue());
+            double idf = Math.log((documents + 1.0) / (documentFrequency.get(term.getKey()) + 1.0)) + 1;
+            weights.add(new AbstractMap.SimpleEntry<>(term.getKey(), (float) (tf * idf)));
+        }
+        Collections.sort(weights, (a, b) -> Float.compare(b.getValue(), a.getValue()));
+        List<Map.Entry<String, Float>> kept = weights.subList(0, Math.min(MAX_TERMS_PER_VIDEO, weights.size()));
+
+        double norm = 0;
+        for (Map.Entry<String, Float> weight : kept) {
+            norm += weight.getValue() * weight.getValue();
+        }
+        norm = Math.sqrt(norm);
+        List<VideoTerm> vector = new ArrayList<>();
+        for (Map.Entry<String, Float> weight : kept) {
+            vector.add(new VideoTerm(video.id, weight.getKey(), (float) (weight.getValue() / norm)));
+        }
+        return vector;
+    }
+
+    private static Map<String, Integer> termCounts(RecommendationDao.VideoText video) {
+        Map<String, Integer> counts = new HashMap<>();
+        addTerms(counts, video.title, TITLE_TERM_COUNT);
+        addTerms(counts, video.description, 1);
+        return counts;
+    }
+
+    private static void addTerms(Map<String, Integer> counts, String text, int count) {
+        if (text == null) {
+            return;
+        }
+        for (String token : text.toLowerCase(Locale.ROOT).split("[^\\p{L}\\p{Nd}]+")) {
+            if (token.length() >= 2 && !STOP_WORDS.contains(token)) {
+                counts.merge(token, count, Integer::sum);
+            }
+        }
+    }
+
+    private static class Candidate {
+        final int videoId;
+        float text;
+        float coLike;
+        float score;
+
+        Candidate(int videoId) {
+            this.videoId = videoId;
+        }
+    }
+}
@@ -0,0 +1,58 @@
+package com.project.unitube.repository;
+
+import androidx.lifecycle.LiveData;
+import androidx.lifecycle.MutableLiveData;
+
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * SingleFlight shares one load between callers asking for the same key at the same time.
+ * The first caller starts the load, callers arriving while it is in flight get the same LiveData.
+ * Once the loader reports it is done the key is released, so the next call loads again.
+ *
+ * @param <K> The request key, such as a video ID
+ * @param <V> The loaded value
+ */
+class SingleFlight<K, V> {
+
+    interface Loader<V> {
+        /**
+         * Starts the load. Results are posted to target, and done must be called exactly once
+         * when no more results will be posted, whether the load succeeded or not.
+         */
+        void load(MutableLiveData<V> target, Runnable done);
+    }
+
+    private final Map<K, MutableLiveData<V>> inFlight = new HashMap<>();
+
+    /**
+     * Returns the LiveData of the load in flight for key, starting a new load if there is none.
+     *
+     * @param key    The request key
+     * @param loader Starts the load when no identical request is in flight
+     * @return The LiveData shared by every caller of this load
+     */
+    LiveData<V> run(K key, Loader<V> loader) {
+        MutableLiveData<V> target;
+        synchronized (inFlight) {
+            target = inFlight.get(key);
+            if (target != null) {
+                return target;
+            }
+            target = new MutableLiveData<>();
+            inFlight.put(key, target);
+        }
+
+        MutableLiveData<V> startedTarget = target;
+        loader.load(target, () -> {
+            synchronized (inFlight) {
+                // Only release the key if it still belongs to this load
+                if (inFlight.get(key) == startedTarget) {
+                    inFlight.remove(key);
+                }
+            }
+        });
+        return target;
+    }
+}
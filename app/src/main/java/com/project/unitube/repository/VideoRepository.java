@@ -1,45 +1,73 @@
 package com.project.unitube.repository;
 
+import static com.project.unitube.Unitube.context;
+
 import android.content.Context;
 import android.util.Log;
 
 import androidx.lifecycle.LiveData;
 import androidx.lifecycle.MutableLiveData;
+import androidx.paging.PagingData;
 
 import com.project.unitube.Room.Dao.VideoDao;
 import com.project.unitube.Room.Database.AppDB;
+import com.project.unitube.entities.OfflineVideo;
+import com.project.unitube.entities.UploadJob;
 import com.project.unitube.entities.Video;
+import com.project.unitube.entities.VideoSummary;
 import com.project.unitube.network.objectAPI.VideoAPI;
-import com.project.unitube.utils.helper.VideoUploadRequest;
+import com.project.unitube.work.OfflineDownloads;
+import com.project.unitube.work.UploadQueue;
 
-import java.io.File;
-import java.util.LinkedList;
 import java.util.List;
 
 public class VideoRepository {
-    private VideoListData videoListData;
+    // Shared by every repository so identical loads from different screens run once
+    private static final SingleFlight<String, Video> videoByIdFlights = new SingleFlight<>();
+
     private VideoAPI videoAPI;
 
     public VideoRepository() {
-        videoListData = new VideoListData();
-        videoAPI = new VideoAPI(videoListData);
+        videoAPI = new VideoAPI();
+    }
+
+    public LiveData<PagingData<VideoSummary>> getVideoFeed() {
+        return videoAPI.getVideoFeed();
+    }
+
+    public void searchVideos(String query, MutableLiveData<List<VideoSummary>> results) {
+        videoAPI.searchVideos(query, results);
     }
 
-    public LiveData<List<Video>> getAllVideos() {
-        return videoListData;
+    public void cancelSearch() {
+        videoAPI.cancelSearch();
     }
 
     public LiveData<Video> getVideoByID(int userId, int id) {
         //Log.d("VideoRepository", "Fetching video with UserID: " + userId + " and VideoID: " + id);
-        return videoAPI.getVideoByID(userId, id);
+        // The server answers per user, so a load for another user is not shared
+        return videoByIdFlights.run(userId + "/" + id,
+                (target, done) -> videoAPI.getVideoByID(userId, id, target, done));
+    }
+
+    public LiveData<UploadJob> enqueueUpload(UploadJob job) {
+        return UploadQueue.getInstance(context).enqueue(job);
+    }
+
+    public void downloadVideo(int videoId, String title, String url) {
+        OfflineDownloads.getInstance(context).download(videoId, title, url);
     }
 
-    public LiveData<Video> uploadVideo(String userName, VideoUploadRequest request, File videoFile, File thumbnailFile) {
-        Log.d("uploadVideo", "VideoRepository- Uploading video for user: " + userName);
-        Log.d("uploadVideo", "VideoRepository- Video upload request: " + request);
-        Log.d("uploadVideo", "VideoRepository- Video file path: " + videoFile.getPath());
-        Log.d("uploadVideo", "VideoRepository- Thumbnail file path: " + thumbnailFile.getPath());
-        return videoAPI.uploadVideo(userName, request, videoFile, thumbnailFile);
+    public LiveData<OfflineVideo> getOfflineVideo(int videoId) {
+        return OfflineDownloads.getInstance(context).observe(videoId);
+    }
+
+    public LiveData<List<VideoSummary>> getRecommendations(int videoId, String userName) {
+        return RecommendationEngine.getInstance(context).getRecommendations(videoId, userName);
+    }
+
+    public void markWatched(int videoId) {
+        OfflineDownloads.getInstance(context).markWatched(videoId);
     }
 
     public LiveData<Video> toggleLike(int videoId, String userName) {
@@ -62,28 +90,7 @@ public class VideoRepository {
         return videoAPI.deleteVideo(userName, videoId);
     }
 
-    public LiveData<List<Video>> getUserVideos(String username) {
+    public LiveData<List<VideoSummary>> getUserVideos(String username) {
         return videoAPI.getUserVideos(username);
     }
-
-    public LiveData<Integer> getHighestVideoId() {
-        return videoAPI.getHighestVideoId();
-    }
-
-    class VideoListData extends MutableLiveData<List<Video>> {
-        public VideoListData() {
-            super();
-            setValue(new LinkedList<Video>());
-        }
-
-        @Override
-        protected void onActive() {
-            super.onActive();
-            VideoAPI videoAPI = new VideoAPI(this);
-            videoAPI.getAllVideos();
-            /*new Thread(() -> {
-                videoListData.postValue(videoDao.getAllVideos());
-            }).start();*/
-        }
-    }
-}
\ No newline at end of file
+}
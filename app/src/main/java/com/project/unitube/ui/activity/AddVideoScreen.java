@@ -16,6 +16,7 @@ import android.provider.MediaStore;
 import android.text.TextUtils;
 import android.util.Log;
 import android.widget.Button;
+import android.widget.CheckBox;
 import android.widget.EditText;
 import android.widget.ImageView;
 import android.widget.TextView;
@@ -30,24 +31,24 @@ import androidx.lifecycle.ViewModelProvider;
 
 import com.project.unitube.R;
 import com.project.unitube.entities.Videos;
-import com.project.unitube.utils.helper.VideoUploadRequest;
+import com.project.unitube.entities.UploadJob;
+import com.project.unitube.utils.helper.MediaUris;
 import com.project.unitube.utils.manager.UserManager;
+import com.project.unitube.utils.transcode.VideoTranscoder;
 import com.project.unitube.entities.Video;
 import com.project.unitube.viewmodel.VideoViewModel;
 
 import java.io.File;
-import java.io.FileOutputStream;
 import java.io.IOException;
-import java.io.InputStream;
 import java.text.SimpleDateFormat;
 import java.util.Date;
 import java.util.Locale;
-import java.util.concurrent.TimeUnit;
 
 public class AddVideoScreen extends AppCompatActivity {
     private EditText videoTitle;
     private EditText videoDescription;
     private TextView videoUri;
+    private CheckBox compressVideoCheckBox;
     private Button uploadThumbnailButton;
     private Button uploadVideoButton;
     private Button addVideoButton;
@@ -85,6 +86,7 @@ public class AddVideoScreen extends AppCompatActivity {
         videoTitle = findViewById(R.id.videoTitle);
         videoDescription = findViewById(R.id.videoDescription);
         videoUri = findViewById(R.id.videoUri);
+        compressVideoCheckBox = findViewById(R.id.compressVideoCheckBox);
 
         // Initialize Buttons
         uploadThumbnailButton = findViewById(R.id.uploadVideoCoverButton);
@@ -155,55 +157,67 @@ public class AddVideoScreen extends AppCompatActivity {
 
             Uri selectedVideoUri = getSelectedVideoUri();
             Uri selectedThumbnailUri = getSelectedThumbnailUri();
-            String duration = getVideoDuration(selectedVideoUri);
+            boolean compress = compressVideoCheckBox.isChecked();
+            // A compressed upload reads the duration while transcoding
+            String duration = compress ? null : getVideoDuration(selectedVideoUri);
 
             // Log selected thumbnail URI
             Log.d("createAndAddVideo", "Selected thumbnail URI: " + selectedThumbnailUri);
 
             VideoViewModel videoViewModel = new ViewModelProvider(this).get(VideoViewModel.class);
-            videoViewModel.getHighestVideoId().observe(this, highestId -> {
-                if (highestId != null) {
-
-                    // Create a VideoUploadRequest with the next video ID
-                    int nextVideoId = highestId + 1;
-                    VideoUploadRequest request = new VideoUploadRequest(
-                            nextVideoId,
-                            videoTitle.getText().toString(),
-                            videoDescription.getText().toString(),
-                            new SimpleDateFormat("yyyy-MM-dd HH:mm:ss", Locale.getDefault()).format(new Date()),
-                            duration,
-                            UserManager.getInstance().getCurrentUser().getProfilePicture()
-                    );
-
-                    // Convert URIs to File objects
-                    File videoFile = new File(selectedVideoUri.getPath());
-                    File thumbnailFile = new File(selectedThumbnailUri.getPath());
-
-                    // Show the progress dialog before starting the upload process
-                    progressDialog = new ProgressDialog(this);
+
+            // The uploader streams both URIs; the server assigns the video ID when the upload completes
+            UploadJob job = new UploadJob(
+                    UserManager.getInstance().getCurrentUser().getUserName(),
+                    videoTitle.getText().toString(),
+                    videoDescription.getText().toString(),
+                    new SimpleDateFormat("yyyy-MM-dd HH:mm:ss", Locale.getDefault()).format(new Date()),
+                    duration,
+                    UserManager.getInstance().getCurrentUser().getProfilePicture(),
+                    selectedVideoUri.toString(),
+                    selectedThumbnailUri.toString()
+            );
+            job.setCompress(compress);
+
+            // Show the upload progress; dismissing the dialog leaves the upload running in the background
+            progressDialog = new ProgressDialog(this);
+            progressDialog.setMessage(compress ? "Compressing video..." : "Uploading video...");
+            progressDialog.setProgressStyle(ProgressDialog.STYLE_HORIZONTAL);
+            progressDialog.setMax(100);
+            progressDialog.setCancelable(true); // enable dismiss by tapping outside of the dialog
+            progressDialog.setOnCancelListener(dialog -> {
+                Toast.makeText(this, "Upload continues in the background", Toast.LENGTH_SHORT).show();
+                setResult(RESULT_OK);
+                finish();
+            });
+            progressDialog.show();
+
+            // Queue the video for the background uploader and follow its progress
+            videoViewModel.enqueueUpload(job).observe(this, uploadJob -> {
+                if (uploadJob == null) {
+                    return;
+                }
+                if (UploadJob.STATE_TRANSCODING.equals(uploadJob.getState())) {
+                    progressDialog.setMessage("Compressing video...");
+                    progressDialog.setProgress(uploadJob.getTranscodeProgress());
+                    return;
+                }
+                if (UploadJob.STATE_UPLOADING.equals(uploadJob.getState())) {
                     progressDialog.setMessage("Uploading video...");
-                    progressDialog.setCancelable(true); // enable dismiss by tapping outside of the dialog
-                    progressDialog.show();
-
-                    // Call the uploadVideo method of VideoViewModel
-                    videoViewModel.uploadVideo(UserManager.getInstance().getCurrentUser().getUserName(), request, videoFile, thumbnailFile)
-                            .observe(this, uploadedVideo -> {
-                                if (uploadedVideo != null) {
-                                    // Log success
-                                    Log.d("createAndAddVideo", "Video uploaded successfully with ID: " + uploadedVideo.getId());
-                                    Toast.makeText(this, "Video uploaded successfully", Toast.LENGTH_SHORT).show();
-                                    setResult(RESULT_OK);
-                                    finish();
-                                } else {
-                                    // Log failure
-                                    Log.e("createAndAddVideo", "Error uploading video");
-                                    Toast.makeText(this, "Error uploading video", Toast.LENGTH_SHORT).show();
-                                }
-                            });
-                } else {
-                    // Log failure to fetch highest video ID
-                    Log.e("createAndAddVideo", "Error fetching highest video ID");
-                    Toast.makeText(this, "Error fetching highest video ID", Toast.LENGTH_SHORT).show();
+                }
+                progressDialog.setProgress(uploadJob.getProgress());
+                if (UploadJob.STATE_DONE.equals(uploadJob.getState())) {
+                    Log.d("createAndAddVideo", "Video uploaded successfully with ID: " + uploadJob.getVideoId());
+                    Toast.makeText(this, "Video uploaded successfully", Toast.LENGTH_SHORT).show();
+                    progressDialog.dismiss();
+                    setResult(RESULT_OK);
+                    finish();
+                } else if (UploadJob.STATE_FAILED.equals(uploadJob.getState())) {
+                    Log.e("createAndAddVideo", "Error uploading video: " + uploadJob.getError());
+                    Toast.makeText(this, "Error uploading video", Toast.LENGTH_SHORT).show();
+                    progressDialog.dismiss();
+                } else if (UploadJob.STATE_QUEUED.equals(uploadJob.getState()) && uploadJob.getError() != null) {
+                    progressDialog.setMessage("Connection lost, waiting to retry...");
                 }
             });
         } catch (IOException e) {
@@ -262,9 +276,10 @@ public class AddVideoScreen extends AppCompatActivity {
     }
 
     private void pickThumbnailFromGallery() {
-        Intent intent = new Intent();
+        // A document URI can keep its read grant until the background upload reads it
+        Intent intent = new Intent(Intent.ACTION_OPEN_DOCUMENT);
+        intent.addCategory(Intent.CATEGORY_OPENABLE);
         intent.setType("image/*");
-        intent.setAction(Intent.ACTION_GET_CONTENT);
         startActivityForResult(Intent.createChooser(intent, "Select Picture"), PICK_IMAGE_REQUEST);
     }
 
@@ -317,51 +332,21 @@ public class AddVideoScreen extends AppCompatActivity {
             selectedThumbnailUri = data.getData();
             thumbnailImageView.setImageURI(selectedThumbnailUri);
             thumbnailImageView.setTag(selectedThumbnailUri.toString());
-            saveImageFromUri(selectedThumbnailUri);
+            keepThumbnailReadable();
         } else if (requestCode == CAPTURE_IMAGE_REQUEST) {
             if (selectedThumbnailUri != null) {
                 thumbnailImageView.setImageURI(selectedThumbnailUri);
                 thumbnailImageView.setTag(selectedThumbnailUri.toString());
-                saveImageFromUri(selectedThumbnailUri);
             } else {
             Toast.makeText(this, "Failed to capture image", Toast.LENGTH_SHORT).show();
             }
         }
     }
 
-    private File saveUriToFile(Uri uri, String filePrefix, String fileExtension) throws IOException {
-        InputStream inputStream = getContentResolver().openInputStream(uri);
-        File file = createTempFile(filePrefix, fileExtension);
-        FileOutputStream outputStream = new FileOutputStream(file);
-        byte[] buffer = new byte[1024];
-        int length;
-        while ((length = inputStream.read(buffer)) > 0) {
-            outputStream.write(buffer, 0, length);
-        }
-        outputStream.close();
-        inputStream.close();
-        return file;
-    }
-
-    private File createTempFile(String prefix, String suffix) throws IOException {
-        File storageDir = getExternalFilesDir(Environment.DIRECTORY_PICTURES);
-        return File.createTempFile(prefix, suffix, storageDir);
-    }
-
-    private void saveImageFromUri(Uri uri) {
-        String timeStamp = new SimpleDateFormat("yyyyMMdd_HHmmss", Locale.getDefault()).format(new Date());
-        String imageFileName = "JPEG_" + timeStamp + "_thumbnail.jpg";  // Unique filename
-        File imageFile = new File(getExternalFilesDir(Environment.DIRECTORY_PICTURES), imageFileName);
-
-        try (InputStream inputStream = getContentResolver().openInputStream(uri);
-             FileOutputStream outputStream = new FileOutputStream(imageFile)) {
-            byte[] buffer = new byte[1024];
-            int length;
-            while ((length = inputStream.read(buffer)) > 0) {
-                outputStream.write(buffer, 0, length);
-            }
-            this.selectedThumbnailUri = Uri.parse(imageFile.getAbsolutePath());
-            Toast.makeText(this, "Image saved successfully", Toast.LENGTH_SHORT).show();
+    // The upload runs after this screen is gone, so the picked thumbnail must stay readable
+    private void keepThumbnailReadable() {
+        try {
+            selectedThumbnailUri = MediaUris.keepReadable(this, selectedThumbnailUri, "JPEG_", "_thumbnail.jpg");
         } catch (IOException e) {
             e.printStackTrace();
             Toast.makeText(this, "Failed to save image", Toast.LENGTH_SHORT).show();
@@ -372,18 +357,12 @@ public class AddVideoScreen extends AppCompatActivity {
         if (resultCode == Activity.RESULT_OK) {
             try {
                 if (requestCode == PICK_VIDEO_REQUEST && data != null && data.getData() != null) {
-                    selectedVideoUri = data.getData();
-                    // Save the video to a file
-                    File videoFile = saveUriToFile(selectedVideoUri, "VID_", ".mp4");
-                    selectedVideoUri = Uri.fromFile(videoFile);
+                    // Keep the content URI, the uploader streams it without a copy
+                    selectedVideoUri = MediaUris.keepReadable(this, data.getData(), "VID_", ".mp4");
+                    this.videoUri.setText(selectedVideoUri.toString());
+                } else if (requestCode == CAPTURE_VIDEO_REQUEST && data != null && data.getData() != null) {
+                    selectedVideoUri = MediaUris.keepReadable(this, data.getData(), "VID_", ".mp4");
                     this.videoUri.setText(selectedVideoUri.toString());
-                } else if (requestCode == CAPTURE_VIDEO_REQUEST) {
-                    selectedVideoUri = data.getData();
-                    File videoFile = saveUriToFile(selectedVideoUri, "VID_", ".mp4");
-                    selectedVideoUri = Uri.fromFile(videoFile);
-                    if (selectedVideoUri != null) {
-                        this.videoUri.setText(selectedVideoUri.toString());
-                    }
                 }
             } catch (IOException e) {
                 e.printStackTrace();
@@ -441,7 +420,7 @@ public class AddVideoScreen extends AppCompatActivity {
             retriever.setDataSource(this, videoUri);
             String time = retriever.extractMetadata(MediaMetadataRetriever.METADATA_KEY_DURATION);
             long durationInMillis = Long.parseLong(time);
-            return formatDuration(durationInMillis);
+            return VideoTranscoder.formatDuration(durationInMillis);
         } catch (Exception e) {
             e.printStackTrace();
             Log.e("VideoDurationError", "Error retrieving video duration", e);
@@ -451,18 +430,6 @@ public class AddVideoScreen extends AppCompatActivity {
         }
     }
 
-    private String formatDuration(long durationInMillis) {
-        long hours = TimeUnit.MILLISECONDS.toHours(durationInMillis);
-        long minutes = TimeUnit.MILLISECONDS.toMinutes(durationInMillis) - TimeUnit.HOURS.toMinutes(hours);
-        long seconds = TimeUnit.MILLISECONDS.toSeconds(durationInMillis) - TimeUnit.MINUTES.toSeconds(TimeUnit.MILLISECONDS.toMinutes(durationInMillis));
-
-        if (hours > 0) {
-            return String.format("%02d:%02d:%02d", hours, minutes, seconds);
-        } else {
-            return String.format("%02d:%02d", minutes, seconds);
-        }
-    }
-
     public Uri getSelectedThumbnailUri() {
         return selectedThumbnailUri;
     }
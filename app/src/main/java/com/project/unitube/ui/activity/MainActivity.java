@@ -27,6 +27,7 @@ import androidx.core.content.FileProvider;
 import androidx.drawerlayout.widget.DrawerLayout;
 import androidx.core.view.GravityCompat;
 import androidx.lifecycle.ViewModelProvider;
+import androidx.paging.PagingData;
 import androidx.recyclerview.widget.LinearLayoutManager;
 import androidx.recyclerview.widget.RecyclerView;
 
@@ -36,13 +37,15 @@ import com.google.android.material.navigation.NavigationView;
 import com.project.unitube.Room.Dao.CommentDao;
 import com.project.unitube.Room.Database.AppDB;
 import com.project.unitube.network.RetroFit.RetrofitClient;
+import com.project.unitube.utils.FrameTimeMonitor;
 import com.project.unitube.utils.helper.DarkModeHelper;
 import com.project.unitube.utils.helper.NavigationHelper;
 import com.project.unitube.R;
 import com.project.unitube.utils.manager.UserManager;
+import com.project.unitube.utils.player.PlayerPool;
 import com.project.unitube.ui.adapter.VideoAdapter;
 import com.project.unitube.entities.User;
-import com.project.unitube.entities.Video;
+import com.project.unitube.entities.VideoSummary;
 import com.project.unitube.viewmodel.CommentViewModel;
 import com.project.unitube.viewmodel.UserViewModel;
 import com.project.unitube.viewmodel.VideoViewModel;
@@ -50,14 +53,10 @@ import com.project.unitube.viewmodel.VideoViewModel;
 import static com.project.unitube.utils.VideoInteractionHandler.updateDate;
 
 import java.io.File;
-import java.io.FileOutputStream;
 import java.io.IOException;
-import java.io.InputStream;
 import java.text.SimpleDateFormat;
 import java.util.Date;
-import java.util.List;
 import java.util.Locale;
-import java.util.stream.Collectors;
 
 public class MainActivity extends AppCompatActivity {
 
@@ -128,6 +127,11 @@ public class MainActivity extends AppCompatActivity {
         // Set the adapter for the RecyclerView using the global videos list
         videoAdapter = new VideoAdapter(this);
         videoRecyclerView.setAdapter(videoAdapter);
+        videoAdapter.attachPreloader(videoRecyclerView);
+        // Logs frame times of each fling in debug builds
+        FrameTimeMonitor.attach(this, videoRecyclerView, "feed");
+        // Have a player ready before the first row is touched
+        PlayerPool.getInstance(this).preallocate();
 
         // Initialize NavigationHelper
         navigationHelper = new NavigationHelper(this, drawerLayout, videoRecyclerView);
@@ -399,14 +403,28 @@ public class MainActivity extends AppCompatActivity {
     }
 
     private void initializeVideosToShow() {
-        videoViewModel.getVideos().observe(this, videos -> {
-            videoAdapter.setVideos(videos);
+        EditText searchBox = findViewById(R.id.search_box);
+
+        // The feed is paged out of Room, so only the first page is loaded before the list renders.
+        // Room emits new pages on every write, which must not replace the results of an active search;
+        // the latest feed is shown again once the box is cleared.
+        videoViewModel.getVideoFeed().observe(this, pagingData -> {
+            if (searchBox.getText().toString().trim().isEmpty()) {
+                videoAdapter.submitData(getLifecycle(), pagingData);
+            }
         });
-        videoViewModel.getVideos();
     }
 
     private void initializeSearchFunctionality() {
         EditText searchBox = findViewById(R.id.search_box);
+
+        // Results of every query arrive here, the feed is shown again once the box is cleared
+        videoViewModel.getSearchResults().observe(this, results -> {
+            if (!searchBox.getText().toString().trim().isEmpty()) {
+                videoAdapter.setVideos(results);
+            }
+        });
+
         searchBox.addTextChangedListener(new TextWatcher() {
             @Override
             public void beforeTextChanged(CharSequence s, int start, int count, int after) {
@@ -426,21 +444,14 @@ public class MainActivity extends AppCompatActivity {
     }
 
     private void filterVideos(String query) {
-        videoViewModel.getVideos().observe(this, videos -> {
-            List<Video> filteredVideos;
-            if (query.isEmpty()) {
-                filteredVideos = videos;
-            } else {
-                String lowerCaseQuery = query.toLowerCase();
-                filteredVideos = videos.stream()
-                        .filter(video ->
-                                video.getTitle().toLowerCase().contains(lowerCaseQuery) ||
-                                        video.getDescription().toLowerCase().contains(lowerCaseQuery) ||
-                                        video.getUploader().toLowerCase().contains(lowerCaseQuery))
-                        .collect(Collectors.toList());
+        videoViewModel.setSearchQuery(query);
+        if (query.trim().isEmpty()) {
+            // Go back to the paged feed
+            PagingData<VideoSummary> feed = videoViewModel.getVideoFeed().getValue();
+            if (feed != null) {
+                videoAdapter.submitData(getLifecycle(), feed);
             }
-            videoAdapter.setVideos(filteredVideos);
-        });
+        }
     }
 
     @Override
@@ -449,8 +460,6 @@ public class MainActivity extends AppCompatActivity {
         updateGreetingUser();
         updateProfilePhotoPresent();
         initLoginSignOutButton();
-        initializeVideosToShow(); // Ensure the videos list is updated
-        videoAdapter.notifyDataSetChanged(); // Refresh the adapter
         InitDeleteAndEditAccountButtons();
     }
 
@@ -537,19 +546,16 @@ public class MainActivity extends AppCompatActivity {
     public void handleActivityResult(int requestCode, int resultCode, Intent data) {
 
         if (requestCode == ADD_VIDEO_REQUEST && resultCode == RESULT_OK) {
-            // Refresh the video list when a new video is added
-            initializeVideosToShow();
-            videoAdapter.notifyDataSetChanged();
+            // Refresh the feed from its first page when a new video is added
+            videoAdapter.refresh();
         }
         if (requestCode == CAPTURE_IMAGE_REQUEST && resultCode == RESULT_OK) {
             editDialogprofileImageView.setImageURI(editDialogSelectedPhotoUri);
-            saveImageFromUri(editDialogSelectedPhotoUri);
         }
         if (requestCode == PICK_IMAGE_REQUEST && resultCode == RESULT_OK && data != null) {
             editDialogSelectedPhotoUri = data.getData(); // Get the URI from the result
             editDialogprofileImageView.setImageURI(editDialogSelectedPhotoUri);
             editDialogprofileImageView.setTag(editDialogSelectedPhotoUri.toString());
-            saveImageFromUri(editDialogSelectedPhotoUri); // Call the method to save the image
         }
     }
 
@@ -607,26 +613,6 @@ public class MainActivity extends AppCompatActivity {
         return image;
     }
 
-    private void saveImageFromUri(Uri uri) {
-        String timeStamp = new SimpleDateFormat("yyyyMMdd_HHmmss", Locale.getDefault()).format(new Date());
-        String imageFileName = "JPEG_" + timeStamp + "_profile.jpg";  // Unique filename
-        File imageFile = new File(getExternalFilesDir(Environment.DIRECTORY_PICTURES), imageFileName);
-
-        try (InputStream inputStream = getContentResolver().openInputStream(uri);
-             FileOutputStream outputStream = new FileOutputStream(imageFile)) {
-            byte[] buffer = new byte[1024];
-            int length;
-            while ((length = inputStream.read(buffer)) > 0) {
-                outputStream.write(buffer, 0, length);
-            }
-            this.editDialogSelectedPhotoUri = Uri.parse(imageFile.getAbsolutePath());
-            Toast.makeText(this, "Image saved successfully", Toast.LENGTH_SHORT).show();
-        } catch (IOException e) {
-            e.printStackTrace();
-            Toast.makeText(this, "Failed to save image", Toast.LENGTH_SHORT).show();
-        }
-    }
-
     public Uri getEditDialogSelectedPhotoUri() {
         return editDialogSelectedPhotoUri;
     }
@@ -31,9 +31,7 @@ import com.project.unitube.entities.User;
 import com.project.unitube.viewmodel.UserViewModel;
 
 import java.io.File;
-import java.io.FileOutputStream;
 import java.io.IOException;
-import java.io.InputStream;
 import java.text.SimpleDateFormat;
 import java.util.Date;
 import java.util.Locale;
@@ -236,12 +234,10 @@ public class RegisterScreen extends AppCompatActivity  {
             selectedPhotoUri = data.getData();
             profileImageView.setImageURI(selectedPhotoUri);
             profileImageView.setTag(selectedPhotoUri.toString());
-            saveImageFromUri(selectedPhotoUri);
         } else if (requestCode == CAPTURE_IMAGE_REQUEST) {
             if (selectedPhotoUri != null) {
                 profileImageView.setImageURI(selectedPhotoUri);
                 profileImageView.setTag(selectedPhotoUri.toString());
-                saveImageFromUri(selectedPhotoUri);
             } else {
                 Toast.makeText(this, "Failed to capture image", Toast.LENGTH_SHORT).show();
             }
@@ -310,26 +306,6 @@ public class RegisterScreen extends AppCompatActivity  {
         return image;
     }
 
-    private void saveImageFromUri(Uri uri) {
-        String timeStamp = new SimpleDateFormat("yyyyMMdd_HHmmss", Locale.getDefault()).format(new Date());
-        String imageFileName = "JPEG_" + timeStamp + "_profile.jpg";  // Unique filename
-        File imageFile = new File(getExternalFilesDir(Environment.DIRECTORY_PICTURES), imageFileName);
-
-        try (InputStream inputStream = getContentResolver().openInputStream(uri);
-             FileOutputStream outputStream = new FileOutputStream(imageFile)) {
-            byte[] buffer = new byte[1024];
-            int length;
-            while ((length = inputStream.read(buffer)) > 0) {
-                outputStream.write(buffer, 0, length);
-            }
-            this.selectedPhotoUri = Uri.parse(imageFile.getAbsolutePath());
-            Toast.makeText(this, "Image saved successfully", Toast.LENGTH_SHORT).show();
-        } catch (IOException e) {
-            e.printStackTrace();
-            Toast.makeText(this, "Failed to save image", Toast.LENGTH_SHORT).show();
-        }
-    }
-
     // Check if camera and storage permissions are granted
     private boolean hasCameraPermission() {
         return ContextCompat.checkSelfPermission(this, Manifest.permission.CAMERA) == PackageManager.PERMISSION_GRANTED;
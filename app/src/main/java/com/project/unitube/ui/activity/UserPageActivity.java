@@ -106,6 +106,7 @@ public class UserPageActivity extends AppCompatActivity {
         // Initialize VideoAdapter
         videoAdapter = new VideoAdapter(this);
         videosRecyclerView.setAdapter(videoAdapter);
+        videoAdapter.attachPreloader(videosRecyclerView);
 
         // Initialize VideoViewModel
         videoViewModel = new ViewModelProvider(this).get(VideoViewModel.class);
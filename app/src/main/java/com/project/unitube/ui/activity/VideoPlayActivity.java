@@ -4,10 +4,12 @@ import android.Manifest;
 import android.annotation.SuppressLint;
 import android.content.Intent;
 import android.content.pm.PackageManager;
+import android.net.Uri;
 import android.os.Bundle;
 import android.os.Handler;
 import android.util.Log;
 import android.view.MotionEvent;
+import android.view.SurfaceView;
 import android.view.View;
 import android.view.ViewGroup;
 import android.widget.EditText;
@@ -16,30 +18,34 @@ import android.widget.ImageView;
 import android.widget.LinearLayout;
 import android.widget.TextView;
 import android.widget.Toast;
-import android.widget.VideoView;
 
 import androidx.appcompat.app.AppCompatActivity;
 import androidx.core.app.ActivityCompat;
 import androidx.core.content.ContextCompat;
+import androidx.lifecycle.LiveData;
 import androidx.lifecycle.ViewModelProvider;
+import androidx.media3.ui.AspectRatioFrameLayout;
 import androidx.recyclerview.widget.LinearLayoutManager;
 import androidx.recyclerview.widget.RecyclerView;
 
 import com.project.unitube.R;
+import com.project.unitube.entities.User;
 import com.project.unitube.entities.Video;
+import com.project.unitube.network.objectAPI.VideoLiveChannel;
 import com.project.unitube.ui.adapter.CommentAdapter;
 import com.project.unitube.ui.adapter.VideoAdapter;
 import com.project.unitube.utils.VideoController;
 import com.project.unitube.utils.VideoInteractionHandler;
 import com.project.unitube.utils.VideoLoader;
 import com.project.unitube.utils.manager.CommentManager;
+import com.project.unitube.utils.manager.UserManager;
 import com.project.unitube.utils.manager.VideoContentManager;
+import com.project.unitube.utils.player.PlayerEngine;
+import com.project.unitube.utils.player.PlayerPool;
 import com.project.unitube.viewmodel.VideoViewModel;
 import com.project.unitube.viewmodel.CommentViewModel;
 
 import java.util.ArrayList;
-import java.util.List;
-import java.util.stream.Collectors;
 
 public class VideoPlayActivity extends AppCompatActivity implements CommentAdapter.CommentAdapterListener {
 
@@ -47,8 +53,11 @@ public class VideoPlayActivity extends AppCompatActivity implements CommentAdapt
     public static final int REQUEST_CODE_READ_EXTERNAL_STORAGE = 1;
 
     private VideoViewModel videoViewModel;
+    private CommentViewModel commentViewModel;
 
-    private VideoView videoView;
+    private SurfaceView videoSurface;
+    private AspectRatioFrameLayout videoFrame;
+    private PlayerEngine playerEngine;
     private TextView titleTextView, descriptionTextView, uploaderNameTextView, likeCountTextView,
             dislikeCountTextView, commentCountTextView, timeIndicator;
     private ImageView uploaderProfileImageView, userProfileImageView;
@@ -59,8 +68,14 @@ public class VideoPlayActivity extends AppCompatActivity implements CommentAdapt
     private View progressPlayed, progressIndicator;
 
     private Video currentVideo;
+    private LiveData<Video> videoDetails;
+    // Set once the screen was set up for the first loaded video
+    private boolean videoBound;
     private VideoContentManager videoContentManager;
     private CommentManager commentManager;
+    private CommentAdapter commentAdapter;
+    private VideoInteractionHandler videoInteractionHandler;
+    private VideoLiveChannel liveChannel;
     private VideoController videoController;
 
     private final Handler handler = new Handler();
@@ -86,7 +101,8 @@ public class VideoPlayActivity extends AppCompatActivity implements CommentAdapt
 
     private void initializeUIComponents() {
         // Initialize all UI components
-        videoView = findViewById(R.id.video_view);
+        videoSurface = findViewById(R.id.video_surface);
+        videoFrame = findViewById(R.id.video_frame);
         titleTextView = findViewById(R.id.video_title);
         descriptionTextView = findViewById(R.id.video_description);
         uploaderProfileImageView = findViewById(R.id.uploaderProfileImage);
@@ -119,39 +135,73 @@ public class VideoPlayActivity extends AppCompatActivity implements CommentAdapt
     private void initializeViewModelAndManagers() {
         // Initialize ViewModel
         videoViewModel = new ViewModelProvider(this).get(VideoViewModel.class);
+        commentViewModel = new ViewModelProvider(this).get(CommentViewModel.class);
 
         // Initialize Managers
         videoContentManager = new VideoContentManager(this, this);
-        videoController = new VideoController(this, videoView, playPauseButton);
+        // Take the player the feed pre-warmed for this video, if any
+        String videoUrl = getIntent().getStringExtra("VIDEO_URL");
+        Uri videoUri = videoUrl != null ? VideoLoader.videoUri(videoUrl) : null;
+        playerEngine = PlayerPool.getInstance(this).acquire(videoUri);
+        playerEngine.setSurfaceView(videoSurface);
+        videoController = new VideoController(this, playerEngine, videoFrame, playPauseButton);
+
+        // Start playing without waiting for the video details
+        if (videoUri != null) {
+            if (playerEngine.getMediaUri() == null) {
+                playerEngine.prepare(videoUri);
+            }
+            videoController.play();
+        }
     }
 
     private void loadVideoFromIntent() {
         Intent intent = getIntent();
         if (intent != null && intent.hasExtra("VIDEO_ID")) {
             int videoId = intent.getIntExtra("VIDEO_ID", -1);
+            initializeLiveChannel(videoId);
+            initializeComments(videoId);
+            observeVideo(videoId);
+        }
+    }
 
-            // Use ViewModel to get video by ID
-            int userId = -1;
-
-            videoViewModel.getVideoByID(userId, videoId).observe(this, video -> {
-                if (video != null) {
-                    currentVideo = video;  // Set the current video once it's loaded
-
-                    // Increment view count
-                    incrementViewCount(videoId);
-
-                    // Call methods to handle video loading and UI updates
-                    loadVideo();
-                    updateVideoData();
-                    initializeVideoInteraction();
-                    initializeRecommendedVideos();
-                    startProgressUpdates();
-                } else {
-                    // Handle case where video is not found
-                    Toast.makeText(this, "Video not found", Toast.LENGTH_SHORT).show();
-                }
-            });
+    /**
+     * Observes the video's details. The memory cache or Room answers first and the server second,
+     * so the screen is set up once for the first video and later ones only refresh what it shows.
+     */
+    private void observeVideo(int videoId) {
+        if (videoDetails != null) {
+            videoDetails.removeObservers(this);
         }
+
+        // Use ViewModel to get video by ID
+        int userId = -1;
+
+        videoDetails = videoViewModel.getVideoByID(userId, videoId);
+        videoDetails.observe(this, video -> {
+            if (video == null) {
+                // Handle case where video is not found
+                Toast.makeText(this, "Video not found", Toast.LENGTH_SHORT).show();
+                return;
+            }
+            currentVideo = video;
+            if (videoBound) {
+                updateVideoDetails(video);
+                videoInteractionHandler.showReactions(video);
+                return;
+            }
+            videoBound = true;
+
+            // Increment view count
+            incrementViewCount(videoId);
+
+            // Call methods to handle video loading and UI updates
+            loadVideo();
+            updateVideoData();
+            initializeVideoInteraction();
+            initializeRecommendedVideos();
+            startProgressUpdates();
+        });
     }
 
     private void incrementViewCount(int videoId) {
@@ -166,44 +216,48 @@ public class VideoPlayActivity extends AppCompatActivity implements CommentAdapt
     }
 
     private void loadVideo() {
-        VideoLoader videoLoader = new VideoLoader(this, videoView, titleTextView, descriptionTextView,
+        VideoLoader videoLoader = new VideoLoader(this, playerEngine, titleTextView, descriptionTextView,
                 uploaderNameTextView, uploaderProfileImageView);
         videoLoader.loadVideo(currentVideo);
+        // Keeps a downloaded copy of this video from being evicted first
+        videoViewModel.markWatched(currentVideo.getId());
 
         // Start playing the video automatically
-        videoView.start();
+        videoController.play();
     }
 
     /**
-     * Updates the UI with the current video's dynamic data such as likes, dislikes, and comments count.
+     * Updates the UI with the current video's dynamic data such as likes and dislikes.
      */
     private void updateVideoData() {
         // Set initial like and dislike counts
         likeCountTextView.setText(String.valueOf(currentVideo.getLikes()));
         dislikeCountTextView.setText(String.valueOf(currentVideo.getDislikes()));
 
+        initializeCommentManager();
+    }
+
+    /**
+     * Sets up the comments list once. The comments only depend on the video ID,
+     * so they start loading before the video's details arrive.
+     */
+    private void initializeComments(int videoId) {
         // Set up the RecyclerView for comments
         commentsRecyclerView.setLayoutManager(new LinearLayoutManager(this));
+        commentAdapter = new CommentAdapter(this, this);
+        commentsRecyclerView.setAdapter(commentAdapter);
 
-        // Use ViewModel to get comments for the current video
-        CommentViewModel commentViewModel = new CommentViewModel();
-        commentViewModel.getCommentsForVideo(currentVideo.getId()).observe(this, comments -> {
-            if (comments != null) {
-                currentVideo.setComments(comments);
-
-                // Set the text of the TextView to display the count in parentheses
-                commentCountTextView.setText("(" + currentVideo.getComments().size() + ")");
-
-                CommentAdapter commentAdapter = new CommentAdapter(this, currentVideo.getComments(), this);
-                commentsRecyclerView.setAdapter(commentAdapter);
+        // Comments are paged in as the expanded comments panel scrolls, so only the newest page loads here
+        commentViewModel.getCommentPages(videoId).observe(this, pagingData ->
+                commentAdapter.submitData(getLifecycle(), pagingData));
 
-                initializeCommentManager();
-            }
-        });
+        // The count comes from the comment pages' X-Total-Count header and from pushed changes
+        commentViewModel.getCommentCount().observe(this, count ->
+                commentCountTextView.setText("(" + count + ")"));
     }
 
     private void initializeVideoInteraction() {
-        new VideoInteractionHandler(
+        videoInteractionHandler = new VideoInteractionHandler(
                 this, // context
                 this, // lifecycleOwner (the activity itself)
                 currentVideo.getId(),
@@ -213,27 +267,46 @@ public class VideoPlayActivity extends AppCompatActivity implements CommentAdapt
                 dislikeCountTextView,
                 videoViewModel
         );
+        videoInteractionHandler.showReactions(currentVideo);
+    }
+
+    /**
+     * Subscribes to the comments and reactions other users post on this video while it is on screen.
+     * The channel is opened in onStart and closed in onStop.
+     */
+    private void initializeLiveChannel(int videoId) {
+        liveChannel = new VideoLiveChannel(this, videoId);
+        liveChannel.getCommentCount().observe(this, commentViewModel::setCommentCount);
+        liveChannel.isConnected().observe(this, commentViewModel::setLiveCount);
+        liveChannel.getReactions().observe(this, video -> {
+            if (videoInteractionHandler != null) {
+                videoInteractionHandler.showReactions(video);
+            }
+        });
+        // Reload what was pushed while the channel was closed
+        liveChannel.setOnResync(() -> {
+            if (commentAdapter != null) {
+                commentAdapter.refresh();
+            }
+            // Fetches the video again for the reactions missed meanwhile
+            observeVideo(videoId);
+        });
     }
 
     private void initializeCommentManager() {
         commentManager = new CommentManager(this, currentVideo, commentEditText, uploadCommentButton,
-                (CommentAdapter) commentsRecyclerView.getAdapter(), currentVideo.getComments(),
-                commentCountTextView, userProfileImageView);
+                commentAdapter, commentViewModel, userProfileImageView);
     }
 
     private void initializeRecommendedVideos() {
         recommendedVideosRecyclerView.setLayoutManager(new LinearLayoutManager(this));
         VideoAdapter videoAdapter = new VideoAdapter(this);
-        videoViewModel.getVideos().observe(this, videos -> {
-            // Filter out the current video
-            List<Video> filteredVideos = videos.stream()
-                    .filter(video -> video.getId() != currentVideo.getId())
-                    .collect(Collectors.toList());
-
-            videoAdapter.setVideos(filteredVideos);
-        });
-        videoViewModel.getVideos();
+        User currentUser = UserManager.getInstance().getCurrentUser();
+        String userName = currentUser != null ? currentUser.getUserName() : null;
+        videoViewModel.getRecommendations(currentVideo.getId(), userName)
+                .observe(this, videoAdapter::setVideos);
         recommendedVideosRecyclerView.setAdapter(videoAdapter);
+        videoAdapter.attachPreloader(recommendedVideosRecyclerView);
     }
 
     private void startProgressUpdates() {
@@ -248,8 +321,8 @@ public class VideoPlayActivity extends AppCompatActivity implements CommentAdapt
     }
 
     @Override
-    public void onCommentDeleted(int newCommentCount) {
-        commentCountTextView.setText("(" + newCommentCount + ")");
+    public void onCommentDeleted() {
+        commentViewModel.adjustCommentCount(-1);
     }
 
     /**
@@ -269,8 +342,8 @@ public class VideoPlayActivity extends AppCompatActivity implements CommentAdapt
      */
     @SuppressLint("SetTextI18n")
     private void updateProgress() {
-        int currentPosition = videoView.getCurrentPosition();
-        int duration = videoView.getDuration();
+        int currentPosition = (int) videoController.getCurrentPosition();
+        int duration = (int) videoController.getDuration();
 
         if (duration > 0) {
             // Update time indicator
@@ -312,12 +385,37 @@ public class VideoPlayActivity extends AppCompatActivity implements CommentAdapt
     }
 
     /**
-     * Removes the update progress action callback when the activity is destroyed.
+     * Listens for other users' comments and reactions while the screen is visible.
+     */
+    @Override
+    protected void onStart() {
+        super.onStart();
+        if (liveChannel != null) {
+            liveChannel.open();
+        }
+    }
+
+    /**
+     * Pauses playback and stops listening for live changes while the screen is not visible.
+     */
+    @Override
+    protected void onStop() {
+        super.onStop();
+        videoController.pause();
+        if (liveChannel != null) {
+            liveChannel.close();
+        }
+    }
+
+    /**
+     * Removes the update progress action callback and returns the player to the pool when the activity is destroyed.
      */
     @Override
     protected void onDestroy() {
         super.onDestroy();
         handler.removeCallbacks(updateProgressAction);
+        videoController.release();
+        PlayerPool.getInstance(this).recycle(playerEngine);
     }
 
     /**
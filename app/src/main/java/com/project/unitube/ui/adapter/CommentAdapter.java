@@ -15,6 +15,8 @@ import android.widget.Toast;
 import androidx.annotation.NonNull;
 import androidx.appcompat.app.AlertDialog;
 import androidx.lifecycle.LifecycleOwner;
+import androidx.paging.PagingDataAdapter;
+import androidx.recyclerview.widget.DiffUtil;
 import androidx.recyclerview.widget.RecyclerView;
 
 import com.bumptech.glide.Glide;
@@ -24,21 +26,31 @@ import com.project.unitube.utils.manager.UserManager;
 import com.project.unitube.entities.Comment;
 import com.project.unitube.viewmodel.CommentViewModel;
 
-import java.util.List;
 
-public class CommentAdapter extends RecyclerView.Adapter<CommentAdapter.CommentViewHolder> {
+public class CommentAdapter extends PagingDataAdapter<Comment, CommentAdapter.CommentViewHolder> {
 
     private Context context;
-    private List<Comment> comments;
     private CommentAdapterListener listener;
 
+    private static final DiffUtil.ItemCallback<Comment> DIFF_CALLBACK = new DiffUtil.ItemCallback<Comment>() {
+        @Override
+        public boolean areItemsTheSame(@NonNull Comment oldItem, @NonNull Comment newItem) {
+            return oldItem.getId().equals(newItem.getId());
+        }
+
+        @Override
+        public boolean areContentsTheSame(@NonNull Comment oldItem, @NonNull Comment newItem) {
+            return oldItem.equals(newItem);
+        }
+    };
+
     public interface CommentAdapterListener {
-        void onCommentDeleted(int newCommentCount);
+        void onCommentDeleted();
     }
 
-    public CommentAdapter(Context context, List<Comment> comments, CommentAdapterListener listener) {
+    public CommentAdapter(Context context, CommentAdapterListener listener) {
+        super(DIFF_CALLBACK);
         this.context = context;
-        this.comments = comments;
         this.listener = listener;
     }
 
@@ -51,7 +63,10 @@ public class CommentAdapter extends RecyclerView.Adapter<CommentAdapter.CommentV
 
     @Override
     public void onBindViewHolder(@NonNull CommentViewHolder holder, int position) {
-        Comment comment = comments.get(position);
+        Comment comment = getItem(position);
+        if (comment == null) {
+            return;
+        }
         holder.commentUserName.setText(comment.getUserName());
         holder.commentContent.setText(comment.getCommentText());
 
@@ -83,7 +98,7 @@ public class CommentAdapter extends RecyclerView.Adapter<CommentAdapter.CommentV
                         }
                         if (item.getItemId() == R.id.action_edit) {
                             // Handle edit action
-                            showEditDialog(adapterPosition, comment);
+                            showEditDialog(comment);
                             return true;
                         } else if (item.getItemId() == R.id.action_delete) {
                             // Show confirmation dialog
@@ -95,13 +110,9 @@ public class CommentAdapter extends RecyclerView.Adapter<CommentAdapter.CommentV
                                         CommentViewModel commentViewModel = new CommentViewModel();
                                         commentViewModel.deleteComment(comment.getId()).observe((LifecycleOwner) context, result -> {
                                             if (result.equals("Success")) {
-                                                // Delete the comment
-                                                comments.remove(adapterPosition);
-                                                notifyItemRemoved(adapterPosition);
-                                                notifyItemRangeChanged(adapterPosition, comments.size());
-                                                // Notify listener about the deletion
+                                                // The row leaves the list once the deletion reaches Room
                                                 if (listener != null) {
-                                                    listener.onCommentDeleted(comments.size());
+                                                    listener.onCommentDeleted();
                                                 }
                                                 Toast.makeText(context, "Comment deleted successfully.", Toast.LENGTH_SHORT).show();
                                             } else {
@@ -122,7 +133,7 @@ public class CommentAdapter extends RecyclerView.Adapter<CommentAdapter.CommentV
         });
     }
 
-    private void showEditDialog(int position, Comment comment) {
+    private void showEditDialog(Comment comment) {
         AlertDialog.Builder builder = new AlertDialog.Builder(context);
         builder.setTitle("Edit Comment");
 
@@ -135,15 +146,17 @@ public class CommentAdapter extends RecyclerView.Adapter<CommentAdapter.CommentV
         builder.setPositiveButton("OK", (dialog, which) -> {
             String newCommentText = input.getText().toString().trim();
             if (!newCommentText.isEmpty()) {
-                comment.setCommentText(newCommentText);
+                // Edit a copy so the diff sees the old and new text as different contents
+                Comment editedComment = new Comment(comment.getVideoId(), comment.getUserName(),
+                        comment.getProfilePicture(), newCommentText);
+                editedComment.setId(comment.getId());
 
                 // Update the comment in the database
                 CommentViewModel commentViewModel = new CommentViewModel();
-                commentViewModel.updateComment(comment).observe((LifecycleOwner) context, result -> {
+                commentViewModel.updateComment(editedComment).observe((LifecycleOwner) context, result -> {
                     if (result.equals("Success")) {
+                        // The row is rebound once the edit reaches Room
                         Toast.makeText(context, "Comment updated successfully.", Toast.LENGTH_SHORT).show();
-                        comment.setCommentText(newCommentText);
-                        notifyItemChanged(position);
                     } else {
                         Toast.makeText(context, "Failed to update comment.", Toast.LENGTH_SHORT).show();
                     }
@@ -157,11 +170,6 @@ public class CommentAdapter extends RecyclerView.Adapter<CommentAdapter.CommentV
         builder.show();
     }
 
-    @Override
-    public int getItemCount() {
-        return comments.size();
-    }
-
     public static class CommentViewHolder extends RecyclerView.ViewHolder {
         ImageView commentUserProfileImage;
         TextView commentUserName;
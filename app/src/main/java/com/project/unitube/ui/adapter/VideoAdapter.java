@@ -5,8 +5,10 @@ import android.content.Intent;
 import android.graphics.Bitmap;
 import android.graphics.drawable.Drawable;
 import android.net.Uri;
-import android.util.Log;
+import android.util.DisplayMetrics;
+import android.util.TypedValue;
 import android.view.LayoutInflater;
+import android.view.MotionEvent;
 import android.view.View;
 import android.view.ViewGroup;
 import android.widget.ImageView;
@@ -16,37 +18,112 @@ import android.widget.Toast;
 import androidx.annotation.NonNull;
 import androidx.annotation.Nullable;
 import androidx.lifecycle.LifecycleOwner;
+import androidx.paging.PagingData;
+import androidx.paging.PagingDataAdapter;
+import androidx.recyclerview.widget.DiffUtil;
 import androidx.recyclerview.widget.RecyclerView;
 
 import com.bumptech.glide.Glide;
+import com.bumptech.glide.ListPreloader;
+import com.bumptech.glide.RequestBuilder;
+import com.bumptech.glide.integration.recyclerview.RecyclerViewPreloader;
 import com.bumptech.glide.load.DataSource;
 import com.bumptech.glide.load.engine.GlideException;
 import com.bumptech.glide.request.RequestListener;
+import com.bumptech.glide.request.RequestOptions;
 import com.bumptech.glide.request.target.Target;
+import com.bumptech.glide.util.FixedPreloadSizeProvider;
 import com.project.unitube.R;
 import com.project.unitube.Unitube;
-import com.project.unitube.entities.Video;
-import com.project.unitube.network.RetroFit.RetrofitClient;
+import com.project.unitube.entities.VideoSummary;
 import com.project.unitube.ui.activity.UserPageActivity;
 import com.project.unitube.ui.activity.VideoPlayActivity;
+import com.project.unitube.utils.VideoLoader;
+import com.project.unitube.utils.helper.ThumbnailSelector;
+import com.project.unitube.utils.player.PlayerPool;
 import com.project.unitube.viewmodel.UserViewModel;
 
-import java.util.ArrayList;
+import java.util.Collections;
 import java.util.List;
 
 import retrofit2.Retrofit;
 
-public class VideoAdapter extends RecyclerView.Adapter<VideoAdapter.VideoViewHolder> {
+public class VideoAdapter extends PagingDataAdapter<VideoSummary, VideoAdapter.VideoViewHolder> {
+    // Rows whose thumbnails are fetched ahead of the scroll
+    private static final int PRELOAD_ROWS = 6;
+    // Sizes from item_video.xml
+    private static final int THUMBNAIL_HEIGHT_DP = 180;
+    private static final int ROW_PADDING_DP = 4;
+    private static final int PROFILE_PICTURE_DP = 40;
+
     private final Context context;
-    private List<Video> videos = new ArrayList<>();
+    // Thumbnails and profile pictures are decoded at the size they are shown at. The preloader
+    // uses the same options, so a preloaded thumbnail is a memory cache hit when its row binds.
+    private final RequestOptions thumbnailOptions;
+    private final RequestOptions profilePictureOptions;
+    private final int thumbnailWidth;
+    private final int thumbnailHeight;
+
+    private static final DiffUtil.ItemCallback<VideoSummary> DIFF_CALLBACK = new DiffUtil.ItemCallback<VideoSummary>() {
+        @Override
+        public boolean areItemsTheSame(@NonNull VideoSummary oldItem, @NonNull VideoSummary newItem) {
+            return oldItem.getId() == newItem.getId();
+        }
 
-    public void setVideos(List<Video> videos) {
-        this.videos = videos;
-        notifyDataSetChanged();
-    }
+        @Override
+        public boolean areContentsTheSame(@NonNull VideoSummary oldItem, @NonNull VideoSummary newItem) {
+            return oldItem.equals(newItem);
+        }
+    };
 
     public VideoAdapter(Context context) {
+        super(DIFF_CALLBACK);
         this.context = context;
+
+        DisplayMetrics metrics = context.getResources().getDisplayMetrics();
+        thumbnailWidth = metrics.widthPixels - 2 * dpToPx(metrics, ROW_PADDING_DP);
+        thumbnailHeight = dpToPx(metrics, THUMBNAIL_HEIGHT_DP);
+        int profilePictureSize = dpToPx(metrics, PROFILE_PICTURE_DP);
+        thumbnailOptions = new RequestOptions()
+                .override(thumbnailWidth, thumbnailHeight)
+                .centerCrop()
+                .placeholder(R.drawable.placeholder_thumbnail)
+                .error(R.drawable.error_thumbnail);
+        profilePictureOptions = new RequestOptions()
+                .override(profilePictureSize)
+                .circleCrop()
+                .placeholder(R.drawable.default_profile)
+                .error(R.drawable.error_profile);
+    }
+
+    /**
+     * Starts fetching the thumbnails of the rows below the visible ones while the list scrolls.
+     */
+    public void attachPreloader(RecyclerView recyclerView) {
+        ListPreloader.PreloadModelProvider<String> modelProvider = new ListPreloader.PreloadModelProvider<String>() {
+            @NonNull
+            @Override
+            public List<String> getPreloadItems(int position) {
+                // peek does not make the pager load more pages, unlike getItem
+                VideoSummary video = position < getItemCount() ? peek(position) : null;
+                return video == null ? Collections.emptyList() : Collections.singletonList(thumbnailUrl(video));
+            }
+
+            @Nullable
+            @Override
+            public RequestBuilder<?> getPreloadRequestBuilder(@NonNull String url) {
+                return Glide.with(context).load(url).apply(thumbnailOptions);
+            }
+        };
+        recyclerView.addOnScrollListener(new RecyclerViewPreloader<>(Glide.with(context), modelProvider,
+                new FixedPreloadSizeProvider<>(thumbnailWidth, thumbnailHeight), PRELOAD_ROWS));
+    }
+
+    /**
+     * Shows a fixed list (search results, recommendations, a user's videos) instead of the paged feed.
+     */
+    public void setVideos(List<VideoSummary> videos) {
+        submitData(((LifecycleOwner) context).getLifecycle(), PagingData.from(videos));
     }
 
     @NonNull
@@ -58,51 +135,76 @@ public class VideoAdapter extends RecyclerView.Adapter<VideoAdapter.VideoViewHol
 
     @Override
     public void onBindViewHolder(@NonNull VideoViewHolder holder, int position) {
-        Video video = videos.get(position);
+        VideoSummary video = getItem(position);
+        if (video == null) {
+            return;
+        }
 
         setTextViews(holder, video);
-        String thumbnailUrl = video.getThumbnailUrl();
-        if (!thumbnailUrl.startsWith("https://")) {
-            thumbnailUrl = RetrofitClient.getBaseUrl() + thumbnailUrl;
-        }
-        Log.d("loadThumbnail", "Loading '" + video.getTitle() + "' thumbnail: " + video.getThumbnailUrl());
-        loadThumbnail(holder.videoThumbnail, thumbnailUrl);
+        loadThumbnail(holder.videoThumbnail, thumbnailUrl(video));
         loadProfilePicture(holder.uploaderProfileImage, video.getProfilePicture());
         setClickListeners(holder, video);
     }
 
-    private void setTextViews(VideoViewHolder holder, Video video) {
+    private void setTextViews(VideoViewHolder holder, VideoSummary video) {
         holder.videoTitle.setText(video.getTitle());
         holder.videoUploader.setText(video.getUploader());
         holder.videoUploadDate.setText(video.getUploadDate());
         holder.videoDuration.setText(video.getDuration());
     }
 
+    // The smallest server variant that fills the thumbnail view on this screen
+    private String thumbnailUrl(VideoSummary video) {
+        return ThumbnailSelector.select(video.getThumbnails(), video.getThumbnailUrl(), thumbnailWidth, thumbnailHeight);
+    }
+
     private void loadThumbnail(ImageView imageView, String thumbnailUrl) {
         Glide.with(context)
                 .load(thumbnailUrl)
-                .placeholder(R.drawable.placeholder_thumbnail)
-                .error(R.drawable.error_thumbnail)
+                .apply(thumbnailOptions)
                 .into(imageView);
     }
 
     private void loadProfilePicture(ImageView imageView, String profilePicture) {
         Glide.with(context)
                 .load(profilePicture)
-                .placeholder(R.drawable.default_profile)
-                .error(R.drawable.error_profile)
-                .circleCrop()
+                .apply(profilePictureOptions)
                 .into(imageView);
     }
 
-    private void setClickListeners(VideoViewHolder holder, Video video) {
-        holder.itemView.setOnClickListener(v -> openVideoPlayActivity(video.getId()));
+    private static int dpToPx(DisplayMetrics metrics, int dp) {
+        return Math.round(TypedValue.applyDimension(TypedValue.COMPLEX_UNIT_DIP, dp, metrics));
+    }
+
+    private void setClickListeners(VideoViewHolder holder, VideoSummary video) {
+        holder.itemView.setOnClickListener(v -> openVideoPlayActivity(video));
+        holder.itemView.setOnTouchListener((v, event) -> {
+            prewarm(video, event);
+            // Not consumed, the click listener still handles the tap
+            return false;
+        });
         holder.uploaderProfileImage.setOnClickListener(v -> openUserPageActivity(video.getUploader()));
     }
 
-    private void openVideoPlayActivity(int videoId) {
+    // Starts preparing the video as soon as its row is pressed, a tap takes ~100 ms to become a click.
+    // If the press turns into a scroll, the pre-warm is dropped.
+    private void prewarm(VideoSummary video, MotionEvent event) {
+        if (video.getUrl() == null) {
+            return;
+        }
+        PlayerPool playerPool = PlayerPool.getInstance(context);
+        if (event.getActionMasked() == MotionEvent.ACTION_DOWN) {
+            playerPool.prewarm(VideoLoader.videoUri(video.getUrl()));
+        } else if (event.getActionMasked() == MotionEvent.ACTION_CANCEL) {
+            playerPool.cancelPrewarm(VideoLoader.videoUri(video.getUrl()));
+        }
+    }
+
+    private void openVideoPlayActivity(VideoSummary video) {
         Intent intent = new Intent(context, VideoPlayActivity.class);
-        intent.putExtra("VIDEO_ID", videoId);
+        intent.putExtra("VIDEO_ID", video.getId());
+        // Lets the screen start playing the pre-warmed player before the video details load
+        intent.putExtra("VIDEO_URL", video.getUrl());
         context.startActivity(intent);
     }
 
@@ -118,11 +220,6 @@ public class VideoAdapter extends RecyclerView.Adapter<VideoAdapter.VideoViewHol
             }
         });
     }
-    @Override
-    public int getItemCount() {
-        return videos.size(); // Using the filtered list size
-    }
-
     public static class VideoViewHolder extends RecyclerView.ViewHolder {
         ImageView videoThumbnail;
         TextView videoTitle;
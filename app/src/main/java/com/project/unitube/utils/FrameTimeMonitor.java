@@ -0,0 +1,148 @@
+package com.project.unitube.utils;
+
+import android.content.pm.ApplicationInfo;
+import android.os.Handler;
+import android.os.HandlerThread;
+import android.util.Log;
+import android.view.FrameMetrics;
+import android.view.Window;
+
+import androidx.activity.ComponentActivity;
+import androidx.annotation.NonNull;
+import androidx.lifecycle.DefaultLifecycleObserver;
+import androidx.lifecycle.LifecycleOwner;
+import androidx.recyclerview.widget.RecyclerView;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Locale;
+
+/**
+ * FrameTimeMonitor measures frame times while a list is scrolled and logs a summary when it stops:
+ * frame count, 50th/90th/99th percentile frame time and the number of frames over the 60 Hz budget.
+ * It only runs in debuggable builds, so it can be left attached to the feed.
+ * The monitor and its thread go away with the activity.
+ */
+public class FrameTimeMonitor extends RecyclerView.OnScrollListener
+        implements Window.OnFrameMetricsAvailableListener, DefaultLifecycleObserver {
+
+    private static final String TAG = "FrameTimeMonitor";
+    private static final long FRAME_BUDGET_NANOS = 16_666_667;
+
+    private final String name;
+    private final Window window;
+    private final RecyclerView recyclerView;
+    private final HandlerThread thread = new HandlerThread(TAG);
+    // Frame durations of the current scroll, in nanoseconds
+    private final List<Long> frames = new ArrayList<>();
+    private boolean scrolling;
+    private volatile Summary lastSummary;
+
+    private FrameTimeMonitor(String name, Window window, RecyclerView recyclerView) {
+        this.name = name;
+        this.window = window;
+        this.recyclerView = recyclerView;
+    }
+
+    /**
+     * Starts logging frame times of the activity's window whenever recyclerView scrolls,
+     * until the activity is destroyed. Does nothing in release builds.
+     *
+     * @return The monitor, or null in release builds
+     */
+    public static FrameTimeMonitor attach(ComponentActivity activity, RecyclerView recyclerView, String name) {
+        if ((activity.getApplicationInfo().flags & ApplicationInfo.FLAG_DEBUGGABLE) == 0) {
+            return null;
+        }
+        FrameTimeMonitor monitor = new FrameTimeMonitor(name, activity.getWindow(), recyclerView);
+        monitor.thread.start();
+        monitor.window.addOnFrameMetricsAvailableListener(monitor, new Handler(monitor.thread.getLooper()));
+        recyclerView.addOnScrollListener(monitor);
+        activity.getLifecycle().addObserver(monitor);
+        return monitor;
+    }
+
+    /**
+     * Summary of the last scroll that ended, or null if none has.
+     */
+    public Summary getLastSummary() {
+        return lastSummary;
+    }
+
+    @Override
+    public void onDestroy(@NonNull LifecycleOwner owner) {
+        owner.getLifecycle().removeObserver(this);
+        recyclerView.removeOnScrollListener(this);
+        window.removeOnFrameMetricsAvailableListener(this);
+        thread.quitSafely();
+    }
+
+    @Override
+    public void onScrollStateChanged(@NonNull RecyclerView recyclerView, int newState) {
+        boolean nowScrolling = newState != RecyclerView.SCROLL_STATE_IDLE;
+        synchronized (frames) {
+            if (scrolling && !nowScrolling) {
+                report();
+                frames.clear();
+            }
+            scrolling = nowScrolling;
+        }
+    }
+
+    @Override
+    public void onFrameMetricsAvailable(Window window, FrameMetrics frameMetrics, int dropCountSinceLastInvocation) {
+        synchronized (frames) {
+            if (scrolling) {
+                frames.add(frameMetrics.getMetric(FrameMetrics.TOTAL_DURATION));
+            }
+        }
+    }
+
+    private void report() {
+        if (frames.isEmpty()) {
+            return;
+        }
+        List<Long> sorted = new ArrayList<>(frames);
+        Collections.sort(sorted);
+        int janky = 0;
+        for (long frame : sorted) {
+            if (frame > FRAME_BUDGET_NANOS) {
+                janky++;
+            }
+        }
+        Summary summary = new Summary(sorted.size(), percentile(sorted, 50), percentile(sorted, 90),
+                percentile(sorted, 99), sorted.get(sorted.size() - 1) / 1_000_000.0, janky);
+        lastSummary = summary;
+        Log.i(TAG, String.format(Locale.US,
+                "%s: %d frames, p50 %.1f ms, p90 %.1f ms, p99 %.1f ms, %d over budget (%.1f%%)",
+                name, summary.frameCount, summary.p50Ms, summary.p90Ms, summary.p99Ms,
+                janky, janky * 100f / summary.frameCount));
+    }
+
+    private static double percentile(List<Long> sorted, int percentile) {
+        int index = Math.min(sorted.size() - 1, sorted.size() * percentile / 100);
+        return sorted.get(index) / 1_000_000.0;
+    }
+
+    /**
+     * Frame times of one scroll, in milliseconds.
+     */
+    public static class Summary {
+        public final int frameCount;
+        public final double p50Ms;
+        public final double p90Ms;
+        public final double p99Ms;
+        public final double maxMs;
+        public final int overBudgetCount;
+
+        Summary(int frameCount, double p50Ms, double p90Ms, double p99Ms, double maxMs, int overBudgetCount) {
+            this.frameCount = frameCount;
+            this.p50Ms = p50Ms;
+            this.p90Ms = p90Ms;
+            this.p99Ms = p99Ms;
+            this.maxMs = maxMs;
+            this.overBudgetCount = overBudgetCount;
+        }
+    }
+}
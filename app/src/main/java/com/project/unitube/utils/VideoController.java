@@ -2,48 +2,107 @@ package com.project.unitube.utils;
 
 import android.content.Context;
 import android.os.Handler;
+import android.util.Log;
 import android.view.GestureDetector;
 import android.view.MotionEvent;
 import android.view.View;
 import android.widget.ImageButton;
-import android.widget.VideoView;
+import android.widget.Toast;
+
+import androidx.annotation.OptIn;
+import androidx.media3.common.util.UnstableApi;
+import androidx.media3.ui.AspectRatioFrameLayout;
 
 import com.project.unitube.R;
+import com.project.unitube.utils.player.PlaybackMetrics;
+import com.project.unitube.utils.player.PlayerEngine;
+
+@OptIn(markerClass = UnstableApi.class)
+public class VideoController implements PlayerEngine.Listener {
+    private static final String TAG = "VideoController";
 
-public class VideoController {
     private Context context;
-    private VideoView videoView;
+    private PlayerEngine playerEngine;
+    private AspectRatioFrameLayout videoFrame;
     private ImageButton playPauseButton;
-    private boolean isPlaying = true;
     private Handler handler;
     private GestureDetector gestureDetector;
 
-    public VideoController(Context context, VideoView videoView, ImageButton playPauseButton) {
+    public VideoController(Context context, PlayerEngine playerEngine, AspectRatioFrameLayout videoFrame,
+                           ImageButton playPauseButton) {
         this.context = context;
-        this.videoView = videoView;
+        this.playerEngine = playerEngine;
+        this.videoFrame = videoFrame;
         this.playPauseButton = playPauseButton;
         handler = new Handler();
         initialize();
     }
 
     private void initialize() {
+        playerEngine.setListener(this);
         playPauseButton.setOnClickListener(v -> togglePlayPause());
         setupGestureDetector();
         scheduleHide();
     }
 
+    public void play() {
+        playerEngine.play();
+    }
+
+    public void pause() {
+        playerEngine.pause();
+    }
+
+    public long getCurrentPosition() {
+        return playerEngine.getCurrentPosition();
+    }
+
+    public long getDuration() {
+        return playerEngine.getDuration();
+    }
+
+    public PlaybackMetrics getMetrics() {
+        return playerEngine.getMetrics();
+    }
+
+    /**
+     * Stops listening to the player. Called when the screen is destroyed;
+     * the player itself belongs to the player pool.
+     */
+    public void release() {
+        handler.removeCallbacksAndMessages(null);
+        playerEngine.setListener(null);
+    }
+
     private void togglePlayPause() {
-        if (isPlaying) {
-            videoView.pause();
-            playPauseButton.setImageResource(R.drawable.ic_play);
+        if (playerEngine.isPlaying()) {
+            playerEngine.pause();
         } else {
-            videoView.start();
-            playPauseButton.setImageResource(R.drawable.ic_pause);
+            playerEngine.play();
         }
-        isPlaying = !isPlaying;
         scheduleHide();
     }
 
+    @Override
+    public void onReady() {
+        Log.d(TAG, "Video ready");
+    }
+
+    @Override
+    public void onPlayingChanged(boolean playing) {
+        playPauseButton.setImageResource(playing ? R.drawable.ic_pause : R.drawable.ic_play);
+    }
+
+    @Override
+    public void onVideoSizeChanged(int width, int height, float pixelWidthHeightRatio) {
+        videoFrame.setAspectRatio(width * pixelWidthHeightRatio / height);
+    }
+
+    @Override
+    public void onError(Exception error) {
+        Toast.makeText(context, "Could not play this video", Toast.LENGTH_SHORT).show();
+    }
+
     private void setupGestureDetector() {
         gestureDetector = new GestureDetector(context, new GestureDetector.SimpleOnGestureListener() {
             @Override
@@ -67,4 +126,4 @@ public class VideoController {
         handler.removeCallbacksAndMessages(null);
         handler.postDelayed(() -> playPauseButton.setVisibility(View.GONE), 3000); // Hide after 3 seconds
     }
-}
\ No newline at end of file
+}
@@ -15,6 +15,7 @@ import android.widget.Toast;
 import androidx.lifecycle.LifecycleOwner;
 
 import com.project.unitube.R;
+import com.project.unitube.entities.OfflineVideo;
 import com.project.unitube.entities.Videos;
 import com.project.unitube.utils.manager.UserManager;
 import com.project.unitube.entities.User;
@@ -35,6 +36,7 @@ public class VideoInteractionHandler {
     private Video currentVideo;
     private VideoViewModel videoViewModel;
     private LifecycleOwner lifecycleOwner;
+    private String pendingReaction;  // picked by the user and shown, not yet confirmed by the server
 
     public static boolean updateDate = false;
 
@@ -53,22 +55,21 @@ public class VideoInteractionHandler {
         this.dislikeIcon = dislikeButton.findViewById(R.id.icon_dislike);
         this.videoViewModel = videoViewModel;
 
-        fetchVideoDetails();
+        observeReactionResults();
         setupInteractionListeners();
         setupOtherButtons();
     }
 
-    private void fetchVideoDetails() {
-        videoViewModel.getVideoByID(-1, videoId).observe(lifecycleOwner, video -> {
-            if (video != null) {
-                currentVideo = video;
-                updateButtonIcons();
-                updateLikeDislikeCounts();
-            } else {
-                // Handle the case where video is null (error case)
-                Toast.makeText(context, "Error: Unable to fetch video details", Toast.LENGTH_SHORT).show();
-            }
-        });
+    /**
+     * Shows the likes and dislikes of the video, as loaded by the screen
+     * or after another user's reaction was pushed.
+     */
+    public void showReactions(Video video) {
+        if (video.getId() != videoId) {
+            return;
+        }
+        currentVideo = video;
+        updateLikeDislikeCounts();
     }
 
     private void setupInteractionListeners() {
@@ -96,29 +97,47 @@ public class VideoInteractionHandler {
     }
 
     private void toggleLike(String userName) {
-        videoViewModel.toggleLike(currentVideo.getId(), userName).observe(lifecycleOwner, result -> {
-            if (result != null) {
-                currentVideo = result;
-                updateButtonIcons();
-                updateLikeDislikeCounts();
-            } else {
-                showToast("Failed to update like status.");
-            }
-        });
+        boolean liked = VideoViewModel.REACTION_LIKE.equals(shownReaction(userName));
+        react(userName, liked ? VideoViewModel.REACTION_NONE : VideoViewModel.REACTION_LIKE);
     }
 
     private void toggleDislike(String userName) {
-        videoViewModel.toggleDislike(currentVideo.getId(), userName).observe(lifecycleOwner, result -> {
-            if (result != null) {
-                currentVideo = result;
-                updateButtonIcons();
-                updateLikeDislikeCounts();
-            } else {
-                showToast("Failed to update dislike status.");
+        boolean disliked = VideoViewModel.REACTION_DISLIKE.equals(shownReaction(userName));
+        react(userName, disliked ? VideoViewModel.REACTION_NONE : VideoViewModel.REACTION_DISLIKE);
+    }
+
+    /**
+     * Shows the picked reaction right away and hands it to the ViewModel, which sends
+     * only the last of a burst of taps. The server's answer replaces it once it settles.
+     */
+    private void react(String userName, String reaction) {
+        pendingReaction = reaction;
+        updateLikeDislikeCounts();
+        videoViewModel.setReaction(currentVideo, userName, reaction);
+    }
+
+    private void observeReactionResults() {
+        // A result from before this screen was created was already shown
+        VideoViewModel.ReactionResult shown = videoViewModel.getReactionResults().getValue();
+        videoViewModel.getReactionResults().observe(lifecycleOwner, result -> {
+            if (result == null || result == shown || result.getVideo().getId() != videoId) {
+                return;
+            }
+            // On failure this is the video the server last confirmed, which rolls the buttons back
+            pendingReaction = null;
+            currentVideo = result.getVideo();
+            updateLikeDislikeCounts();
+            if (result.isFailed()) {
+                showToast("Failed to update your reaction.");
             }
         });
     }
 
+    // The reaction picked but not yet confirmed, otherwise the one the server has
+    private String shownReaction(String userName) {
+        return pendingReaction != null ? pendingReaction : VideoViewModel.reactionOf(currentVideo, userName);
+    }
+
     private void setupOtherButtons() {
         // Initialize download button
         View downloadButton = ((VideoPlayActivity) context).findViewById(R.id.button_download);
@@ -131,8 +150,29 @@ public class VideoInteractionHandler {
 
         // Set click listener for the download button
         downloadButton.setOnClickListener(v -> {
-            // Show standard toast message
-            Toast.makeText(context, "Download.", Toast.LENGTH_SHORT).show();
+            if (currentVideo == null) {
+                return;
+            }
+            String url = VideoLoader.videoUri(currentVideo.getUrl()).toString();
+            videoViewModel.downloadVideo(currentVideo.getId(), currentVideo.getTitle(), url);
+            showToast("Downloading for offline viewing.");
+        });
+
+        // Show the state of the offline copy on the button
+        videoViewModel.getOfflineVideo(videoId).observe(lifecycleOwner, offlineVideo -> {
+            if (offlineVideo == null) {
+                downloadText.setText("Download");
+            } else if (OfflineVideo.STATE_DONE.equals(offlineVideo.getState())) {
+                downloadText.setText("Downloaded");
+            } else if (OfflineVideo.STATE_FAILED.equals(offlineVideo.getState())) {
+                // Only report a failure seen while the download was running on this screen
+                if (downloadText.getText().toString().startsWith("Downloading")) {
+                    showToast("Download failed: " + offlineVideo.getError());
+                }
+                downloadText.setText("Download");
+            } else {
+                downloadText.setText("Downloading " + offlineVideo.getProgress() + "%");
+            }
         });
 
         // Initialize share button
@@ -167,8 +207,9 @@ public class VideoInteractionHandler {
         User currentUser = UserManager.getInstance().getCurrentUser();
 
         if (currentVideo != null && currentUser != null) {
-            boolean isLiked = currentVideo.getLikesList().contains(currentUser.getUserName());
-            boolean isDisliked = currentVideo.getDislikesList().contains(currentUser.getUserName());
+            String reaction = shownReaction(currentUser.getUserName());
+            boolean isLiked = VideoViewModel.REACTION_LIKE.equals(reaction);
+            boolean isDisliked = VideoViewModel.REACTION_DISLIKE.equals(reaction);
 
             // Assuming you have appropriate icons for liked, unliked, disliked, and undisliked states
             int likeIconRes = isLiked ? R.drawable.ic_liked : R.drawable.ic_like;
@@ -180,11 +221,27 @@ public class VideoInteractionHandler {
     }
 
     private void updateLikeDislikeCounts() {
-        likeCountTextView.setText(String.valueOf(currentVideo.getLikesList().size()));
-        dislikeCountTextView.setText(String.valueOf(currentVideo.getDislikesList().size()));
+        int likes = currentVideo.getLikesList().size();
+        int dislikes = currentVideo.getDislikesList().size();
+
+        // Move the user's own reaction from the one the server has to the one just picked
+        User currentUser = UserManager.getInstance().getCurrentUser();
+        if (currentUser != null && pendingReaction != null) {
+            String confirmed = VideoViewModel.reactionOf(currentVideo, currentUser.getUserName());
+            likes += count(VideoViewModel.REACTION_LIKE, pendingReaction) - count(VideoViewModel.REACTION_LIKE, confirmed);
+            dislikes += count(VideoViewModel.REACTION_DISLIKE, pendingReaction)
+                    - count(VideoViewModel.REACTION_DISLIKE, confirmed);
+        }
+
+        likeCountTextView.setText(String.valueOf(likes));
+        dislikeCountTextView.setText(String.valueOf(dislikes));
         updateButtonIcons(); // Update button icons
     }
 
+    private static int count(String reaction, String userReaction) {
+        return reaction.equals(userReaction) ? 1 : 0;
+    }
+
     private void showPopupMenu(View anchorView) {
         // Inflate the popup menu layout
         LayoutInflater inflater = LayoutInflater.from(context);
@@ -4,15 +4,14 @@ import android.content.Context;
 import android.net.Uri;
 import android.util.Log;
 import android.widget.ImageView;
-import android.widget.MediaController;
 import android.widget.TextView;
 import android.widget.Toast;
-import android.widget.VideoView;
 
 import com.bumptech.glide.Glide;
 import com.project.unitube.R;
 import com.project.unitube.entities.Video;
 import com.project.unitube.network.RetroFit.RetrofitClient;
+import com.project.unitube.utils.player.PlayerEngine;
 
 import java.io.UnsupportedEncodingException;
 import java.net.URLEncoder;
@@ -20,16 +19,16 @@ import java.net.URLEncoder;
 public class VideoLoader {
 
     private final Context context;
-    private final VideoView videoView;
+    private final PlayerEngine playerEngine;
     private final TextView titleTextView;
     private final TextView descriptionTextView;
     private final TextView uploaderNameTextView;
     private final ImageView uploaderProfileImageView;
 
-    public VideoLoader(Context context, VideoView videoView, TextView titleTextView, TextView descriptionTextView,
+    public VideoLoader(Context context, PlayerEngine playerEngine, TextView titleTextView, TextView descriptionTextView,
                        TextView uploaderNameTextView, ImageView uploaderProfileImageView) {
         this.context = context;
-        this.videoView = videoView;
+        this.playerEngine = playerEngine;
         this.titleTextView = titleTextView;
         this.descriptionTextView = descriptionTextView;
         this.uploaderNameTextView = uploaderNameTextView;
@@ -42,7 +41,7 @@ public class VideoLoader {
         uploaderNameTextView.setText(video.getUploader());
 
         setProfilePicture(video.getProfilePicture());
-        setVideoView(video.getUrl());
+        setVideoSource(video.getUrl());
     }
 
     public void setProfilePicture(String profilePicture){
@@ -55,10 +54,39 @@ public class VideoLoader {
                 .into(uploaderProfileImageView);
     }
 
-    public void setVideoView(String videoPath) {
+    /**
+     * Hands the video to the player. Streams published as HLS or DASH play adaptively,
+     * older uploads are still progressive MP4 downloads.
+     */
+    public void setVideoSource(String videoPath) {
         String TAG = "VideoPlayer";
         Log.d(TAG, "Setting video with path: " + videoPath);
 
+        try {
+            Uri videoUri = videoUri(videoPath);
+            Log.d(TAG, "Full video URL: " + videoUri);
+
+            // A player pre-warmed from the feed is already buffering this video
+            if (videoUri.equals(playerEngine.getMediaUri())) {
+                Log.d(TAG, "Video already preparing");
+                return;
+            }
+
+            // Start buffering, playback starts when the controller plays
+            playerEngine.prepare(videoUri);
+
+            Log.d(TAG, "Video loading initiated");
+        } catch (Exception e) {
+            Log.e(TAG, "Exception in setVideoSource: ", e);
+        }
+    }
+
+    /**
+     * Builds the absolute URL of a video from the path the server stores.
+     * The same URL is the key of the video in the media cache, so players and
+     * offline downloads must both get it from here.
+     */
+    public static Uri videoUri(String videoPath) {
         // Normalize the video path
         videoPath = videoPath.replace("\\", "/");
         if (videoPath.startsWith("/")) {
@@ -67,39 +95,6 @@ public class VideoLoader {
 
         // Construct the full URL
         String API_URL = RetrofitClient.getBaseUrl();
-        String fullVideoUrl = API_URL + videoPath;
-
-        Log.d(TAG, "Full video URL (before encoding): " + fullVideoUrl);
-
-        // Encode the URL properly
-        String encodedUrl = Uri.encode(fullVideoUrl, ":/?#[]@!$&'()*+,;=");
-
-        Log.d(TAG, "Full video URL (after encoding): " + encodedUrl);
-
-        try {
-            // Create Uri object from the full URL
-            Uri videoUri = Uri.parse(fullVideoUrl);
-
-            // Set the video URI to the VideoView
-            videoView.setVideoURI(videoUri);
-
-            // Set up event listeners
-            videoView.setOnPreparedListener(mp -> {
-                Log.d(TAG, "Video prepared, starting playback");
-                videoView.start();
-            });
-
-            videoView.setOnErrorListener((mp, what, extra) -> {
-                Log.e(TAG, "Error playing video. Error code: " + what + ", Extra code: " + extra);
-                return false;
-            });
-
-            // Request focus and start loading the video
-            videoView.requestFocus();
-
-            Log.d(TAG, "Video loading initiated");
-        } catch (Exception e) {
-            Log.e(TAG, "Exception in setVideoView: ", e);
-        }
+        return Uri.parse(API_URL + videoPath);
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,131 @@
+package com.project.unitube.utils.helper;
+
+import android.content.ContentResolver;
+import android.content.Context;
+import android.content.Intent;
+import android.database.Cursor;
+import android.net.Uri;
+import android.os.ParcelFileDescriptor;
+import android.provider.MediaStore;
+import android.provider.OpenableColumns;
+import android.util.Log;
+
+import java.io.File;
+import java.io.FileNotFoundException;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.nio.channels.FileChannel;
+
+/**
+ * Helpers for media picked through content URIs. Uploads read these URIs directly
+ * instead of copying the media into app storage first.
+ */
+public class MediaUris {
+
+    private static final String TAG = "MediaUris";
+    // Bytes handed to transferFrom at a time
+    private static final long COPY_SIZE = 1024 * 1024;
+
+    private MediaUris() {
+    }
+
+    /**
+     * Parses a stored URI. Plain paths from older upload jobs are read as file URIs.
+     */
+    public static Uri parse(String value) {
+        Uri uri = Uri.parse(value);
+        return uri.getScheme() == null ? Uri.fromFile(new File(value)) : uri;
+    }
+
+    /**
+     * @return The size of the media in bytes, or -1 if the provider cannot tell
+     */
+    public static long length(ContentResolver contentResolver, Uri uri) throws IOException {
+        try (ParcelFileDescriptor descriptor = contentResolver.openFileDescriptor(uri, "r")) {
+            if (descriptor == null) {
+                throw new FileNotFoundException("Cannot open " + uri);
+            }
+            return descriptor.getStatSize();
+        }
+    }
+
+    /**
+     * @return true if the media can still be opened for reading
+     */
+    public static boolean isReadable(ContentResolver contentResolver, Uri uri) {
+        try (ParcelFileDescriptor descriptor = contentResolver.openFileDescriptor(uri, "r")) {
+            return descriptor != null;
+        } catch (IOException | SecurityException e) {
+            return false;
+        }
+    }
+
+    /**
+     * Returns the file name the provider shows for the media, used as the multipart file name.
+     */
+    public static String displayName(ContentResolver contentResolver, Uri uri) {
+        if (ContentResolver.SCHEME_CONTENT.equals(uri.getScheme())) {
+            try (Cursor cursor = contentResolver.query(uri, new String[]{OpenableColumns.DISPLAY_NAME},
+                    null, null, null)) {
+                if (cursor != null && cursor.moveToFirst() && !cursor.isNull(0)) {
+                    return cursor.getString(0);
+                }
+            } catch (RuntimeException e) {
+                Log.w(TAG, "Could not query the name of " + uri, e);
+            }
+        }
+        String name = uri.getLastPathSegment();
+        return name != null ? name : "upload";
+    }
+
+    /**
+     * Makes sure a picked URI stays readable after the picking activity is gone, so a background
+     * upload can stream it later. MediaStore URIs stay readable with the storage permission and
+     * document URIs can keep a persistable grant. Any other URI is copied into app storage.
+     *
+     * @return A URI the app can read later
+     * @throws IOException If the media had to be copied and the copy failed
+     */
+    public static Uri keepReadable(Context context, Uri uri, String prefix, String suffix) throws IOException {
+        if (ContentResolver.SCHEME_FILE.equals(uri.getScheme())
+                || MediaStore.AUTHORITY.equals(uri.getAuthority())
+                || isOwnProvider(context, uri)) {
+            return uri;
+        }
+        try {
+            context.getContentResolver().takePersistableUriPermission(uri, Intent.FLAG_GRANT_READ_URI_PERMISSION);
+            return uri;
+        } catch (SecurityException e) {
+            // The grant was not persistable, only a copy outlives it
+        }
+        File file = File.createTempFile(prefix, suffix, context.getExternalFilesDir(null));
+        copy(context.getContentResolver(), uri, file);
+        return Uri.fromFile(file);
+    }
+
+    // URIs of our own FileProvider, such as camera captures, are always readable
+    private static boolean isOwnProvider(Context context, Uri uri) {
+        String authority = uri.getAuthority();
+        return authority != null && authority.startsWith(context.getPackageName());
+    }
+
+    /**
+     * Copies the media into a file through FileChannel.transferFrom, without a Java buffer loop.
+     */
+    public static void copy(ContentResolver contentResolver, Uri uri, File target) throws IOException {
+        ParcelFileDescriptor descriptor = contentResolver.openFileDescriptor(uri, "r");
+        if (descriptor == null) {
+            throw new FileNotFoundException("Cannot open " + uri);
+        }
+        try (ParcelFileDescriptor.AutoCloseInputStream in = new ParcelFileDescriptor.AutoCloseInputStream(descriptor);
+             FileOutputStream out = new FileOutputStream(target)) {
+            FileChannel source = in.getChannel();
+            FileChannel destination = out.getChannel();
+            long position = 0;
+            long transferred;
+            while ((transferred = destination.transferFrom(source, position, COPY_SIZE)) > 0) {
+                position += transferred;
+            }
+        }
+    }
+}
@@ -0,0 +1,85 @@
+package com.project.unitube.utils.helper;
+
+import android.os.Build;
+
+import com.project.unitube.entities.ThumbnailVariant;
+import com.project.unitube.network.RetroFit.RetrofitClient;
+
+import java.util.List;
+
+/**
+ * Picks which thumbnail variant to load into a view. The target size is in pixels, so
+ * the display density is already part of it: a 180dp row asks for 3x the pixels on an
+ * xxhdpi screen. The smallest variant that covers the target is used, and if none does
+ * the largest one is. Among variants of the same size the compressed formats win.
+ */
+public class ThumbnailSelector {
+
+    private ThumbnailSelector() {
+    }
+
+    /**
+     * @param variants  The variants the server listed, may be empty for older videos
+     * @param fallback  The single thumbnail URL, used when there are no decodable variants
+     * @param widthPx   The width of the target view in pixels
+     * @param heightPx  The height of the target view in pixels
+     * @return The absolute URL to load
+     */
+    public static String select(List<ThumbnailVariant> variants, String fallback, int widthPx, int heightPx) {
+        ThumbnailVariant best = null;
+        if (variants != null) {
+            for (ThumbnailVariant variant : variants) {
+                if (variant.getUrl() == null || !canDecode(variant.getFormat())) {
+                    continue;
+                }
+                if (best == null || isBetter(variant, best, widthPx, heightPx)) {
+                    best = variant;
+                }
+            }
+        }
+        return absolute(best != null ? best.getUrl() : fallback);
+    }
+
+    private static boolean isBetter(ThumbnailVariant candidate, ThumbnailVariant best, int widthPx, int heightPx) {
+        boolean candidateCovers = covers(candidate, widthPx, heightPx);
+        boolean bestCovers = covers(best, widthPx, heightPx);
+        if (candidateCovers != bestCovers) {
+            return candidateCovers;
+        }
+        long candidatePixels = (long) candidate.getWidth() * candidate.getHeight();
+        long bestPixels = (long) best.getWidth() * best.getHeight();
+        if (candidatePixels != bestPixels) {
+            // Both cover the view: the smaller one. Neither does: the larger one.
+            return candidateCovers ? candidatePixels < bestPixels : candidatePixels > bestPixels;
+        }
+        return formatRank(candidate.getFormat()) < formatRank(best.getFormat());
+    }
+
+    // centerCrop fills the view, so a variant covers it only if both sides are large enough
+    private static boolean covers(ThumbnailVariant variant, int widthPx, int heightPx) {
+        return variant.getWidth() >= widthPx && variant.getHeight() >= heightPx;
+    }
+
+    // Lower is preferred: smaller files for the same pixels
+    private static int formatRank(String format) {
+        if (ThumbnailVariant.FORMAT_AVIF.equals(format)) {
+            return 0;
+        }
+        if (ThumbnailVariant.FORMAT_WEBP.equals(format)) {
+            return 1;
+        }
+        return 2;
+    }
+
+    private static boolean canDecode(String format) {
+        // AVIF decoding arrived in Android 12, JPEG and WebP decode everywhere
+        return !ThumbnailVariant.FORMAT_AVIF.equals(format) || Build.VERSION.SDK_INT >= Build.VERSION_CODES.S;
+    }
+
+    private static String absolute(String url) {
+        if (url == null || url.startsWith("https://")) {
+            return url;
+        }
+        return RetrofitClient.getBaseUrl() + url;
+    }
+}
@@ -0,0 +1,24 @@
+package com.project.unitube.utils.helper;
+
+import com.project.unitube.entities.Video;
+
+/**
+ * State of a resumable upload as reported by the server.
+ */
+public class UploadSession {
+    private String uploadId;
+    private long offset;   // bytes of the video file the server has stored
+    private Video video;   // the created video, set once the last chunk is stored
+
+    public String getUploadId() {
+        return uploadId;
+    }
+
+    public long getOffset() {
+        return offset;
+    }
+
+    public Video getVideo() {
+        return video;
+    }
+}
@@ -0,0 +1,26 @@
+package com.project.unitube.utils.helper;
+
+import com.project.unitube.entities.Video;
+
+import java.util.List;
+
+/**
+ * Response of api/videos/changes: everything created, edited or deleted after updatedSince.
+ */
+public class VideoChangesResponse {
+    private List<Video> videos;      // created or updated videos
+    private List<Integer> deleted;   // tombstones: ids of deleted videos
+    private long serverTime;         // high-water mark to send as updatedSince next time
+
+    public List<Video> getVideos() {
+        return videos;
+    }
+
+    public List<Integer> getDeleted() {
+        return deleted;
+    }
+
+    public long getServerTime() {
+        return serverTime;
+    }
+}
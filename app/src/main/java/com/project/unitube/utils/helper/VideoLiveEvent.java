@@ -0,0 +1,50 @@
+package com.project.unitube.utils.helper;
+
+import com.project.unitube.entities.Comment;
+
+/**
+ * One change pushed on the live channel of a video (api/videos/{id}/live).
+ * Comment events carry the video's comment count after the change;
+ * reaction events carry the user whose like or dislike changed and their new reaction.
+ */
+public class VideoLiveEvent {
+    public static final String TYPE_COMMENT_ADDED = "comment_added";
+    public static final String TYPE_COMMENT_UPDATED = "comment_updated";
+    public static final String TYPE_COMMENT_DELETED = "comment_deleted";
+    public static final String TYPE_REACTION = "reaction";
+
+    public static final String REACTION_LIKE = "like";
+    public static final String REACTION_DISLIKE = "dislike";
+    public static final String REACTION_NONE = "none";
+
+    private String type;
+    private Comment comment;        // added or updated comment
+    private String commentId;       // deleted comment
+    private Integer commentCount;   // count after a comment change, null if the server left it out
+    private String userName;        // user whose reaction changed
+    private String reaction;        // like, dislike or none
+
+    public String getType() {
+        return type;
+    }
+
+    public Comment getComment() {
+        return comment;
+    }
+
+    public String getCommentId() {
+        return commentId;
+    }
+
+    public Integer getCommentCount() {
+        return commentCount;
+    }
+
+    public String getUserName() {
+        return userName;
+    }
+
+    public String getReaction() {
+        return reaction;
+    }
+}
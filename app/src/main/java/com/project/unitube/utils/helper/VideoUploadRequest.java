@@ -1,7 +1,6 @@
 package com.project.unitube.utils.helper;
 
 public class VideoUploadRequest {
-    private int id;
     private String title;
     private String description;
     private String uploadDate;
@@ -9,8 +8,7 @@ public class VideoUploadRequest {
     private String profilePicture;
 
     // Constructor
-    public VideoUploadRequest(int id, String title, String description, String uploadDate, String duration, String profilePicture) {
-        this.id = id;
+    public VideoUploadRequest(String title, String description, String uploadDate, String duration, String profilePicture) {
         this.title = title;
         this.description = description;
         this.uploadDate = uploadDate;
@@ -19,10 +17,6 @@ public class VideoUploadRequest {
     }
 
     // Getters
-    public int getId() {
-        return id;
-    }
-
     public String getTitle() {
         return title;
     }
@@ -2,11 +2,9 @@ package com.project.unitube.utils.manager;
 
 import android.content.Context;
 import android.net.Uri;
-import android.util.Log;
 import android.widget.EditText;
 import android.widget.ImageButton;
 import android.widget.ImageView;
-import android.widget.TextView;
 import android.widget.Toast;
 
 import androidx.lifecycle.LifecycleOwner;
@@ -22,30 +20,24 @@ import com.project.unitube.ui.adapter.CommentAdapter;
 import com.project.unitube.viewmodel.CommentViewModel;
 import com.project.unitube.viewmodel.UserViewModel;
 
-import java.util.List;
-
 public class CommentManager {
     private Context context;
     private Video currentVideo;
     private EditText commentEditText;
     private ImageButton uploadCommentButton;
     private CommentAdapter commentAdapter;
-    private List<Comment> comments;
-    private TextView commentCountTextView;
     private ImageView userProfileImageView;
     private CommentViewModel commentViewModel;
 
     public CommentManager(Context context, Video currentVideo, EditText commentEditText, ImageButton uploadCommentButton,
-                          CommentAdapter commentAdapter, List<Comment> comments, TextView commentCountTextView, ImageView userProfileImageView) {
+                          CommentAdapter commentAdapter, CommentViewModel commentViewModel, ImageView userProfileImageView) {
         this.context = context;
         this.currentVideo = currentVideo;
         this.commentEditText = commentEditText;
         this.uploadCommentButton = uploadCommentButton;
         this.commentAdapter = commentAdapter;
-        this.comments = comments;
-        this.commentCountTextView = commentCountTextView;
         this.userProfileImageView = userProfileImageView;
-        this.commentViewModel = new CommentViewModel();
+        this.commentViewModel = commentViewModel;
 
         initialize();
     }
@@ -96,26 +88,15 @@ public class CommentManager {
             commentViewModel.createComment(newComment).observe((LifecycleOwner) context, result -> {
                 if (result.equals("Success")) {
                     Toast.makeText(context, "Comment added successfully.", Toast.LENGTH_SHORT).show();
+                    // The new comment is stored in Room when the post returns, which adds it to the list;
+                    // comments by other users arrive on the video's live channel
+                    commentViewModel.adjustCommentCount(1);
                 } else {
                     Toast.makeText(context, "Failed to add comment. Please try again.", Toast.LENGTH_SHORT).show();
                 }
             });
 
-            // fetch all comments including the new one and update the UI
-            commentViewModel.getCommentsForVideo(currentVideo.getId()).observe((LifecycleOwner) context, comments -> {
-                this.comments.clear();
-                this.comments.addAll(comments);
-                commentAdapter.notifyDataSetChanged();
-
-                for (Comment comment : comments) {
-                    Log.d("newCommentManager", "New_comment_id : " + comment.getId() + " new_comment_text: " + comment.getCommentText());
-                }
-            });
-
             commentEditText.setText("");
-
-            // Update the comment count
-            commentCountTextView.setText("(" + comments.size() + ")");
         } else {
             Toast.makeText(context, "Comment cannot be empty.", Toast.LENGTH_SHORT).show();
         }
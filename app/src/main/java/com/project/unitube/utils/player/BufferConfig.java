@@ -0,0 +1,46 @@
+package com.project.unitube.utils.player;
+
+/**
+ * How much media the player keeps buffered ahead of the playback position, in milliseconds.
+ */
+public class BufferConfig {
+
+    // Buffer up to 50 s but start after 1.5 s, so the first frame comes quickly on weak links
+    // and a stall waits for 4 s of media before resuming instead of stalling again right away.
+    public static final BufferConfig DEFAULT = new BufferConfig(15_000, 50_000, 1_500, 4_000);
+
+    private final int minBufferMs;
+    private final int maxBufferMs;
+    private final int bufferForPlaybackMs;
+    private final int bufferForPlaybackAfterRebufferMs;
+
+    /**
+     * @param minBufferMs                      Media the player tries to keep buffered at all times
+     * @param maxBufferMs                      Media buffered at most
+     * @param bufferForPlaybackMs              Media needed to start playback
+     * @param bufferForPlaybackAfterRebufferMs Media needed to resume after running out
+     */
+    public BufferConfig(int minBufferMs, int maxBufferMs, int bufferForPlaybackMs,
+                        int bufferForPlaybackAfterRebufferMs) {
+        this.minBufferMs = minBufferMs;
+        this.maxBufferMs = maxBufferMs;
+        this.bufferForPlaybackMs = bufferForPlaybackMs;
+        this.bufferForPlaybackAfterRebufferMs = bufferForPlaybackAfterRebufferMs;
+    }
+
+    public int getMinBufferMs() {
+        return minBufferMs;
+    }
+
+    public int getMaxBufferMs() {
+        return maxBufferMs;
+    }
+
+    public int getBufferForPlaybackMs() {
+        return bufferForPlaybackMs;
+    }
+
+    public int getBufferForPlaybackAfterRebufferMs() {
+        return bufferForPlaybackAfterRebufferMs;
+    }
+}
@@ -0,0 +1,232 @@
+package com.project.unitube.utils.player;
+
+import android.content.Context;
+import android.net.Uri;
+import android.os.SystemClock;
+import android.util.Log;
+import android.view.SurfaceView;
+
+import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
+import androidx.annotation.OptIn;
+import androidx.media3.common.Format;
+import androidx.media3.common.MediaItem;
+import androidx.media3.common.PlaybackException;
+import androidx.media3.common.Player;
+import androidx.media3.common.VideoSize;
+import androidx.media3.common.util.UnstableApi;
+import androidx.media3.exoplayer.DecoderReuseEvaluation;
+import androidx.media3.exoplayer.DefaultLoadControl;
+import androidx.media3.exoplayer.ExoPlayer;
+import androidx.media3.exoplayer.analytics.AnalyticsListener;
+import androidx.media3.exoplayer.source.DefaultMediaSourceFactory;
+import androidx.media3.exoplayer.trackselection.DefaultTrackSelector;
+import androidx.media3.exoplayer.upstream.DefaultBandwidthMeter;
+
+/**
+ * PlayerEngine backed by ExoPlayer. HLS and DASH manifests are played with adaptive bitrate
+ * selection driven by the measured bandwidth, and the buffer follows a {@link BufferConfig}.
+ * Media is read through {@link MediaCache}, so replays and downloaded videos come from disk.
+ * Playback metrics are collected from the player's analytics events and logged on release.
+ */
+@OptIn(markerClass = UnstableApi.class)
+public class ExoPlayerEngine implements PlayerEngine {
+
+    private static final String TAG = "ExoPlayerEngine";
+
+    private final ExoPlayer player;
+    private PlaybackMetrics metrics = new PlaybackMetrics();
+    @Nullable
+    private Uri mediaUri;
+    @Nullable
+    private Listener listener;
+
+    private long prepareTimeMs;
+    private boolean hasBeenReady;
+    private boolean seeking;
+    // Start of the stall in progress, or -1
+    private long rebufferStartMs = -1;
+
+    public ExoPlayerEngine(Context context, BufferConfig bufferConfig) {
+        DefaultLoadControl loadControl = new DefaultLoadControl.Builder()
+                .setBufferDurationsMs(bufferConfig.getMinBufferMs(), bufferConfig.getMaxBufferMs(),
+                        bufferConfig.getBufferForPlaybackMs(), bufferConfig.getBufferForPlaybackAfterRebufferMs())
+                .build();
+        player = new ExoPlayer.Builder(context)
+                .setLoadControl(loadControl)
+                .setTrackSelector(new DefaultTrackSelector(context))
+                .setBandwidthMeter(DefaultBandwidthMeter.getSingletonInstance(context))
+                .setMediaSourceFactory(new DefaultMediaSourceFactory(
+                        MediaCache.getInstance(context).getPlaybackDataSourceFactory()))
+                .build();
+        player.addListener(playerListener);
+        player.addAnalyticsListener(analyticsListener);
+    }
+
+    @Override
+    public void setListener(Listener listener) {
+        this.listener = listener;
+        // A pooled player may already know its video, tell the new listener about it
+        VideoSize videoSize = player.getVideoSize();
+        if (listener != null && videoSize.width > 0 && videoSize.height > 0) {
+            listener.onVideoSizeChanged(videoSize.width, videoSize.height, videoSize.pixelWidthHeightRatio);
+        }
+    }
+
+    @Override
+    public void setSurfaceView(@Nullable SurfaceView surfaceView) {
+        if (surfaceView != null) {
+            player.setVideoSurfaceView(surfaceView);
+        } else {
+            player.clearVideoSurface();
+        }
+    }
+
+    @Override
+    public void prepare(Uri uri) {
+        mediaUri = uri;
+        prepareTimeMs = SystemClock.elapsedRealtime();
+        hasBeenReady = false;
+        // The media source is picked from the extension: .m3u8 is HLS, .mpd is DASH
+        player.setMediaItem(MediaItem.fromUri(uri));
+        player.prepare();
+    }
+
+    @Nullable
+    @Override
+    public Uri getMediaUri() {
+        return mediaUri;
+    }
+
+    @Override
+    public void play() {
+        player.play();
+    }
+
+    @Override
+    public void pause() {
+        player.pause();
+    }
+
+    @Override
+    public boolean isPlaying() {
+        return player.getPlayWhenReady();
+    }
+
+    @Override
+    public long getCurrentPosition() {
+        return player.getCurrentPosition();
+    }
+
+    @Override
+    public long getDuration() {
+        long duration = player.getDuration();
+        return duration > 0 ? duration : 0;
+    }
+
+    @Override
+    public PlaybackMetrics getMetrics() {
+        return metrics;
+    }
+
+    @Override
+    public void reset() {
+        if (mediaUri != null) {
+            Log.d(TAG, "Playback metrics: " + metrics);
+        }
+        listener = null;
+        player.pause();
+        player.stop();
+        player.clearMediaItems();
+        player.clearVideoSurface();
+        mediaUri = null;
+        metrics = new PlaybackMetrics();
+        seeking = false;
+        rebufferStartMs = -1;
+    }
+
+    @Override
+    public void release() {
+        Log.d(TAG, "Playback metrics: " + metrics);
+        listener = null;
+        player.release();
+    }
+
+    private final Player.Listener playerListener = new Player.Listener() {
+        @Override
+        public void onPlaybackStateChanged(int playbackState) {
+            if (playbackState == Player.STATE_READY && listener != null) {
+                listener.onReady();
+            }
+        }
+
+        @Override
+        public void onPlayWhenReadyChanged(boolean playWhenReady, int reason) {
+            if (listener != null) {
+                listener.onPlayingChanged(playWhenReady);
+            }
+        }
+
+        @Override
+        public void onVideoSizeChanged(@NonNull VideoSize videoSize) {
+            if (listener != null && videoSize.width > 0 && videoSize.height > 0) {
+                listener.onVideoSizeChanged(videoSize.width, videoSize.height, videoSize.pixelWidthHeightRatio);
+            }
+        }
+
+        @Override
+        public void onPlayerError(@NonNull PlaybackException error) {
+            Log.e(TAG, "Playback failed: " + error.getErrorCodeName(), error);
+            if (listener != null) {
+                listener.onError(error);
+            }
+        }
+    };
+
+    private final AnalyticsListener analyticsListener = new AnalyticsListener() {
+        @Override
+        public void onRenderedFirstFrame(@NonNull EventTime eventTime, @NonNull Object output, long renderTimeMs) {
+            if (metrics.getStartupTimeMs() < 0) {
+                metrics.setStartupTimeMs(SystemClock.elapsedRealtime() - prepareTimeMs);
+                Log.d(TAG, "First frame after " + metrics.getStartupTimeMs() + " ms");
+            }
+        }
+
+        @Override
+        public void onPositionDiscontinuity(@NonNull EventTime eventTime, @NonNull Player.PositionInfo oldPosition,
+                                            @NonNull Player.PositionInfo newPosition, int reason) {
+            if (reason == Player.DISCONTINUITY_REASON_SEEK) {
+                seeking = true;
+            }
+        }
+
+        @Override
+        public void onPlaybackStateChanged(@NonNull EventTime eventTime, int state) {
+            long now = SystemClock.elapsedRealtime();
+            if (state == Player.STATE_BUFFERING) {
+                // Buffering before the first frame is startup and buffering after a seek is expected
+                if (hasBeenReady && !seeking) {
+                    rebufferStartMs = now;
+                    metrics.onRebufferStarted();
+                }
+            } else if (state == Player.STATE_READY) {
+                hasBeenReady = true;
+                seeking = false;
+                if (rebufferStartMs >= 0) {
+                    metrics.onRebufferEnded(now - rebufferStartMs);
+                    rebufferStartMs = -1;
+                }
+            }
+        }
+
+        @Override
+        public void onVideoInputFormatChanged(@NonNull EventTime eventTime, @NonNull Format format,
+                                              @Nullable DecoderReuseEvaluation decoderReuseEvaluation) {
+            int bitrate = format.bitrate != Format.NO_VALUE ? format.bitrate : -1;
+            if (bitrate > 0 && bitrate != metrics.getCurrentBitrate()) {
+                Log.d(TAG, "Video bitrate " + bitrate + " at " + format.width + "x" + format.height);
+            }
+            metrics.setCurrentBitrate(bitrate);
+        }
+    };
+}
@@ -0,0 +1,106 @@
+package com.project.unitube.utils.player;
+
+import android.content.Context;
+import android.net.Uri;
+
+import androidx.annotation.OptIn;
+import androidx.media3.common.util.UnstableApi;
+import androidx.media3.database.StandaloneDatabaseProvider;
+import androidx.media3.datasource.DataSource;
+import androidx.media3.datasource.DefaultHttpDataSource;
+import androidx.media3.datasource.cache.CacheDataSource;
+import androidx.media3.datasource.cache.LeastRecentlyUsedCacheEvictor;
+import androidx.media3.datasource.cache.NoOpCacheEvictor;
+import androidx.media3.datasource.cache.SimpleCache;
+import androidx.media3.exoplayer.offline.DefaultDownloaderFactory;
+import androidx.media3.exoplayer.offline.DownloadRequest;
+import androidx.media3.exoplayer.offline.Downloader;
+
+import java.io.File;
+
+/**
+ * MediaCache holds the two on-disk caches video bytes are read through.
+ * The stream cache keeps whatever was played, bounded and evicted least recently used first,
+ * so replays are read from disk. The offline cache holds downloaded videos and never evicts
+ * by itself; what stays in it is decided by the OfflineVideo table and its storage budget.
+ * Playback reads the offline cache first, then the stream cache, then the network.
+ */
+@OptIn(markerClass = UnstableApi.class)
+public class MediaCache {
+
+    private static final String STREAM_CACHE_DIR = "media";
+    private static final String OFFLINE_CACHE_DIR = "offline";
+    private static final long STREAM_CACHE_BYTES = 256L * 1024 * 1024;
+
+    // Singleton instance of the MediaCache
+    private static volatile MediaCache INSTANCE;
+
+    private final SimpleCache streamCache;
+    private final SimpleCache offlineCache;
+    private final DataSource.Factory playbackDataSourceFactory;
+    private final DefaultDownloaderFactory downloaderFactory;
+
+    private MediaCache(Context context) {
+        StandaloneDatabaseProvider databaseProvider = new StandaloneDatabaseProvider(context);
+        // The stream cache can be cleared by the system, offline videos must survive that
+        streamCache = new SimpleCache(new File(context.getCacheDir(), STREAM_CACHE_DIR),
+                new LeastRecentlyUsedCacheEvictor(STREAM_CACHE_BYTES), databaseProvider);
+        offlineCache = new SimpleCache(new File(context.getFilesDir(), OFFLINE_CACHE_DIR),
+                new NoOpCacheEvictor(), databaseProvider);
+
+        DataSource.Factory httpDataSourceFactory = new DefaultHttpDataSource.Factory()
+                .setAllowCrossProtocolRedirects(true);
+        CacheDataSource.Factory streamDataSourceFactory = new CacheDataSource.Factory()
+                .setCache(streamCache)
+                .setUpstreamDataSourceFactory(httpDataSourceFactory)
+                .setFlags(CacheDataSource.FLAG_IGNORE_CACHE_ON_ERROR);
+        // Offline videos are only read during playback, downloads are what writes them
+        playbackDataSourceFactory = new CacheDataSource.Factory()
+                .setCache(offlineCache)
+                .setUpstreamDataSourceFactory(streamDataSourceFactory)
+                .setCacheWriteDataSinkFactory(null);
+
+        // A download reuses what the stream cache already has without adding to it
+        CacheDataSource.Factory streamReadOnlyFactory = new CacheDataSource.Factory()
+                .setCache(streamCache)
+                .setUpstreamDataSourceFactory(httpDataSourceFactory)
+                .setCacheWriteDataSinkFactory(null);
+        CacheDataSource.Factory downloadDataSourceFactory = new CacheDataSource.Factory()
+                .setCache(offlineCache)
+                .setUpstreamDataSourceFactory(streamReadOnlyFactory);
+        downloaderFactory = new DefaultDownloaderFactory(downloadDataSourceFactory, Runnable::run);
+    }
+
+    /**
+     * Returns the singleton instance of the MediaCache.
+     *
+     * @param context The application context
+     * @return The singleton instance of the MediaCache
+     */
+    public static MediaCache getInstance(Context context) {
+        if (INSTANCE == null) {
+            synchronized (MediaCache.class) {
+                if (INSTANCE == null) {
+                    INSTANCE = new MediaCache(context.getApplicationContext());
+                }
+            }
+        }
+        return INSTANCE;
+    }
+
+    /**
+     * Data sources for the player, reading through both caches.
+     */
+    public DataSource.Factory getPlaybackDataSourceFactory() {
+        return playbackDataSourceFactory;
+    }
+
+    /**
+     * Creates a downloader that stores the video at url in the offline cache.
+     * HLS and DASH streams are downloaded with their manifests, progressive videos as one file.
+     */
+    public Downloader createDownloader(String url) {
+        DownloadRequest request = new DownloadRequest.Builder(url, Uri.parse(url)).build();
+        return downloaderFactory.createDownloader(request);
+    }
+}
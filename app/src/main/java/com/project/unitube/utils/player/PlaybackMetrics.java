@@ -0,0 +1,68 @@
+package com.project.unitube.utils.player;
+
+/**
+ * Quality of experience of one playback: how long it took to show the first frame,
+ * how often and how long it stalled, and how often adaptive streaming changed bitrate.
+ */
+public class PlaybackMetrics {
+
+    private long startupTimeMs = -1;
+    private int rebufferCount;
+    private long rebufferTimeMs;
+    private int bitrateSwitches;
+    private int currentBitrate = -1;
+
+    /**
+     * @return The time from prepare to the first rendered frame, or -1 before it is rendered
+     */
+    public long getStartupTimeMs() {
+        return startupTimeMs;
+    }
+
+    /**
+     * @return How many times playback stalled to buffer, not counting startup and seeks
+     */
+    public int getRebufferCount() {
+        return rebufferCount;
+    }
+
+    public long getRebufferTimeMs() {
+        return rebufferTimeMs;
+    }
+
+    public int getBitrateSwitches() {
+        return bitrateSwitches;
+    }
+
+    /**
+     * @return The bitrate of the video being decoded in bits per second, or -1 if unknown
+     */
+    public int getCurrentBitrate() {
+        return currentBitrate;
+    }
+
+    void setStartupTimeMs(long startupTimeMs) {
+        this.startupTimeMs = startupTimeMs;
+    }
+
+    void onRebufferStarted() {
+        rebufferCount++;
+    }
+
+    void onRebufferEnded(long durationMs) {
+        rebufferTimeMs += durationMs;
+    }
+
+    void setCurrentBitrate(int bitrate) {
+        if (currentBitrate > 0 && bitrate > 0 && bitrate != currentBitrate) {
+            bitrateSwitches++;
+        }
+        currentBitrate = bitrate;
+    }
+
+    @Override
+    public String toString() {
+        return "startup " + startupTimeMs + " ms, " + rebufferCount + " rebuffers (" + rebufferTimeMs + " ms), "
+                + bitrateSwitches + " bitrate switches, bitrate " + currentBitrate;
+    }
+}
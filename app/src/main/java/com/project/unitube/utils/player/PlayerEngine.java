@@ -0,0 +1,70 @@
+package com.project.unitube.utils.player;
+
+import android.net.Uri;
+import android.view.SurfaceView;
+
+/**
+ * PlayerEngine is what the video screen plays through. It hides the player library,
+ * so {@link com.project.unitube.utils.VideoController} only deals with play, pause,
+ * position and the playback metrics.
+ * All methods must be called on the main thread.
+ */
+public interface PlayerEngine {
+
+    /**
+     * Callbacks from the engine, delivered on the main thread.
+     */
+    interface Listener {
+        void onReady();
+
+        void onPlayingChanged(boolean playing);
+
+        void onVideoSizeChanged(int width, int height, float pixelWidthHeightRatio);
+
+        void onError(Exception error);
+    }
+
+    void setListener(Listener listener);
+
+    /**
+     * Renders into the view, or stops rendering if it is null.
+     */
+    void setSurfaceView(SurfaceView surfaceView);
+
+    /**
+     * Starts loading the media. HLS (.m3u8) and DASH (.mpd) manifests play adaptively,
+     * any other URL is played as a progressive download.
+     */
+    void prepare(Uri uri);
+
+    /**
+     * @return The media last passed to prepare, or null if there is none
+     */
+    Uri getMediaUri();
+
+    void play();
+
+    void pause();
+
+    boolean isPlaying();
+
+    long getCurrentPosition();
+
+    /**
+     * @return The duration in milliseconds, or 0 while it is not known yet
+     */
+    long getDuration();
+
+    PlaybackMetrics getMetrics();
+
+    /**
+     * Stops playback and forgets the media, listener, surface and metrics,
+     * so the engine can be handed to another screen.
+     */
+    void reset();
+
+    /**
+     * Frees the decoders and network connections. The engine cannot be used afterwards.
+     */
+    void release();
+}
@@ -0,0 +1,132 @@
+package com.project.unitube.utils.player;
+
+import android.content.Context;
+import android.net.Uri;
+import android.os.Looper;
+import android.util.Log;
+
+import androidx.annotation.Nullable;
+
+import java.util.ArrayDeque;
+
+/**
+ * PlayerPool keeps players alive between video screens, so opening a video does not pay
+ * for building a player, and lets the feed start preparing a video before its screen opens.
+ * A row that is touched pre-warms a player with its video; if the touch becomes a click, the
+ * video screen takes that player and its first segment is usually buffered by then.
+ * The pool lives for the process and must only be used on the main thread.
+ */
+public class PlayerPool {
+
+    private static final String TAG = "PlayerPool";
+    // Idle players kept for reuse, more are released when returned
+    private static final int MAX_IDLE_PLAYERS = 2;
+
+    // Singleton instance of the PlayerPool
+    private static volatile PlayerPool INSTANCE;
+
+    private final Context context;
+    private final ArrayDeque<PlayerEngine> idlePlayers = new ArrayDeque<>();
+    @Nullable
+    private PlayerEngine warmPlayer;
+
+    private PlayerPool(Context context) {
+        this.context = context.getApplicationContext();
+    }
+
+    /**
+     * Returns the singleton instance of the PlayerPool.
+     *
+     * @param context The application context
+     * @return The singleton instance of the PlayerPool
+     */
+    public static PlayerPool getInstance(Context context) {
+        if (INSTANCE == null) {
+            synchronized (PlayerPool.class) {
+                if (INSTANCE == null) {
+                    INSTANCE = new PlayerPool(context);
+                }
+            }
+        }
+        return INSTANCE;
+    }
+
+    /**
+     * Creates an idle player once the main thread has nothing else to do,
+     * so the first pre-warm does not build one during a touch.
+     */
+    public void preallocate() {
+        Looper.myQueue().addIdleHandler(() -> {
+            if (idlePlayers.isEmpty() && warmPlayer == null) {
+                idlePlayers.push(createPlayer());
+            }
+            return false;
+        });
+    }
+
+    /**
+     * Starts preparing a video that is likely to be opened next. Only one video is pre-warmed
+     * at a time; a previous one that was not taken is stopped.
+     */
+    public void prewarm(Uri uri) {
+        if (warmPlayer != null) {
+            if (uri.equals(warmPlayer.getMediaUri())) {
+                return;
+            }
+            recycle(warmPlayer);
+        }
+        warmPlayer = takeIdle();
+        warmPlayer.prepare(uri);
+        Log.d(TAG, "Pre-warming " + uri);
+    }
+
+    /**
+     * Stops a pre-warm that will not be used, such as when the touch turned into a scroll.
+     */
+    public void cancelPrewarm(Uri uri) {
+        if (warmPlayer != null && uri.equals(warmPlayer.getMediaUri())) {
+            PlayerEngine player = warmPlayer;
+            warmPlayer = null;
+            recycle(player);
+        }
+    }
+
+    /**
+     * Hands out a player for a video screen. If uri is the pre-warmed video, its player is
+     * returned already preparing it; otherwise an idle player is returned.
+     *
+     * @param uri The video about to be played, may be null if not known yet
+     */
+    public PlayerEngine acquire(@Nullable Uri uri) {
+        if (warmPlayer != null && uri != null && uri.equals(warmPlayer.getMediaUri())) {
+            PlayerEngine player = warmPlayer;
+            warmPlayer = null;
+            return player;
+        }
+        return takeIdle();
+    }
+
+    /**
+     * Returns a player to the pool once its screen is done with it.
+     */
+    public void recycle(PlayerEngine player) {
+        if (player == warmPlayer) {
+            warmPlayer = null;
+        }
+        if (idlePlayers.size() < MAX_IDLE_PLAYERS) {
+            player.reset();
+            idlePlayers.push(player);
+        } else {
+            player.release();
+        }
+    }
+
+    private PlayerEngine takeIdle() {
+        PlayerEngine player = idlePlayers.poll();
+        return player != null ? player : createPlayer();
+    }
+
+    private PlayerEngine createPlayer() {
+        return new ExoPlayerEngine(context, BufferConfig.DEFAULT);
+    }
+}
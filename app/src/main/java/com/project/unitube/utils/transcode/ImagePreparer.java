@@ -0,0 +1,142 @@
+package com.project.unitube.utils.transcode;
+
+import android.content.ContentResolver;
+import android.graphics.Bitmap;
+import android.graphics.BitmapFactory;
+import android.graphics.Matrix;
+import android.media.ExifInterface;
+import android.net.Uri;
+import android.util.Log;
+
+import java.io.File;
+import java.io.FileNotFoundException;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+
+/**
+ * ImagePreparer shrinks a picked image before it is uploaded.
+ * The image is decoded with the largest inSampleSize that keeps it above the target size,
+ * rotated upright from its EXIF orientation, scaled to fit the target and re-encoded as JPEG.
+ * The output carries no EXIF, so camera metadata such as location is not uploaded either.
+ * The methods block and must be called off the main thread.
+ */
+public class ImagePreparer {
+
+    private static final String TAG = "ImagePreparer";
+
+    // Profile pictures are shown at most around 100dp, 512px covers the densest screens
+    public static final int PROFILE_PICTURE_SIZE = 512;
+    // Thumbnails fill the feed width at 16:9
+    public static final int THUMBNAIL_WIDTH = 1280;
+    public static final int THUMBNAIL_HEIGHT = 720;
+
+    private static final int JPEG_QUALITY = 82;
+
+    private final ContentResolver contentResolver;
+
+    public ImagePreparer(ContentResolver contentResolver) {
+        this.contentResolver = contentResolver;
+    }
+
+    /**
+     * Writes a copy of the image that fits within maxWidth x maxHeight into output.
+     *
+     * @throws IOException If the image cannot be decoded or written
+     */
+    public File prepare(Uri source, int maxWidth, int maxHeight, File output) throws IOException {
+        BitmapFactory.Options bounds = new BitmapFactory.Options();
+        bounds.inJustDecodeBounds = true;
+        try (InputStream in = open(source)) {
+            BitmapFactory.decodeStream(in, null, bounds);
+        }
+        if (bounds.outWidth <= 0 || bounds.outHeight <= 0) {
+            throw new IOException("Not an image: " + source);
+        }
+
+        int rotation = readRotation(source);
+        // Compare against the size the image is displayed at, after rotation
+        boolean swapped = rotation == 90 || rotation == 270;
+        int width = swapped ? bounds.outHeight : bounds.outWidth;
+        int height = swapped ? bounds.outWidth : bounds.outHeight;
+
+        BitmapFactory.Options options = new BitmapFactory.Options();
+        options.inSampleSize = sampleSize(width, height, maxWidth, maxHeight);
+        Bitmap decoded;
+        try (InputStream in = open(source)) {
+            decoded = BitmapFactory.decodeStream(in, null, options);
+        }
+        if (decoded == null) {
+            throw new IOException("Could not decode " + source);
+        }
+
+        Bitmap prepared = fit(decoded, rotation, maxWidth, maxHeight);
+        String preparedSize = prepared.getWidth() + "x" + prepared.getHeight();
+        try (FileOutputStream out = new FileOutputStream(output)) {
+            if (!prepared.compress(Bitmap.CompressFormat.JPEG, JPEG_QUALITY, out)) {
+                throw new IOException("Could not encode " + source);
+            }
+        } finally {
+            prepared.recycle();
+            if (decoded != prepared) {
+                decoded.recycle();
+            }
+        }
+        Log.d(TAG, "Prepared " + source + " " + width + "x" + height + " -> "
+                + preparedSize + ", " + output.length() + " bytes");
+        return output;
+    }
+
+    // Largest power of two that still leaves the decoded image at least as big as the target
+    private static int sampleSize(int width, int height, int maxWidth, int maxHeight) {
+        int sampleSize = 1;
+        while (width / (sampleSize * 2) >= maxWidth && height / (sampleSize * 2) >= maxHeight) {
+            sampleSize *= 2;
+        }
+        return sampleSize;
+    }
+
+    // Rotates the bitmap upright and scales it down to fit, in one pass
+    private static Bitmap fit(Bitmap bitmap, int rotation, int maxWidth, int maxHeight) {
+        boolean swapped = rotation == 90 || rotation == 270;
+        int width = swapped ? bitmap.getHeight() : bitmap.getWidth();
+        int height = swapped ? bitmap.getWidth() : bitmap.getHeight();
+        float scale = Math.min(1f, Math.min((float) maxWidth / width, (float) maxHeight / height));
+        if (rotation == 0 && scale == 1f) {
+            return bitmap;
+        }
+
+        Matrix matrix = new Matrix();
+        matrix.postRotate(rotation);
+        matrix.postScale(scale, scale);
+        return Bitmap.createBitmap(bitmap, 0, 0, bitmap.getWidth(), bitmap.getHeight(), matrix, true);
+    }
+
+    private int readRotation(Uri source) {
+        try (InputStream in = open(source)) {
+            int orientation = new ExifInterface(in).getAttributeInt(
+                    ExifInterface.TAG_ORIENTATION, ExifInterface.ORIENTATION_NORMAL);
+            switch (orientation) {
+                case ExifInterface.ORIENTATION_ROTATE_90:
+                    return 90;
+                case ExifInterface.ORIENTATION_ROTATE_180:
+                    return 180;
+                case ExifInterface.ORIENTATION_ROTATE_270:
+                    return 270;
+                default:
+                    return 0;
+            }
+        } catch (IOException e) {
+            // Formats without EXIF are already upright
+            return 0;
+        }
+    }
+
+    private InputStream open(Uri source) throws IOException {
+        InputStream in = contentResolver.openInputStream(source);
+        if (in == null) {
+            throw new FileNotFoundException("Cannot open " + source);
+        }
+        return in;
+    }
+}
@@ -0,0 +1,388 @@
+package com.project.unitube.utils.transcode;
+
+import android.content.Context;
+import android.media.MediaCodec;
+import android.media.MediaCodecInfo;
+import android.media.MediaExtractor;
+import android.media.MediaFormat;
+import android.media.MediaMetadataRetriever;
+import android.media.MediaMuxer;
+import android.net.Uri;
+import android.util.Log;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.util.Locale;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * VideoTranscoder re-encodes a video to H.264 at a bounded resolution and bitrate before it is uploaded.
+ * Frames go from the decoder to a GL texture and are drawn onto the encoder's input surface,
+ * which scales them without copying pixels through Java. The audio track is copied as is.
+ * The duration is read from the source in the same pass, so the caller does not need another retriever.
+ * The methods block and must be called off the main thread.
+ */
+public class VideoTranscoder {
+
+    private static final String TAG = "VideoTranscoder";
+
+    private static final String OUTPUT_MIME = MediaFormat.MIMETYPE_VIDEO_AVC;
+    // Shorter side of the output, 720p
+    private static final int MAX_SHORT_SIDE = 720;
+    private static final int TARGET_BITRATE = 2_500_000;
+    private static final int FRAME_RATE = 30;
+    private static final int I_FRAME_INTERVAL_SECONDS = 1;
+    // Sources already within this bitrate at the target size are uploaded untouched
+    private static final int SKIP_BITRATE = TARGET_BITRATE * 3 / 2;
+
+    private static final long TIMEOUT_US = 10_000;
+    private static final int DEFAULT_AUDIO_BUFFER_SIZE = 256 * 1024;
+
+    public interface ProgressListener {
+        /**
+         * Called while the video track is being re-encoded.
+         *
+         * @param percent Percentage of the source duration encoded so far
+         */
+        void onProgress(int percent);
+    }
+
+    /**
+     * The video to upload and what was learned about it.
+     */
+    public static class Result {
+        private final Uri video;
+        private final long durationMs;
+        private final boolean transcoded;
+
+        Result(Uri video, long durationMs, boolean transcoded) {
+            this.video = video;
+            this.durationMs = durationMs;
+            this.transcoded = transcoded;
+        }
+
+        public Uri getVideo() {
+            return video;
+        }
+
+        public long getDurationMs() {
+            return durationMs;
+        }
+
+        /**
+         * @return false if the source was already small enough and is returned as is
+         */
+        public boolean isTranscoded() {
+            return transcoded;
+        }
+    }
+
+    /**
+     * Re-encodes input into output, or returns input unchanged if it is already within the target.
+     *
+     * @throws IOException If the source cannot be read or this device cannot encode it;
+     *                     the caller can still upload the source
+     */
+    public Result transcode(Context context, Uri input, File output, ProgressListener listener) throws IOException {
+        long durationMs;
+        int rotation;
+        int bitrate;
+        MediaMetadataRetriever retriever = new MediaMetadataRetriever();
+        try {
+            retriever.setDataSource(context, input);
+            durationMs = parseLong(retriever.extractMetadata(MediaMetadataRetriever.METADATA_KEY_DURATION));
+            rotation = (int) parseLong(retriever.extractMetadata(MediaMetadataRetriever.METADATA_KEY_VIDEO_ROTATION));
+            bitrate = (int) parseLong(retriever.extractMetadata(MediaMetadataRetriever.METADATA_KEY_BITRATE));
+        } catch (RuntimeException e) {
+            throw new IOException("Cannot read video metadata: " + input, e);
+        } finally {
+            retriever.release();
+        }
+
+        MediaExtractor videoExtractor = new MediaExtractor();
+        MediaExtractor audioExtractor = null;
+        try {
+            videoExtractor.setDataSource(context, input, null);
+            int videoTrack = findTrack(videoExtractor, "video/");
+            if (videoTrack < 0) {
+                throw new IOException("No video track in " + input);
+            }
+            MediaFormat inputFormat = videoExtractor.getTrackFormat(videoTrack);
+            int width = inputFormat.getInteger(MediaFormat.KEY_WIDTH);
+            int height = inputFormat.getInteger(MediaFormat.KEY_HEIGHT);
+
+            int shortSide = Math.min(width, height);
+            if (shortSide <= MAX_SHORT_SIDE && bitrate > 0 && bitrate <= SKIP_BITRATE) {
+                Log.d(TAG, input + " is already " + width + "x" + height + " at " + bitrate + " bps");
+                return new Result(input, durationMs, false);
+            }
+
+            float scale = shortSide > MAX_SHORT_SIDE ? (float) MAX_SHORT_SIDE / shortSide : 1f;
+            int outputWidth = alignTo16(Math.round(width * scale));
+            int outputHeight = alignTo16(Math.round(height * scale));
+            videoExtractor.selectTrack(videoTrack);
+
+            MediaFormat audioFormat = null;
+            audioExtractor = new MediaExtractor();
+            audioExtractor.setDataSource(context, input, null);
+            int audioTrack = findTrack(audioExtractor, "audio/");
+            if (audioTrack >= 0) {
+                audioExtractor.selectTrack(audioTrack);
+                audioFormat = audioExtractor.getTrackFormat(audioTrack);
+            }
+
+            long startTime = System.currentTimeMillis();
+            encode(videoExtractor, inputFormat, audioExtractor, audioFormat, output,
+                    outputWidth, outputHeight, rotation, TimeUnit.MILLISECONDS.toMicros(durationMs), listener);
+            Log.d(TAG, "Transcoded " + input + " " + width + "x" + height + " -> "
+                    + outputWidth + "x" + outputHeight + " (" + output.length() + " bytes) in "
+                    + (System.currentTimeMillis() - startTime) + " ms");
+            return new Result(Uri.fromFile(output), durationMs, true);
+        } catch (IOException | RuntimeException e) {
+            // MediaCodec reports unsupported formats with IllegalStateException subclasses
+            output.delete();
+            throw e instanceof IOException ? (IOException) e : new IOException("Transcoding failed", e);
+        } finally {
+            videoExtractor.release();
+            if (audioExtractor != null) {
+                audioExtractor.release();
+            }
+        }
+    }
+
+    private void encode(MediaExtractor videoExtractor, MediaFormat inputFormat,
+                        MediaExtractor audioExtractor, MediaFormat audioFormat, File output,
+                        int width, int height, int rotation, long durationUs,
+                        ProgressListener listener) throws IOException {
+        MediaFormat outputFormat = MediaFormat.createVideoFormat(OUTPUT_MIME, width, height);
+        outputFormat.setInteger(MediaFormat.KEY_COLOR_FORMAT, MediaCodecInfo.CodecCapabilities.COLOR_FormatSurface);
+        outputFormat.setInteger(MediaFormat.KEY_BIT_RATE, TARGET_BITRATE);
+        outputFormat.setInteger(MediaFormat.KEY_FRAME_RATE, FRAME_RATE);
+        outputFormat.setInteger(MediaFormat.KEY_I_FRAME_INTERVAL, I_FRAME_INTERVAL_SECONDS);
+
+        MediaCodec encoder = null;
+        MediaCodec decoder = null;
+        InputSurface inputSurface = null;
+        OutputSurface outputSurface = null;
+        MediaMuxer muxer = null;
+        boolean muxerStarted = false;
+        try {
+            encoder = MediaCodec.createEncoderByType(OUTPUT_MIME);
+            encoder.configure(outputFormat, null, null, MediaCodec.CONFIGURE_FLAG_ENCODE);
+            inputSurface = new InputSurface(encoder.createInputSurface());
+            inputSurface.makeCurrent();
+            encoder.start();
+
+            outputSurface = new OutputSurface();
+            decoder = MediaCodec.createDecoderByType(inputFormat.getString(MediaFormat.KEY_MIME));
+            decoder.configure(inputFormat, outputSurface.getSurface(), null, 0);
+            decoder.start();
+
+            muxer = new MediaMuxer(output.getPath(), MediaMuxer.OutputFormat.MUXER_OUTPUT_MPEG_4);
+            muxer.setOrientationHint(rotation);
+
+            MediaCodec.BufferInfo decoderInfo = new MediaCodec.BufferInfo();
+            MediaCodec.BufferInfo encoderInfo = new MediaCodec.BufferInfo();
+            int videoTrack = -1;
+            int audioTrack = -1;
+            int lastPercent = -1;
+            boolean inputDone = false;
+            boolean decoderDone = false;
+            boolean encoderDone = false;
+
+            while (!encoderDone) {
+                if (Thread.currentThread().isInterrupted()) {
+                    throw new IOException("Transcoding interrupted");
+                }
+
+                // Feed one compressed sample to the decoder
+                if (!inputDone) {
+                    int index = decoder.dequeueInputBuffer(TIMEOUT_US);
+                    if (index >= 0) {
+                        ByteBuffer buffer = decoder.getInputBuffer(index);
+                        int size = videoExtractor.readSampleData(buffer, 0);
+                        if (size < 0) {
+                            decoder.queueInputBuffer(index, 0, 0, 0, MediaCodec.BUFFER_FLAG_END_OF_STREAM);
+                            inputDone = true;
+                        } else {
+                            decoder.queueInputBuffer(index, 0, size, videoExtractor.getSampleTime(), 0);
+                            videoExtractor.advance();
+                        }
+                    }
+                }
+
+                // Drain the encoder first so it never blocks the decoder, then move decoded frames across
+                boolean encoderOutputAvailable = true;
+                boolean decoderOutputAvailable = !decoderDone;
+                while (encoderOutputAvailable || decoderOutputAvailable) {
+                    int encoderStatus = encoder.dequeueOutputBuffer(encoderInfo, TIMEOUT_US);
+                    if (encoderStatus == MediaCodec.INFO_TRY_AGAIN_LATER) {
+                        encoderOutputAvailable = false;
+                    } else if (encoderStatus == MediaCodec.INFO_OUTPUT_FORMAT_CHANGED) {
+                        // Every track has to be added before the muxer starts
+                        videoTrack = muxer.addTrack(encoder.getOutputFormat());
+                        if (audioFormat != null) {
+                            audioTrack = muxer.addTrack(audioFormat);
+                        }
+                        muxer.start();
+                        muxerStarted = true;
+                    } else if (encoderStatus >= 0) {
+                        ByteBuffer encoded = encoder.getOutputBuffer(encoderStatus);
+                        if ((encoderInfo.flags & MediaCodec.BUFFER_FLAG_CODEC_CONFIG) != 0) {
+                            // Already part of the output format
+                            encoderInfo.size = 0;
+                        }
+                        if (encoderInfo.size > 0 && muxerStarted) {
+                            encoded.position(encoderInfo.offset);
+                            encoded.limit(encoderInfo.offset + encoderInfo.size);
+                            muxer.writeSampleData(videoTrack, encoded, encoderInfo);
+
+                            int percent = durationUs <= 0 ? 0
+                                    : (int) Math.min(99, encoderInfo.presentationTimeUs * 100 / durationUs);
+                            if (percent != lastPercent) {
+                                lastPercent = percent;
+                                listener.onProgress(percent);
+                            }
+                        }
+                        encoderDone = (encoderInfo.flags & MediaCodec.BUFFER_FLAG_END_OF_STREAM) != 0;
+                        encoder.releaseOutputBuffer(encoderStatus, false);
+                        if (encoderDone) {
+                            break;
+                        }
+                    }
+                    if (encoderStatus != MediaCodec.INFO_TRY_AGAIN_LATER) {
+                        continue;
+                    }
+
+                    if (!decoderDone) {
+                        int decoderStatus = decoder.dequeueOutputBuffer(decoderInfo, TIMEOUT_US);
+                        if (decoderStatus == MediaCodec.INFO_TRY_AGAIN_LATER) {
+                            decoderOutputAvailable = false;
+                        } else if (decoderStatus >= 0) {
+                            boolean render = decoderInfo.size > 0;
+                            decoder.releaseOutputBuffer(decoderStatus, render);
+                            if (render) {
+                                outputSurface.awaitNewImage();
+                                outputSurface.drawImage(width, height);
+                                inputSurface.setPresentationTime(decoderInfo.presentationTimeUs * 1000);
+                                inputSurface.swapBuffers();
+                            }
+                            if ((decoderInfo.flags & MediaCodec.BUFFER_FLAG_END_OF_STREAM) != 0) {
+                                encoder.signalEndOfInputStream();
+                                decoderDone = true;
+                                decoderOutputAvailable = false;
+                            }
+                        }
+                    }
+                }
+            }
+
+            if (!muxerStarted) {
+                throw new IOException("Encoder produced no output");
+            }
+            if (audioTrack >= 0) {
+                copyAudio(audioExtractor, audioFormat, muxer, audioTrack);
+            }
+            listener.onProgress(100);
+        } finally {
+            if (decoder != null) {
+                decoder.release();
+            }
+            if (encoder != null) {
+                encoder.release();
+            }
+            if (outputSurface != null) {
+                outputSurface.release();
+            }
+            if (inputSurface != null) {
+                inputSurface.release();
+            }
+            if (muxer != null) {
+                if (muxerStarted) {
+                    muxer.stop();
+                }
+                muxer.release();
+            }
+        }
+    }
+
+    // Copies the compressed audio samples into the muxer without decoding them
+    private static void copyAudio(MediaExtractor extractor, MediaFormat format, MediaMuxer muxer, int track) {
+        int bufferSize = format.containsKey(MediaFormat.KEY_MAX_INPUT_SIZE)
+                ? format.getInteger(MediaFormat.KEY_MAX_INPUT_SIZE)
+                : DEFAULT_AUDIO_BUFFER_SIZE;
+        ByteBuffer buffer = ByteBuffer.allocateDirect(bufferSize);
+        MediaCodec.BufferInfo info = new MediaCodec.BufferInfo();
+        while (true) {
+            int size = extractor.readSampleData(buffer, 0);
+            if (size < 0) {
+                return;
+            }
+            info.set(0, size, extractor.getSampleTime(),
+                    (extractor.getSampleFlags() & MediaExtractor.SAMPLE_FLAG_SYNC) != 0
+                            ? MediaCodec.BUFFER_FLAG_KEY_FRAME : 0);
+            muxer.writeSampleData(track, buffer, info);
+            extractor.advance();
+        }
+    }
+
+    /**
+     * Reads the duration of a video without transcoding it.
+     *
+     * @return The duration in milliseconds, or 0 if it cannot be read
+     */
+    public static long readDurationMs(Context context, Uri video) {
+        MediaMetadataRetriever retriever = new MediaMetadataRetriever();
+        try {
+            retriever.setDataSource(context, video);
+            return parseLong(retriever.extractMetadata(MediaMetadataRetriever.METADATA_KEY_DURATION));
+        } catch (RuntimeException e) {
+            Log.e(TAG, "Error retrieving video duration", e);
+            return 0;
+        } finally {
+            retriever.release();
+        }
+    }
+
+    /**
+     * Formats a duration as mm:ss, or hh:mm:ss for videos of an hour or more.
+     */
+    public static String formatDuration(long durationInMillis) {
+        long hours = TimeUnit.MILLISECONDS.toHours(durationInMillis);
+        long minutes = TimeUnit.MILLISECONDS.toMinutes(durationInMillis) - TimeUnit.HOURS.toMinutes(hours);
+        long seconds = TimeUnit.MILLISECONDS.toSeconds(durationInMillis) - TimeUnit.MINUTES.toSeconds(TimeUnit.MILLISECONDS.toMinutes(durationInMillis));
+
+        if (hours > 0) {
+            return String.format(Locale.US, "%02d:%02d:%02d", hours, minutes, seconds);
+        } else {
+            return String.format(Locale.US, "%02d:%02d", minutes, seconds);
+        }
+    }
+
+    private static int findTrack(MediaExtractor extractor, String mimePrefix) {
+        for (int i = 0; i < extractor.getTrackCount(); i++) {
+            String mime = extractor.getTrackFormat(i).getString(MediaFormat.KEY_MIME);
+            if (mime != null && mime.startsWith(mimePrefix)) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    // Encoders commonly require dimensions that are a multiple of 16
+    private static int alignTo16(int value) {
+        return Math.max(16, (value + 8) / 16 * 16);
+    }
+
+    private static long parseLong(String value) {
+        if (value == null) {
+            return 0;
+        }
+        try {
+            return Long.parseLong(value);
+        } catch (NumberFormatException e) {
+            return 0;
+        }
+    }
+}
@@ -3,6 +3,9 @@ package com.project.unitube.viewmodel;
 import androidx.lifecycle.LiveData;
 import androidx.lifecycle.MutableLiveData;
 import androidx.lifecycle.ViewModel;
+import androidx.lifecycle.ViewModelKt;
+import androidx.paging.PagingData;
+import androidx.paging.PagingLiveData;
 
 import com.project.unitube.Unitube;
 import com.project.unitube.entities.Comment;
@@ -10,17 +13,57 @@ import com.project.unitube.entities.User;
 import com.project.unitube.repository.CommentRepository;
 import com.project.unitube.repository.UserRepository;
 
-import java.util.List;
-
 public class CommentViewModel extends ViewModel {
     private CommentRepository commentRepository;
+    private LiveData<PagingData<Comment>> commentPages;
+    private int commentPagesVideoId;
+    private final MutableLiveData<Integer> commentCount = new MutableLiveData<>();
+    private boolean liveCount;
 
     public CommentViewModel() {
         commentRepository = new CommentRepository(Unitube.context);
     }
 
-    public MutableLiveData<List<Comment>> getCommentsForVideo(int videoId) {
-        return commentRepository.getCommentsForVideo(videoId);
+    /**
+     * Paged comments of a video, newest first, cached in the ViewModel so configuration changes keep the loaded pages.
+     */
+    public LiveData<PagingData<Comment>> getCommentPages(int videoId) {
+        if (commentPages == null || commentPagesVideoId != videoId) {
+            commentPagesVideoId = videoId;
+            commentPages = PagingLiveData.cachedIn(commentRepository.getCommentPages(videoId, commentCount),
+                    ViewModelKt.getViewModelScope(this));
+        }
+        return commentPages;
+    }
+
+    /**
+     * Total number of comments on the video, posted whenever the server reports it.
+     */
+    public LiveData<Integer> getCommentCount() {
+        return commentCount;
+    }
+
+    /**
+     * Adjusts the shown count after a comment was added or removed locally,
+     * until the server reports the exact number. Skipped while the live channel is connected,
+     * since it pushes the exact count for the same change.
+     */
+    public void adjustCommentCount(int delta) {
+        if (liveCount) {
+            return;
+        }
+        Integer count = commentCount.getValue();
+        if (count != null) {
+            commentCount.setValue(Math.max(0, count + delta));
+        }
+    }
+
+    public void setCommentCount(int count) {
+        commentCount.setValue(count);
+    }
+
+    public void setLiveCount(boolean liveCount) {
+        this.liveCount = liveCount;
     }
 
     public MutableLiveData<String> createComment(Comment comment) {
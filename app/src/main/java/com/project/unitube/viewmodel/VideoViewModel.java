@@ -1,50 +1,232 @@
 package com.project.unitube.viewmodel;
 
 import android.content.Context;
+import android.os.Handler;
+import android.os.Looper;
 
 import androidx.lifecycle.LiveData;
+import androidx.lifecycle.MutableLiveData;
+import androidx.lifecycle.Observer;
 import androidx.lifecycle.ViewModel;
+import androidx.lifecycle.ViewModelKt;
+import androidx.paging.PagingData;
+import androidx.paging.PagingLiveData;
 
+import com.project.unitube.entities.OfflineVideo;
+import com.project.unitube.entities.UploadJob;
 import com.project.unitube.entities.Video;
+import com.project.unitube.entities.VideoSummary;
 import com.project.unitube.repository.VideoRepository;
-import com.project.unitube.utils.helper.VideoUploadRequest;
 
-import java.io.File;
+import java.util.ArrayList;
+import java.util.HashMap;
 import java.util.List;
-import android.util.Log;
+import java.util.Map;
 
 
 /**
  * ViewModel class to manage Video data.
  */
 public class VideoViewModel extends ViewModel {
+    // How long typing has to pause before the search runs
+    private static final long SEARCH_DEBOUNCE_MS = 300;
+    // How long taps on like and dislike have to pause before the final reaction is sent
+    private static final long REACTION_DEBOUNCE_MS = 500;
+    // Requests one settled reaction may take before it is given up, in case the server never lands on it
+    private static final int MAX_REACTION_REQUESTS = 3;
+
+    public static final String REACTION_NONE = "none";
+    public static final String REACTION_LIKE = "like";
+    public static final String REACTION_DISLIKE = "dislike";
+
     private VideoRepository videoRepository;
-    private LiveData<List<Video>> videos;
+    private LiveData<PagingData<VideoSummary>> videoFeed;
+
+    private final MutableLiveData<List<VideoSummary>> searchResults = new MutableLiveData<>();
+    private final Handler searchHandler = new Handler(Looper.getMainLooper());
+    private Runnable pendingSearch;
+
+    private final Handler reactionHandler = new Handler(Looper.getMainLooper());
+    private final Map<Integer, PendingReaction> pendingReactions = new HashMap<>();
+    private final MutableLiveData<ReactionResult> reactionResults = new MutableLiveData<>();
+
+    /**
+     * Outcome of the reactions sent for a video: the video as the server stored them,
+     * or, if a request failed, the last video the server confirmed, to roll the screen back to.
+     */
+    public static class ReactionResult {
+        private final Video video;
+        private final boolean failed;
+
+        ReactionResult(Video video, boolean failed) {
+            this.video = video;
+            this.failed = failed;
+        }
+
+        public Video getVideo() {
+            return video;
+        }
+
+        public boolean isFailed() {
+            return failed;
+        }
+    }
+
+    // The reaction the user picked for one video, waiting to be sent or in flight
+    private static class PendingReaction {
+        final int videoId;
+        final String userName;
+        Video confirmed;  // as last stored on the server
+        String wanted;
+        boolean inFlight;
+        int requests;
+        Runnable send;
+
+        PendingReaction(int videoId, String userName, Video confirmed) {
+            this.videoId = videoId;
+            this.userName = userName;
+            this.confirmed = confirmed;
+        }
+    }
 
     public VideoViewModel() {
         videoRepository = new VideoRepository();
-        videos = videoRepository.getAllVideos();
     }
 
-    public LiveData<List<Video>> getVideos() {
-        return videos;
+    /**
+     * Paged home feed, cached in the ViewModel so configuration changes keep the loaded pages.
+     */
+    public LiveData<PagingData<VideoSummary>> getVideoFeed() {
+        if (videoFeed == null) {
+            videoFeed = PagingLiveData.cachedIn(videoRepository.getVideoFeed(), ViewModelKt.getViewModelScope(this));
+        }
+        return videoFeed;
     }
 
-    public LiveData<List<Video>> reloadVideos() {
-        videos = videoRepository.getAllVideos();
-        return videos;
+    /**
+     * Ranked results of the latest search query. Observe it once; every query posts here.
+     */
+    public LiveData<List<VideoSummary>> getSearchResults() {
+        return searchResults;
     }
 
-    public LiveData<Video> getVideoByID(int userId, int id) {
-        return videoRepository.getVideoByID(userId, id);
+    /**
+     * Schedules a search for the query once typing pauses. An empty query cancels the search.
+     *
+     * @param query The text in the search box
+     */
+    public void setSearchQuery(String query) {
+        if (pendingSearch != null) {
+            searchHandler.removeCallbacks(pendingSearch);
+            pendingSearch = null;
+        }
+        if (query.trim().isEmpty()) {
+            videoRepository.cancelSearch();
+            return;
+        }
+        pendingSearch = () -> videoRepository.searchVideos(query, searchResults);
+        searchHandler.postDelayed(pendingSearch, SEARCH_DEBOUNCE_MS);
+    }
+
+    /**
+     * Outcomes of setReaction. Observe it once; every settled reaction posts here.
+     */
+    public LiveData<ReactionResult> getReactionResults() {
+        return reactionResults;
     }
 
-    public LiveData<Video> toggleLike(int videoId, String userName) {
-        return videoRepository.toggleLike(videoId, userName);
+    /**
+     * Records the reaction the user picked and sends it once the taps pause.
+     * Taps within REACTION_DEBOUNCE_MS collapse into the last one, and nothing is sent if that is
+     * the reaction the server already has. At most one request per video is in flight; a reaction
+     * picked meanwhile is sent when it returns. Must be called on the main thread.
+     *
+     * @param confirmed The video as last confirmed by the server
+     * @param wanted    REACTION_LIKE, REACTION_DISLIKE or REACTION_NONE
+     */
+    public void setReaction(Video confirmed, String userName, String wanted) {
+        int videoId = confirmed.getId();
+        PendingReaction pending = pendingReactions.get(videoId);
+        if (pending == null) {
+            PendingReaction created = new PendingReaction(videoId, userName, confirmed);
+            created.send = () -> sendReaction(created);
+            pendingReactions.put(videoId, created);
+            pending = created;
+        }
+        pending.wanted = wanted;
+        if (!pending.inFlight) {
+            reactionHandler.removeCallbacks(pending.send);
+            reactionHandler.postDelayed(pending.send, REACTION_DEBOUNCE_MS);
+        }
     }
 
-    public LiveData<Video> toggleDislike(int videoId, String userName) {
-        return videoRepository.toggleDislike(videoId, userName);
+    /**
+     * @return The user's reaction to the video, read from its like and dislike lists
+     */
+    public static String reactionOf(Video video, String userName) {
+        if (video.getLikesList() != null && video.getLikesList().contains(userName)) {
+            return REACTION_LIKE;
+        }
+        if (video.getDislikesList() != null && video.getDislikesList().contains(userName)) {
+            return REACTION_DISLIKE;
+        }
+        return REACTION_NONE;
+    }
+
+    private void sendReaction(PendingReaction pending) {
+        String current = reactionOf(pending.confirmed, pending.userName);
+        if (pending.wanted.equals(current)) {
+            pendingReactions.remove(pending.videoId);
+            reactionResults.setValue(new ReactionResult(pending.confirmed, false));
+            return;
+        }
+        if (pending.requests == MAX_REACTION_REQUESTS) {
+            pendingReactions.remove(pending.videoId);
+            reactionResults.setValue(new ReactionResult(pending.confirmed, true));
+            return;
+        }
+
+        // The server only toggles: liking or disliking also drops the other reaction,
+        // and toggling the current one again removes it
+        boolean viaLike = REACTION_LIKE.equals(pending.wanted)
+                || (REACTION_NONE.equals(pending.wanted) && REACTION_LIKE.equals(current));
+        LiveData<Video> response = viaLike
+                ? videoRepository.toggleLike(pending.videoId, pending.userName)
+                : videoRepository.toggleDislike(pending.videoId, pending.userName);
+        pending.inFlight = true;
+        pending.requests++;
+        response.observeForever(new Observer<Video>() {
+            @Override
+            public void onChanged(Video video) {
+                response.removeObserver(this);
+                pending.inFlight = false;
+                if (video == null) {
+                    pendingReactions.remove(pending.videoId);
+                    reactionResults.setValue(new ReactionResult(pending.confirmed, true));
+                    return;
+                }
+                pending.confirmed = video;
+                // Sends again if the user changed their mind while this request was out
+                sendReaction(pending);
+            }
+        });
+    }
+
+    @Override
+    protected void onCleared() {
+        super.onCleared();
+        searchHandler.removeCallbacksAndMessages(null);
+        // The user left before the taps settled; their last pick is still sent
+        for (PendingReaction pending : new ArrayList<>(pendingReactions.values())) {
+            if (!pending.inFlight) {
+                reactionHandler.removeCallbacks(pending.send);
+                sendReaction(pending);
+            }
+        }
+    }
+
+    public LiveData<Video> getVideoByID(int userId, int id) {
+        return videoRepository.getVideoByID(userId, id);
     }
 
     public LiveData<Video> incrementVideoViews(int videoId) {
@@ -59,19 +241,45 @@ public class VideoViewModel extends ViewModel {
         return videoRepository.deleteVideo(userName, videoId);
     }
 
-    public LiveData<List<Video>> getUserVideos(String username) {
+    public LiveData<List<VideoSummary>> getUserVideos(String username) {
         return videoRepository.getUserVideos(username);
     }
 
-    public LiveData<Video> uploadVideo(String userName, VideoUploadRequest request, File videoFile, File thumbnailFile) {
-        Log.d("uploadVideo", "VideoViewModel- Uploading video for user: " + userName);
-        Log.d("uploadVideo", "VideoViewModel- Video upload request: " + request);
-        Log.d("uploadVideo", "VideoViewModel- Video file path: " + videoFile.getPath());
-        Log.d("uploadVideo", "VideoViewModel- Thumbnail file path: " + thumbnailFile.getPath());
-        return videoRepository.uploadVideo(userName, request, videoFile, thumbnailFile);
+    /**
+     * Queues a video for the background uploader. The upload keeps going if the screen is left.
+     *
+     * @return LiveData following the job's state and progress
+     */
+    public LiveData<UploadJob> enqueueUpload(UploadJob job) {
+        return videoRepository.enqueueUpload(job);
+    }
+
+    /**
+     * Downloads the video for offline viewing in the background.
+     *
+     * @param url The absolute media URL the video is played from
+     */
+    public void downloadVideo(int videoId, String title, String url) {
+        videoRepository.downloadVideo(videoId, title, url);
+    }
+
+    /**
+     * @return LiveData following the offline copy of the video, null while it has none
+     */
+    public LiveData<OfflineVideo> getOfflineVideo(int videoId) {
+        return videoRepository.getOfflineVideo(videoId);
+    }
+
+    /**
+     * Videos to recommend next to a video, ranked on the device from the local catalog.
+     *
+     * @param userName The signed in user, or null
+     */
+    public LiveData<List<VideoSummary>> getRecommendations(int videoId, String userName) {
+        return videoRepository.getRecommendations(videoId, userName);
     }
 
-    public LiveData<Integer> getHighestVideoId() {
-        return videoRepository.getHighestVideoId();
+    public void markWatched(int videoId) {
+        videoRepository.markWatched(videoId);
     }
 }
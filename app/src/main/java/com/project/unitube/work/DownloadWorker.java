@@ -0,0 +1,162 @@
+package com.project.unitube.work;
+
+import android.content.Context;
+import android.util.Log;
+
+import androidx.annotation.NonNull;
+import androidx.annotation.OptIn;
+import androidx.media3.common.util.UnstableApi;
+import androidx.media3.exoplayer.offline.Downloader;
+import androidx.work.Worker;
+import androidx.work.WorkerParameters;
+
+import com.project.unitube.Room.Dao.OfflineVideoDao;
+import com.project.unitube.Room.Database.AppDB;
+import com.project.unitube.Room.Database.DatabaseWriteExecutor;
+import com.project.unitube.entities.OfflineVideo;
+import com.project.unitube.utils.player.MediaCache;
+
+import java.io.IOException;
+import java.util.List;
+
+/**
+ * DownloadWorker downloads the queued offline videos one at a time into the offline media cache.
+ * After each download the offline videos are kept within their storage budget by removing the
+ * least recently watched ones. A download cut off by the worker stopping resumes from the
+ * bytes already cached in the next run.
+ */
+@OptIn(markerClass = UnstableApi.class)
+public class DownloadWorker extends Worker {
+
+    private static final String TAG = "DownloadWorker";
+
+    // Offline videos take at most this much, and at most half of the free storage
+    private static final long STORAGE_BUDGET_BYTES = 2L * 1024 * 1024 * 1024;
+
+    private final OfflineVideoDao offlineVideoDao;
+    private final DatabaseWriteExecutor dbWriteExecutor;
+    private final MediaCache mediaCache;
+    private volatile Downloader currentDownloader;
+
+    public DownloadWorker(@NonNull Context context, @NonNull WorkerParameters params) {
+        super(context, params);
+        offlineVideoDao = AppDB.getInstance(context).offlineVideoDao();
+        dbWriteExecutor = DatabaseWriteExecutor.getInstance(context);
+        mediaCache = MediaCache.getInstance(context);
+    }
+
+    @NonNull
+    @Override
+    public Result doWork() {
+        List<OfflineVideo> videos = offlineVideoDao.getPendingVideos();
+        for (OfflineVideo video : videos) {
+            if (isStopped()) {
+                return Result.retry();
+            }
+            try {
+                download(video);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return Result.retry();
+            } catch (IOException e) {
+                Log.w(TAG, "Download of video " + video.getVideoId() + " failed, will retry: " + e.getMessage());
+                video.setState(OfflineVideo.STATE_QUEUED);
+                video.setError(e.getMessage());
+                save(video);
+                return Result.retry();
+            }
+        }
+        return Result.success();
+    }
+
+    @Override
+    public void onStopped() {
+        super.onStopped();
+        // The bytes downloaded so far stay cached, the next run continues from them
+        Downloader downloader = currentDownloader;
+        if (downloader != null) {
+            downloader.cancel();
+        }
+    }
+
+    private void download(OfflineVideo video) throws IOException, InterruptedException {
+        video.setState(OfflineVideo.STATE_DOWNLOADING);
+        save(video);
+
+        Downloader downloader = mediaCache.createDownloader(video.getUrl());
+        currentDownloader = downloader;
+        long[] downloadedBytes = {0};
+        int[] lastPercent = {video.getProgress()};
+        int videoId = video.getVideoId();
+        try {
+            downloader.download((contentLength, bytesDownloaded, percentDownloaded) -> {
+                downloadedBytes[0] = bytesDownloaded;
+                // Write only when the percentage changes, not for every downloaded block
+                int percent = (int) percentDownloaded;
+                if (percent != lastPercent[0] && percent >= 0) {
+                    lastPercent[0] = percent;
+                    dbWriteExecutor.execute(() -> offlineVideoDao.updateProgress(videoId, percent));
+                }
+            });
+        } finally {
+            currentDownloader = null;
+        }
+
+        long bytes = downloadedBytes[0];
+        Log.d(TAG, "Video " + videoId + " downloaded, " + bytes + " bytes");
+        if (!makeRoom(videoId, bytes)) {
+            removeMedia(video);
+            video.setState(OfflineVideo.STATE_FAILED);
+            video.setError("Not enough storage for offline videos");
+            save(video);
+            return;
+        }
+        video.setState(OfflineVideo.STATE_DONE);
+        video.setProgress(100);
+        video.setBytes(bytes);
+        video.setError(null);
+        save(video);
+    }
+
+    /**
+     * Removes the least recently watched offline videos until a new one of the given size
+     * fits the budget next to the rest.
+     *
+     * @return false if the new video does not fit even on its own
+     */
+    private boolean makeRoom(int videoId, long bytes) {
+        long stored = offlineVideoDao.getStoredBytesExcept(videoId);
+        // Bytes already stored count as free, they are what would be evicted
+        long free = getApplicationContext().getFilesDir().getUsableSpace() + stored;
+        long budget = Math.min(STORAGE_BUDGET_BYTES, free / 2);
+        if (bytes > budget) {
+            return false;
+        }
+        for (OfflineVideo video : offlineVideoDao.getStoredVideosByLastWatched()) {
+            if (stored + bytes <= budget) {
+                break;
+            }
+            if (video.getVideoId() == videoId) {
+                continue;
+            }
+            Log.d(TAG, "Evicting offline video " + video.getVideoId() + ", " + video.getBytes() + " bytes");
+            removeMedia(video);
+            int evictedId = video.getVideoId();
+            dbWriteExecutor.execute(() -> offlineVideoDao.deleteVideo(evictedId));
+            stored -= video.getBytes();
+        }
+        return true;
+    }
+
+    private void removeMedia(OfflineVideo video) {
+        try {
+            mediaCache.createDownloader(video.getUrl()).remove();
+        } catch (RuntimeException e) {
+            Log.w(TAG, "Could not remove the media of video " + video.getVideoId(), e);
+        }
+    }
+
+    private void save(OfflineVideo video) {
+        dbWriteExecutor.execute(() -> offlineVideoDao.updateVideo(video));
+    }
+}
@@ -0,0 +1,98 @@
+package com.project.unitube.work;
+
+import android.content.Context;
+
+import androidx.lifecycle.LiveData;
+import androidx.work.BackoffPolicy;
+import androidx.work.Constraints;
+import androidx.work.ExistingWorkPolicy;
+import androidx.work.NetworkType;
+import androidx.work.OneTimeWorkRequest;
+import androidx.work.WorkManager;
+
+import com.project.unitube.Room.Dao.OfflineVideoDao;
+import com.project.unitube.Room.Database.AppDB;
+import com.project.unitube.Room.Database.DatabaseWriteExecutor;
+import com.project.unitube.entities.OfflineVideo;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * OfflineDownloads pins videos for offline viewing. A download is stored as an
+ * {@link OfflineVideo} row and run by {@link DownloadWorker}, so it continues after the
+ * screen is closed, and its progress is observed straight from the table.
+ */
+public class OfflineDownloads {
+
+    private static final String UNIQUE_WORK_NAME = "offline-downloads";
+    private static final long INITIAL_BACKOFF_SECONDS = 30;
+
+    // Singleton instance of the OfflineDownloads
+    private static volatile OfflineDownloads INSTANCE;
+
+    private final Context context;
+    private final OfflineVideoDao offlineVideoDao;
+    private final DatabaseWriteExecutor dbWriteExecutor;
+
+    private OfflineDownloads(Context context) {
+        this.context = context.getApplicationContext();
+        this.offlineVideoDao = AppDB.getInstance(context).offlineVideoDao();
+        this.dbWriteExecutor = DatabaseWriteExecutor.getInstance(context);
+    }
+
+    /**
+     * Returns the singleton instance of the OfflineDownloads.
+     *
+     * @param context The application context
+     * @return The singleton instance of the OfflineDownloads
+     */
+    public static OfflineDownloads getInstance(Context context) {
+        if (INSTANCE == null) {
+            synchronized (OfflineDownloads.class) {
+                if (INSTANCE == null) {
+                    INSTANCE = new OfflineDownloads(context);
+                }
+            }
+        }
+        return INSTANCE;
+    }
+
+    /**
+     * Queues the video for download. A video already downloaded is downloaded again,
+     * which only fetches what is missing from the cache.
+     *
+     * @param url The absolute media URL the player streams the video from
+     */
+    public void download(int videoId, String title, String url) {
+        OfflineVideo video = new OfflineVideo(videoId, title, url, System.currentTimeMillis());
+        dbWriteExecutor.execute(() -> offlineVideoDao.insertVideo(video), this::scheduleDrain);
+    }
+
+    public LiveData<OfflineVideo> observe(int videoId) {
+        return offlineVideoDao.observeVideo(videoId);
+    }
+
+    /**
+     * Records that the video was played, which keeps a downloaded copy from being evicted first.
+     * Does nothing for videos that are not downloaded.
+     */
+    public void markWatched(int videoId) {
+        long now = System.currentTimeMillis();
+        dbWriteExecutor.execute(() -> offlineVideoDao.updateLastWatched(videoId, now));
+    }
+
+    private void scheduleDrain() {
+        Constraints constraints = new Constraints.Builder()
+                .setRequiredNetworkType(NetworkType.CONNECTED)
+                .setRequiresStorageNotLow(true)
+                .build();
+
+        OneTimeWorkRequest request = new OneTimeWorkRequest.Builder(DownloadWorker.class)
+                .setConstraints(constraints)
+                .setBackoffCriteria(BackoffPolicy.EXPONENTIAL, INITIAL_BACKOFF_SECONDS, TimeUnit.SECONDS)
+                .build();
+
+        WorkManager.getInstance(context)
+                .enqueueUniqueWork(UNIQUE_WORK_NAME, ExistingWorkPolicy.APPEND_OR_REPLACE, request);
+    }
+}
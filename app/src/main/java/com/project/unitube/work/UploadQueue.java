@@ -0,0 +1,109 @@
+package com.project.unitube.work;
+
+import android.content.Context;
+
+import androidx.lifecycle.LiveData;
+import androidx.lifecycle.MutableLiveData;
+import androidx.lifecycle.Transformations;
+import androidx.work.BackoffPolicy;
+import androidx.work.Constraints;
+import androidx.work.ExistingWorkPolicy;
+import androidx.work.NetworkType;
+import androidx.work.OneTimeWorkRequest;
+import androidx.work.WorkManager;
+
+import com.project.unitube.Room.Dao.UploadJobDao;
+import com.project.unitube.Room.Database.AppDB;
+import com.project.unitube.Room.Database.DatabaseWriteExecutor;
+import com.project.unitube.entities.UploadJob;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * UploadQueue stores upload jobs in Room and schedules {@link UploadWorker} to send them.
+ * Jobs outlive the screen that created them and the process, and their progress is
+ * observed straight from the table.
+ */
+public class UploadQueue {
+
+    private static final String UNIQUE_WORK_NAME = "video-uploads";
+    private static final long INITIAL_BACKOFF_SECONDS = 30;
+
+    // Singleton instance of the UploadQueue
+    private static volatile UploadQueue INSTANCE;
+
+    private final Context context;
+    private final UploadJobDao uploadJobDao;
+    private final DatabaseWriteExecutor dbWriteExecutor;
+
+    private UploadQueue(Context context) {
+        this.context = context.getApplicationContext();
+        this.uploadJobDao = AppDB.getInstance(context).uploadJobDao();
+        this.dbWriteExecutor = DatabaseWriteExecutor.getInstance(context);
+    }
+
+    /**
+     * Returns the singleton instance of the UploadQueue.
+     *
+     * @param context The application context
+     * @return The singleton instance of the UploadQueue
+     */
+    public static UploadQueue getInstance(Context context) {
+        if (INSTANCE == null) {
+            synchronized (UploadQueue.class) {
+                if (INSTANCE == null) {
+                    INSTANCE = new UploadQueue(context);
+                }
+            }
+        }
+        return INSTANCE;
+    }
+
+    /**
+     * Stores the job and schedules the queue to be drained.
+     *
+     * @param job The upload to queue
+     * @return LiveData following the job's state and progress
+     */
+    public LiveData<UploadJob> enqueue(UploadJob job) {
+        MutableLiveData<UploadJob> queued = new MutableLiveData<>();
+        dbWriteExecutor.execute(() -> {
+            uploadJobDao.deleteFinishedJobs();
+            job.setId((int) uploadJobDao.insertJob(job));
+        }, () -> {
+            queued.postValue(job);
+            scheduleDrain();
+        }, error -> {
+            // No row was stored, so the failure is reported on the job itself
+            job.setState(UploadJob.STATE_FAILED);
+            job.setError(error.getMessage());
+            queued.postValue(job);
+        });
+        return Transformations.switchMap(queued, stored -> UploadJob.STATE_FAILED.equals(stored.getState())
+                ? new MutableLiveData<>(stored)
+                : uploadJobDao.observeJob(stored.getId()));
+    }
+
+    public LiveData<List<UploadJob>> getJobs() {
+        return uploadJobDao.observeJobs();
+    }
+
+    /**
+     * Schedules a run of the upload worker once the device is online.
+     * A run already in progress is followed by this one, so jobs queued meanwhile are not missed.
+     */
+    public void scheduleDrain() {
+        Constraints constraints = new Constraints.Builder()
+                .setRequiredNetworkType(NetworkType.CONNECTED)
+                .build();
+
+        OneTimeWorkRequest request = new OneTimeWorkRequest.Builder(UploadWorker.class)
+                .setConstraints(constraints)
+                .setBackoffCriteria(BackoffPolicy.EXPONENTIAL, INITIAL_BACKOFF_SECONDS, TimeUnit.SECONDS)
+                .build();
+
+        WorkManager.getInstance(context)
+                .enqueueUniqueWork(UNIQUE_WORK_NAME, ExistingWorkPolicy.APPEND_OR_REPLACE, request);
+    }
+}
@@ -0,0 +1,320 @@
+package com.project.unitube.work;
+
+import android.content.ContentResolver;
+import android.content.Context;
+import android.net.Uri;
+import android.util.Log;
+
+import androidx.annotation.NonNull;
+import androidx.work.Worker;
+import androidx.work.WorkerParameters;
+
+import com.project.unitube.Room.Dao.UploadJobDao;
+import com.project.unitube.Room.Database.AppDB;
+import com.project.unitube.Room.Database.DatabaseWriteExecutor;
+import com.project.unitube.Room.Database.LocalVideoStore;
+import com.project.unitube.entities.UploadJob;
+import com.project.unitube.entities.Video;
+import com.project.unitube.network.RetroFit.RetrofitClient;
+import com.project.unitube.network.interfaceAPI.VideoWebServiceAPI;
+import com.project.unitube.network.objectAPI.VideoUploader;
+import com.project.unitube.utils.helper.MediaUris;
+import com.project.unitube.utils.helper.UploadSession;
+import com.project.unitube.utils.helper.VideoUploadRequest;
+import com.project.unitube.utils.transcode.ImagePreparer;
+import com.project.unitube.utils.transcode.VideoTranscoder;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * UploadWorker drains the upload job table. Up to MAX_CONCURRENT_UPLOADS videos are sent
+ * at a time with {@link VideoUploader}, resuming any upload session a previous run opened.
+ * Jobs that ask for compression are first re-encoded with {@link VideoTranscoder},
+ * and every thumbnail is shrunk with {@link ImagePreparer} before it is sent.
+ * If a job fails for a reason worth retrying, the run asks WorkManager to retry with backoff.
+ */
+public class UploadWorker extends Worker {
+
+    private static final String TAG = "UploadWorker";
+
+    // Videos sent at the same time
+    private static final int MAX_CONCURRENT_UPLOADS = 2;
+    // Runs a job may fail in before it is marked as failed
+    private static final int MAX_ATTEMPTS = 5;
+    // How long a stopped run waits for its uploads to notice the interruption
+    private static final long STOP_TIMEOUT_SECONDS = 10;
+    // Transcoded videos and shrunk thumbnails are kept here until their job finishes
+    private static final String TRANSCODE_DIR = "uploads";
+
+    private final UploadJobDao uploadJobDao;
+    private final LocalVideoStore localVideoStore;
+    private final DatabaseWriteExecutor dbWriteExecutor;
+    private final VideoUploader uploader;
+    private final VideoTranscoder transcoder = new VideoTranscoder();
+    private final ImagePreparer imagePreparer;
+    private final File transcodeDir;
+    private volatile ExecutorService uploadPool;
+
+    public UploadWorker(@NonNull Context context, @NonNull WorkerParameters params) {
+        super(context, params);
+        uploadJobDao = AppDB.getInstance(context).uploadJobDao();
+        localVideoStore = LocalVideoStore.getInstance(context);
+        dbWriteExecutor = DatabaseWriteExecutor.getInstance(context);
+        uploader = new VideoUploader(RetrofitClient.getClient().create(VideoWebServiceAPI.class),
+                context.getContentResolver());
+        imagePreparer = new ImagePreparer(context.getContentResolver());
+        transcodeDir = new File(context.getFilesDir(), TRANSCODE_DIR);
+    }
+
+    @NonNull
+    @Override
+    public Result doWork() {
+        List<UploadJob> jobs = uploadJobDao.getPendingJobs();
+        if (jobs.isEmpty()) {
+            return Result.success();
+        }
+        Log.d(TAG, "Draining " + jobs.size() + " upload jobs");
+
+        uploadPool = Executors.newFixedThreadPool(Math.min(MAX_CONCURRENT_UPLOADS, jobs.size()));
+        List<Future<Boolean>> results = new ArrayList<>();
+        for (UploadJob job : jobs) {
+            results.add(uploadPool.submit(() -> send(job)));
+        }
+
+        // Every upload has finished or stopped before the run returns, so none outlives it
+        boolean retry = false;
+        try {
+            for (Future<Boolean> result : results) {
+                try {
+                    if (!result.get()) {
+                        retry = true;
+                    }
+                } catch (ExecutionException e) {
+                    Log.e(TAG, "Upload job crashed", e);
+                    retry = true;
+                } catch (CancellationException e) {
+                    // Stopped before it started, it is sent in the next run
+                    retry = true;
+                }
+            }
+        } catch (InterruptedException e) {
+            stopUploads();
+            awaitUploads();
+            Thread.currentThread().interrupt();
+            return Result.retry();
+        }
+        uploadPool.shutdown();
+        return retry ? Result.retry() : Result.success();
+    }
+
+    @Override
+    public void onStopped() {
+        super.onStopped();
+        // Constraints were lost or the work was cancelled; the jobs resume in the next run.
+        // doWork keeps waiting for the stopped uploads, this runs on the main thread and must not.
+        if (uploadPool != null) {
+            stopUploads();
+        }
+    }
+
+    // Interrupts the running uploads and cancels the ones not started yet
+    private void stopUploads() {
+        for (Runnable notStarted : uploadPool.shutdownNow()) {
+            ((Future<?>) notStarted).cancel(false);
+        }
+    }
+
+    private void awaitUploads() {
+        try {
+            if (!uploadPool.awaitTermination(STOP_TIMEOUT_SECONDS, TimeUnit.SECONDS)) {
+                Log.w(TAG, "Uploads did not stop within " + STOP_TIMEOUT_SECONDS + " s");
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    /**
+     * Sends one job.
+     *
+     * @return false if the job failed and should be retried in a later run
+     */
+    private boolean send(UploadJob job) {
+        Uri video = MediaUris.parse(job.getVideoPath());
+        Uri thumbnail = MediaUris.parse(job.getThumbnailPath());
+        if (!MediaUris.isReadable(getApplicationContext().getContentResolver(), video)
+                || !MediaUris.isReadable(getApplicationContext().getContentResolver(), thumbnail)) {
+            fail(job, "Video or thumbnail is missing");
+            return true;
+        }
+
+        if (job.isCompress()) {
+            video = compress(job, video);
+        }
+
+        job.setState(UploadJob.STATE_UPLOADING);
+        job.setAttempts(job.getAttempts() + 1);
+        save(job);
+
+        try {
+            job.setTotalBytes(MediaUris.length(getApplicationContext().getContentResolver(), video));
+            if (job.getUploadId() == null) {
+                thumbnail = prepareThumbnail(job, thumbnail);
+                UploadSession session = uploader.openSession(job.getUserName(), toRequest(job), video, thumbnail);
+                job.setUploadId(session.getUploadId());
+                job.setUploadedBytes(session.getOffset());
+                save(job);
+            }
+
+            // Sending starts again from the acknowledged offset
+            job.setSentBytes(job.getUploadedBytes());
+            int jobId = job.getId();
+            int[] lastPercent = {job.getProgress()};
+            Video uploaded = uploader.resume(job.getUploadId(), job.getUploadedBytes(), video,
+                    new VideoUploader.ProgressListener() {
+                        @Override
+                        public void onProgress(long sent, long total) {
+                            job.setSentBytes(sent);
+                            // Write only when the percentage changes, not for every written block
+                            if (job.getProgress() != lastPercent[0]) {
+                                lastPercent[0] = job.getProgress();
+                                dbWriteExecutor.execute(() -> uploadJobDao.updateSentBytes(jobId, sent));
+                            }
+                        }
+
+                        @Override
+                        public void onAcknowledged(long offset, long total) {
+                            // Only acknowledged offsets are stored for resuming; a later run that
+                            // resumed from bytes the server never stored would be answered with 409
+                            job.setUploadedBytes(offset);
+                            dbWriteExecutor.execute(() -> uploadJobDao.updateUploadedBytes(jobId, offset));
+                        }
+                    });
+
+            Log.d(TAG, "Job " + job.getId() + " uploaded as video " + uploaded.getId());
+            deletePreparedFile(video);
+            deletePreparedFile(thumbnail);
+            job.setVideoId(uploaded.getId());
+            job.setState(UploadJob.STATE_DONE);
+            job.setUploadedBytes(job.getTotalBytes());
+            job.setSentBytes(job.getTotalBytes());
+            job.setError(null);
+            dbWriteExecutor.execute(() -> {
+                localVideoStore.saveVideo(uploaded);
+                uploadJobDao.updateJob(job);
+            });
+            return true;
+        } catch (VideoUploader.UploadRejectedException e) {
+            fail(job, e.getMessage());
+            return true;
+        } catch (IOException e) {
+            if (job.getAttempts() >= MAX_ATTEMPTS) {
+                fail(job, e.getMessage());
+                return true;
+            }
+            Log.w(TAG, "Job " + job.getId() + " failed, will retry: " + e.getMessage());
+            job.setState(UploadJob.STATE_QUEUED);
+            job.setError(e.getMessage());
+            save(job);
+            return false;
+        }
+    }
+
+    /**
+     * Re-encodes the job's video and points the job at the smaller file.
+     * If this device cannot transcode it, the original file is sent instead.
+     *
+     * @return The video to upload
+     */
+    private Uri compress(UploadJob job, Uri video) {
+        job.setState(UploadJob.STATE_TRANSCODING);
+        job.setTranscodeProgress(0);
+        save(job);
+
+        transcodeDir.mkdirs();
+        File output = new File(transcodeDir, "job_" + job.getId() + ".mp4");
+        int jobId = job.getId();
+        try {
+            VideoTranscoder.Result result = transcoder.transcode(getApplicationContext(), video, output, percent -> {
+                job.setTranscodeProgress(percent);
+                dbWriteExecutor.execute(() -> uploadJobDao.updateTranscodeProgress(jobId, percent));
+            });
+            video = result.getVideo();
+            job.setVideoPath(video.toString());
+            // The duration was read in the same pass as the transcode
+            job.setDuration(VideoTranscoder.formatDuration(result.getDurationMs()));
+        } catch (IOException e) {
+            Log.w(TAG, "Job " + job.getId() + " could not be compressed, sending the original: " + e.getMessage());
+            if (job.getDuration() == null) {
+                job.setDuration(VideoTranscoder.formatDuration(
+                        VideoTranscoder.readDurationMs(getApplicationContext(), video)));
+            }
+        }
+        job.setCompress(false);
+        job.setTranscodeProgress(100);
+        save(job);
+        return video;
+    }
+
+    /**
+     * Shrinks the thumbnail before the session that carries it is opened.
+     * If it cannot be decoded, the picked image is sent as is.
+     *
+     * @return The thumbnail to upload
+     */
+    private Uri prepareThumbnail(UploadJob job, Uri thumbnail) {
+        File output = new File(transcodeDir, "job_" + job.getId() + "_thumbnail.jpg");
+        Uri prepared = Uri.fromFile(output);
+        if (prepared.equals(thumbnail)) {
+            return thumbnail;
+        }
+        transcodeDir.mkdirs();
+        try {
+            imagePreparer.prepare(thumbnail, ImagePreparer.THUMBNAIL_WIDTH, ImagePreparer.THUMBNAIL_HEIGHT, output);
+            job.setThumbnailPath(prepared.toString());
+            save(job);
+            return prepared;
+        } catch (IOException e) {
+            Log.w(TAG, "Job " + job.getId() + " thumbnail could not be shrunk, sending the original: " + e.getMessage());
+            return thumbnail;
+        }
+    }
+
+    // Removes a file the job wrote, never the user's original
+    private void deletePreparedFile(Uri uri) {
+        if (!ContentResolver.SCHEME_FILE.equals(uri.getScheme())) {
+            return;
+        }
+        File file = new File(uri.getPath());
+        if (transcodeDir.equals(file.getParentFile())) {
+            file.delete();
+        }
+    }
+
+    private void fail(UploadJob job, String error) {
+        Log.e(TAG, "Job " + job.getId() + " failed: " + error);
+        deletePreparedFile(MediaUris.parse(job.getVideoPath()));
+        deletePreparedFile(MediaUris.parse(job.getThumbnailPath()));
+        job.setState(UploadJob.STATE_FAILED);
+        job.setError(error);
+        save(job);
+    }
+
+    private void save(UploadJob job) {
+        dbWriteExecutor.execute(() -> uploadJobDao.updateJob(job));
+    }
+
+    private static VideoUploadRequest toRequest(UploadJob job) {
+        return new VideoUploadRequest(job.getTitle(), job.getDescription(),
+                job.getUploadDate(), job.getDuration(), job.getProfilePicture());
+    }
+}
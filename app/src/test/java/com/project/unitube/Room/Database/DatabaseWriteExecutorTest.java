@@ -0,0 +1,144 @@
+package com.project.unitube.Room.Database;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+import android.content.Context;
+
+import androidx.room.Room;
+import androidx.test.core.app.ApplicationProvider;
+
+import com.project.unitube.entities.Comment;
+import com.project.unitube.entities.Video;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.robolectric.RobolectricTestRunner;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+
+@RunWith(RobolectricTestRunner.class)
+public class DatabaseWriteExecutorTest {
+
+    private AppDB db;
+    private DatabaseWriteExecutor executor;
+
+    @Before
+    public void setUp() {
+        Context context = ApplicationProvider.getApplicationContext();
+        db = Room.inMemoryDatabaseBuilder(context, AppDB.class)
+                .allowMainThreadQueries()
+                .build();
+        executor = new DatabaseWriteExecutor(db);
+    }
+
+    @After
+    public void tearDown() {
+        db.close();
+    }
+
+    @Test
+    public void failingWriteDoesNotRollBackTheRestOfItsBatch() throws InterruptedException {
+        CountDownLatch flushed = new CountDownLatch(1);
+
+        executor.execute(() -> db.videoDao().insertVideo(video(1)));
+        // No video 99, so the foreign key fails inside the DAO's own transaction
+        executor.execute(() -> db.commentDao().insertComment(comment("a", 99)));
+        executor.execute(() -> db.commentDao().insertComment(comment("b", 1)), flushed::countDown);
+
+        assertTrue(flushed.await(5, TimeUnit.SECONDS));
+        assertEquals(1, executor.getFlushCount());
+        assertNotNull(db.videoDao().getVideoByID(1));
+        assertNotNull(db.commentDao().getCommentByID("b"));
+        assertNull(db.commentDao().getCommentByID("a"));
+    }
+
+    @Test
+    public void onlyCommittedWritesRunTheirCommitCallback() throws InterruptedException {
+        CountDownLatch flushed = new CountDownLatch(2);
+        AtomicBoolean failedWriteCommitted = new AtomicBoolean();
+        AtomicReference<RuntimeException> failure = new AtomicReference<>();
+        AtomicBoolean storedWriteCommitted = new AtomicBoolean();
+
+        executor.execute(() -> db.commentDao().insertComment(comment("a", 99)),
+                () -> failedWriteCommitted.set(true),
+                error -> {
+                    failure.set(error);
+                    flushed.countDown();
+                });
+        executor.execute(() -> db.videoDao().insertVideo(video(1)), () -> {
+            storedWriteCommitted.set(true);
+            flushed.countDown();
+        }, error -> flushed.countDown());
+
+        assertTrue(flushed.await(5, TimeUnit.SECONDS));
+        assertFalse(failedWriteCommitted.get());
+        assertNotNull(failure.get());
+        assertTrue(storedWriteCommitted.get());
+    }
+
+    @Test
+    public void afterFlushActionsRunOnceTheWriteHasCommitted() throws InterruptedException {
+        CountDownLatch flushed = new CountDownLatch(1);
+        AtomicBoolean storedWhenActionRan = new AtomicBoolean();
+        AtomicBoolean actionRanBeforeCallback = new AtomicBoolean();
+        AtomicBoolean actionRan = new AtomicBoolean();
+
+        executor.execute(() -> {
+            db.videoDao().insertVideo(video(1));
+            executor.runAfterFlush(() -> {
+                storedWhenActionRan.set(db.videoDao().getVideoByID(1) != null && !db.inTransaction());
+                actionRan.set(true);
+            });
+        }, () -> {
+            actionRanBeforeCallback.set(actionRan.get());
+            flushed.countDown();
+        });
+
+        assertTrue(flushed.await(5, TimeUnit.SECONDS));
+        assertTrue(storedWhenActionRan.get());
+        assertTrue(actionRanBeforeCallback.get());
+    }
+
+    @Test
+    public void afterFlushActionsOfAReplayedBatchRunOnlyForCommittedWrites() throws InterruptedException {
+        CountDownLatch flushed = new CountDownLatch(1);
+        AtomicInteger committedActionRuns = new AtomicInteger();
+        AtomicInteger failedActionRuns = new AtomicInteger();
+
+        executor.execute(() -> {
+            db.videoDao().insertVideo(video(1));
+            executor.runAfterFlush(committedActionRuns::incrementAndGet);
+        });
+        executor.execute(() -> {
+            executor.runAfterFlush(failedActionRuns::incrementAndGet);
+            db.commentDao().insertComment(comment("a", 99));
+        }, null, error -> flushed.countDown());
+
+        assertTrue(flushed.await(5, TimeUnit.SECONDS));
+        assertEquals(1, committedActionRuns.get());
+        assertEquals(0, failedActionRuns.get());
+    }
+
+    private static Video video(int id) {
+        Video video = new Video();
+        video.setId(id);
+        video.setTitle("Video " + id);
+        return video;
+    }
+
+    private static Comment comment(String id, int videoId) {
+        Comment comment = new Comment(videoId, "user", null, "text " + id);
+        comment.setId(id);
+        return comment;
+    }
+}
@@ -0,0 +1,174 @@
+package com.project.unitube.network.objectAPI;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+import static org.robolectric.Shadows.shadowOf;
+
+import android.content.Context;
+import android.os.Looper;
+import android.os.SystemClock;
+
+import androidx.room.Room;
+import androidx.test.core.app.ApplicationProvider;
+
+import com.project.unitube.Room.Database.AppDB;
+import com.project.unitube.Room.Database.DatabaseWriteExecutor;
+import com.project.unitube.Room.Database.LocalVideoStore;
+import com.project.unitube.entities.Comment;
+import com.project.unitube.entities.Video;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.robolectric.RobolectricTestRunner;
+
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.BooleanSupplier;
+
+import okhttp3.OkHttpClient;
+import okhttp3.Response;
+import okhttp3.WebSocket;
+import okhttp3.WebSocketListener;
+import okhttp3.mockwebserver.MockResponse;
+import okhttp3.mockwebserver.MockWebServer;
+
+@RunWith(RobolectricTestRunner.class)
+public class VideoLiveChannelTest {
+
+    private static final int VIDEO_ID = 7;
+    private static final long TIMEOUT_MS = 5000;
+
+    private final MockWebServer server = new MockWebServer();
+    private AppDB db;
+    private VideoLiveChannel channel;
+
+    @Before
+    public void setUp() throws Exception {
+        server.start();
+        Context context = ApplicationProvider.getApplicationContext();
+        db = Room.inMemoryDatabaseBuilder(context, AppDB.class)
+                .allowMainThreadQueries()
+                .build();
+        DatabaseWriteExecutor executor = new DatabaseWriteExecutor(db);
+        channel = new VideoLiveChannel(VIDEO_ID, new OkHttpClient(), server.url("/").toString(),
+                db.commentDao(), new LocalVideoStore(db, executor), executor);
+
+        Video video = new Video();
+        video.setId(VIDEO_ID);
+        video.setTitle("Live video");
+        db.videoDao().insertVideo(video);
+    }
+
+    @After
+    public void tearDown() throws Exception {
+        channel.close();
+        server.shutdown();
+        db.close();
+    }
+
+    @Test
+    public void pushedChangesAreAppliedToRoomAndLiveData() throws Exception {
+        db.commentDao().insertComment(comment("c0"));
+        server.enqueue(new MockResponse().withWebSocketUpgrade(new WebSocketListener() {
+            @Override
+            public void onOpen(WebSocket webSocket, Response response) {
+                webSocket.send("{\"type\":\"comment_added\",\"comment\":{\"_id\":\"c1\",\"name\":\"bob\","
+                        + "\"text\":\"hi\"},\"commentCount\":5}");
+                webSocket.send("{\"type\":\"comment_deleted\",\"commentId\":\"c0\",\"commentCount\":4}");
+                webSocket.send("{\"type\":\"reaction\",\"userName\":\"alice\",\"reaction\":\"like\"}");
+                webSocket.send("not json");
+            }
+        }));
+
+        channel.open();
+
+        awaitOnMain(() -> channel.getReactions().getValue() != null
+                && db.commentDao().getCommentByID("c1") != null
+                && db.commentDao().getCommentByID("c0") == null);
+        assertEquals("bob", db.commentDao().getCommentByID("c1").getUserName());
+        assertEquals(VIDEO_ID, db.commentDao().getCommentByID("c1").getVideoId());
+        assertEquals(Integer.valueOf(4), channel.getCommentCount().getValue());
+        Video reacted = channel.getReactions().getValue();
+        assertTrue(reacted.getLikesList().contains("alice"));
+        assertEquals(1, reacted.getLikes());
+        assertTrue(channel.isConnected().getValue());
+    }
+
+    @Test
+    public void reconnectsWithBackoffAndResyncsAfterReconnecting() throws Exception {
+        // Closed by the server right away, then refused, then accepted
+        server.enqueue(new MockResponse().withWebSocketUpgrade(new WebSocketListener() {
+            @Override
+            public void onOpen(WebSocket webSocket, Response response) {
+                webSocket.close(1001, "going away");
+            }
+        }));
+        server.enqueue(new MockResponse().setResponseCode(503));
+        server.enqueue(new MockResponse().withWebSocketUpgrade(new WebSocketListener() {
+        }));
+        AtomicInteger resyncs = new AtomicInteger();
+        channel.setOnResync(resyncs::incrementAndGet);
+
+        channel.open();
+
+        awaitOnMain(() -> nextTaskDelayMs() > 0);
+        assertEquals(VideoLiveChannel.MIN_RECONNECT_DELAY_MS, nextTaskDelayMs());
+        assertEquals(0, resyncs.get());
+        assertFalse(channel.isConnected().getValue());
+
+        shadowOf(Looper.getMainLooper()).idleFor(Duration.ofMillis(VideoLiveChannel.MIN_RECONNECT_DELAY_MS));
+        awaitOnMain(() -> server.getRequestCount() == 2 && nextTaskDelayMs() > 0);
+        assertEquals(2 * VideoLiveChannel.MIN_RECONNECT_DELAY_MS, nextTaskDelayMs());
+
+        shadowOf(Looper.getMainLooper()).idleFor(Duration.ofMillis(2 * VideoLiveChannel.MIN_RECONNECT_DELAY_MS));
+        awaitOnMain(() -> Boolean.TRUE.equals(channel.isConnected().getValue()));
+        assertEquals(3, server.getRequestCount());
+        assertEquals(1, resyncs.get());
+    }
+
+    @Test
+    public void closeStopsReconnecting() throws Exception {
+        server.enqueue(new MockResponse().setResponseCode(503));
+
+        channel.open();
+        awaitOnMain(() -> nextTaskDelayMs() > 0);
+        channel.close();
+
+        assertEquals(0, nextTaskDelayMs());
+        shadowOf(Looper.getMainLooper()).idleFor(Duration.ofMillis(VideoLiveChannel.MAX_RECONNECT_DELAY_MS));
+        assertEquals(1, server.getRequestCount());
+        assertNull(channel.getCommentCount().getValue());
+    }
+
+    // Runs main thread tasks posted by the socket threads until the condition holds, without advancing the clock
+    private static void awaitOnMain(BooleanSupplier condition) throws InterruptedException {
+        long deadline = System.currentTimeMillis() + TIMEOUT_MS;
+        while (true) {
+            shadowOf(Looper.getMainLooper()).idle();
+            if (condition.getAsBoolean()) {
+                return;
+            }
+            if (System.currentTimeMillis() > deadline) {
+                fail("Timed out waiting on the main thread");
+            }
+            Thread.sleep(10);
+        }
+    }
+
+    // Delay of the next delayed main thread task, the pending reconnect, or 0 if there is none
+    private static long nextTaskDelayMs() {
+        Duration next = shadowOf(Looper.getMainLooper()).getNextScheduledTaskTime();
+        return next.isZero() ? 0 : next.toMillis() - SystemClock.uptimeMillis();
+    }
+
+    private static Comment comment(String id) {
+        Comment comment = new Comment(VIDEO_ID, "carol", null, "old");
+        comment.setId(id);
+        return comment;
+    }
+}
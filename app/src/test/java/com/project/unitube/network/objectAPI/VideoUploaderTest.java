@@ -0,0 +1,183 @@
+package com.project.unitube.network.objectAPI;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.fail;
+
+import android.net.Uri;
+
+import androidx.test.core.app.ApplicationProvider;
+
+import com.project.unitube.entities.Video;
+import com.project.unitube.network.interfaceAPI.VideoWebServiceAPI;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+import org.junit.runner.RunWith;
+import org.robolectric.RobolectricTestRunner;
+
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+import okhttp3.OkHttpClient;
+import okhttp3.mockwebserver.MockResponse;
+import okhttp3.mockwebserver.MockWebServer;
+import okhttp3.mockwebserver.RecordedRequest;
+import okhttp3.mockwebserver.SocketPolicy;
+import retrofit2.Retrofit;
+import retrofit2.converter.gson.GsonConverterFactory;
+
+@RunWith(RobolectricTestRunner.class)
+public class VideoUploaderTest {
+
+    private static final String UPLOAD_ID = "upload-1";
+    private static final long CHUNK = VideoUploader.CHUNK_SIZE;
+    // One full chunk and a short last one
+    private static final long TOTAL = CHUNK + 100;
+
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    private final MockWebServer server = new MockWebServer();
+    private final List<Long> acknowledged = new ArrayList<>();
+    private final List<Long> sent = new ArrayList<>();
+    private VideoUploader uploader;
+    private Uri video;
+    private byte[] content;
+
+    @Before
+    public void setUp() throws IOException {
+        server.start();
+        // Without this OkHttp would quietly resend a chunk whose connection dropped
+        OkHttpClient client = new OkHttpClient.Builder()
+                .retryOnConnectionFailure(false)
+                .build();
+        VideoWebServiceAPI api = new Retrofit.Builder()
+                .baseUrl(server.url("/"))
+                .client(client)
+                .addConverterFactory(GsonConverterFactory.create())
+                .build()
+                .create(VideoWebServiceAPI.class);
+        uploader = new VideoUploader(api, ApplicationProvider.getApplicationContext().getContentResolver());
+
+        content = new byte[(int) TOTAL];
+        for (int i = 0; i < content.length; i++) {
+            content[i] = (byte) i;
+        }
+        File file = folder.newFile("video.mp4");
+        try (FileOutputStream out = new FileOutputStream(file)) {
+            out.write(content);
+        }
+        video = Uri.fromFile(file);
+    }
+
+    @After
+    public void tearDown() throws IOException {
+        server.shutdown();
+    }
+
+    @Test
+    public void resumesFromTheAcknowledgedOffsetAfterADroppedConnection() throws Exception {
+        server.enqueue(session(CHUNK));
+        server.enqueue(new MockResponse().setSocketPolicy(SocketPolicy.DISCONNECT_AFTER_REQUEST));
+        server.enqueue(session(CHUNK));
+        server.enqueue(finished());
+
+        Video uploaded = uploader.resume(UPLOAD_ID, 0, video, listener());
+
+        assertEquals(42, uploaded.getId());
+        assertChunk(server.takeRequest(), 0, CHUNK);
+        assertChunk(server.takeRequest(), CHUNK, TOTAL);
+        RecordedRequest status = server.takeRequest();
+        assertEquals("GET", status.getMethod());
+        assertEquals("/api/uploads/" + UPLOAD_ID, status.getPath());
+        assertChunk(server.takeRequest(), CHUNK, TOTAL);
+        // The dropped chunk was sent but never acknowledged, so it is not a resume offset
+        assertEquals(Arrays.asList(CHUNK, CHUNK), acknowledged);
+    }
+
+    @Test
+    public void offsetMismatchContinuesFromTheServersOffset() throws Exception {
+        // The server already stored the first chunk, the stored offset is behind
+        server.enqueue(new MockResponse().setResponseCode(409).setBody(sessionJson(CHUNK)));
+        server.enqueue(session(CHUNK));
+        server.enqueue(finished());
+
+        Video uploaded = uploader.resume(UPLOAD_ID, 0, video, listener());
+
+        assertEquals(42, uploaded.getId());
+        assertChunk(server.takeRequest(), 0, CHUNK);
+        assertEquals("GET", server.takeRequest().getMethod());
+        assertChunk(server.takeRequest(), CHUNK, TOTAL);
+        assertEquals(3, server.getRequestCount());
+        assertEquals(Collections.singletonList(CHUNK), acknowledged);
+    }
+
+    @Test
+    public void finalChunkReturnsTheCreatedVideo() throws Exception {
+        server.enqueue(finished());
+
+        Video uploaded = uploader.resume(UPLOAD_ID, CHUNK, video, listener());
+
+        assertEquals(42, uploaded.getId());
+        assertChunk(server.takeRequest(), CHUNK, TOTAL);
+        assertEquals(1, server.getRequestCount());
+        assertEquals(Long.valueOf(TOTAL), sent.get(sent.size() - 1));
+    }
+
+    @Test
+    public void rejectedUploadIsNotRetried() throws Exception {
+        server.enqueue(new MockResponse().setResponseCode(404));
+
+        try {
+            uploader.resume(UPLOAD_ID, 0, video, listener());
+            fail("Expected the upload to be rejected");
+        } catch (VideoUploader.UploadRejectedException e) {
+            assertEquals(1, server.getRequestCount());
+        }
+    }
+
+    private VideoUploader.ProgressListener listener() {
+        return new VideoUploader.ProgressListener() {
+            @Override
+            public void onProgress(long bytesSent, long totalBytes) {
+                sent.add(bytesSent);
+            }
+
+            @Override
+            public void onAcknowledged(long offset, long totalBytes) {
+                acknowledged.add(offset);
+            }
+        };
+    }
+
+    private void assertChunk(RecordedRequest request, long start, long end) {
+        assertEquals("PUT", request.getMethod());
+        assertEquals("/api/uploads/" + UPLOAD_ID, request.getPath());
+        assertEquals("bytes " + start + "-" + (end - 1) + "/" + TOTAL, request.getHeader("Content-Range"));
+        byte[] expected = new byte[(int) (end - start)];
+        System.arraycopy(content, (int) start, expected, 0, expected.length);
+        assertArrayEquals(expected, request.getBody().readByteArray());
+    }
+
+    private static MockResponse session(long offset) {
+        return new MockResponse().setBody(sessionJson(offset));
+    }
+
+    private static MockResponse finished() {
+        return new MockResponse().setBody("{\"uploadId\":\"" + UPLOAD_ID + "\",\"offset\":" + TOTAL
+                + ",\"video\":{\"id\":42,\"title\":\"Uploaded\"}}");
+    }
+
+    private static String sessionJson(long offset) {
+        return "{\"uploadId\":\"" + UPLOAD_ID + "\",\"offset\":" + offset + "}";
+    }
+}
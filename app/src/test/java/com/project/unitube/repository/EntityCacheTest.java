@@ -0,0 +1,54 @@
+package com.project.unitube.repository;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+
+import com.project.unitube.entities.Video;
+
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.robolectric.RobolectricTestRunner;
+
+import java.util.ArrayList;
+import java.util.Collections;
+
+@RunWith(RobolectricTestRunner.class)
+public class EntityCacheTest {
+
+    private final EntityCache cache = EntityCache.getInstance();
+
+    @Test
+    public void changesToPutAndReturnedVideosStayOutOfTheCache() {
+        Video video = video(1001);
+        cache.putVideo(video);
+        video.setTitle("Changed after put");
+        video.getLikesList().add("alice");
+
+        Video cached = cache.getVideo(1001);
+        assertEquals("Video 1001", cached.getTitle());
+        assertEquals(0, cached.getLikesList().size());
+
+        cached.setTitle("Changed after get");
+        cached.getLikesList().add("bob");
+        assertEquals("Video 1001", cache.getVideo(1001).getTitle());
+        assertEquals(0, cache.getVideo(1001).getLikesList().size());
+    }
+
+    @Test
+    public void readFromBeforeAnInvalidationIsNotCached() {
+        long generation = cache.getGeneration();
+        cache.invalidateVideo(1002);
+
+        cache.putVideo(video(1002), generation);
+
+        assertNull(cache.getVideo(1002));
+    }
+
+    private static Video video(int id) {
+        Video video = new Video();
+        video.setId(id);
+        video.setTitle("Video " + id);
+        video.setLikesList(new ArrayList<>(Collections.emptyList()));
+        return video;
+    }
+}
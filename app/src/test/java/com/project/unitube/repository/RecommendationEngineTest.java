@@ -0,0 +1,108 @@
+package com.project.unitube.repository;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+import static org.robolectric.Shadows.shadowOf;
+
+import android.content.Context;
+import android.os.Looper;
+
+import androidx.lifecycle.LiveData;
+import androidx.room.Room;
+import androidx.test.core.app.ApplicationProvider;
+
+import com.project.unitube.Room.Dao.RecommendationDao;
+import com.project.unitube.Room.Database.AppDB;
+import com.project.unitube.Room.Database.DatabaseWriteExecutor;
+import com.project.unitube.entities.SyncState;
+import com.project.unitube.entities.Video;
+import com.project.unitube.network.objectAPI.VideoSyncEngine;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.robolectric.RobolectricTestRunner;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+@RunWith(RobolectricTestRunner.class)
+public class RecommendationEngineTest {
+
+    private static final long TIMEOUT_MS = TimeUnit.SECONDS.toMillis(30);
+
+    private AppDB db;
+    private DatabaseWriteExecutor executor;
+
+    @Before
+    public void setUp() {
+        Context context = ApplicationProvider.getApplicationContext();
+        db = Room.inMemoryDatabaseBuilder(context, AppDB.class)
+                .allowMainThreadQueries()
+                .build();
+        executor = new DatabaseWriteExecutor(db);
+    }
+
+    @After
+    public void tearDown() {
+        db.close();
+    }
+
+    @Test
+    public void editedTitlesAreReindexedAfterASync() throws InterruptedException {
+        List<Video> videos = new ArrayList<>();
+        for (int id = 1; id <= 10; id++) {
+            videos.add(video(id, "plain title " + id, "uploader" + id));
+        }
+        db.videoDao().insertAllVideos(videos);
+        db.syncStateDao().putState(new SyncState(VideoSyncEngine.VIDEOS_HIGH_WATER_MARK, 1000L));
+        await(new RecommendationEngine(db, executor, onChanged -> { }).getRecommendations(1, null));
+        assertTrue(topVideosFor("zebra").isEmpty());
+
+        // A delta edits a title without changing the count or the newest id
+        Video edited = video(5, "zebra crossing", "uploader5");
+        db.videoDao().updateVideo(edited);
+        db.syncStateDao().putState(new SyncState(VideoSyncEngine.VIDEOS_HIGH_WATER_MARK, 2000L));
+        await(new RecommendationEngine(db, executor, onChanged -> { }).getRecommendations(1, null));
+
+        List<Integer> ids = topVideosFor("zebra");
+        assertEquals(1, ids.size());
+        assertEquals(5, (int) ids.get(0));
+    }
+
+    private List<Integer> topVideosFor(String term) {
+        List<Integer> ids = new ArrayList<>();
+        for (RecommendationDao.TermWeight weight : db.recommendationDao().getTopVideosForTerm(term, 10)) {
+            ids.add(weight.videoId);
+        }
+        return ids;
+    }
+
+    // Runs main thread tasks until the ranking thread has posted its result
+    private static <T> T await(LiveData<T> liveData) throws InterruptedException {
+        long deadline = System.currentTimeMillis() + TIMEOUT_MS;
+        while (true) {
+            shadowOf(Looper.getMainLooper()).idle();
+            T value = liveData.getValue();
+            if (value != null) {
+                return value;
+            }
+            if (System.currentTimeMillis() > deadline) {
+                fail("Timed out waiting for recommendations");
+            }
+            Thread.sleep(5);
+        }
+    }
+
+    private static Video video(int id, String title, String uploader) {
+        Video video = new Video();
+        video.setId(id);
+        video.setTitle(title);
+        video.setUploader(uploader);
+        video.setUploadDate("2024-01-01");
+        return video;
+    }
+}